@@ -26,6 +26,7 @@ public class Build {
                     // <main>
                     .module("src/se.jbee.inject/main/java-9", 8)
                     .module("src/se.jbee.inject.action/main/java-9", 8)
+                    .module("src/se.jbee.inject.aot/main/java-9", 8)
                     .module("src/se.jbee.inject.api/main/java-9", 8)
                     .module("src/se.jbee.inject.bind/main/java-9", 8)
                     .module("src/se.jbee.inject.bootstrap/main/java-9", 8)
@@ -37,9 +38,11 @@ public class Build {
                     // test
                     .withTestModule("src/test.integration/test/java") // extra-module tests
                     .withTestModule("src/com.example.app/test/java") // silk's first client
+                    .withTestModule("src/se.jbee.inject.bench/test/java") // graphs and benchmarks
                     // lib/
                     .withLibraryRequires(
-                            "org.hamcrest", "org.junit.vintage.engine", "org.junit.platform.console");
+                            "org.hamcrest", "org.junit.vintage.engine", "org.junit.platform.console",
+                            "jmh.core", "jmh.generator.annprocess");
 
     var configuration = Configuration.ofSystem()
             .with(Level.INFO)
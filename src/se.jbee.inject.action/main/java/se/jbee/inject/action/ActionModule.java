@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import se.jbee.inject.*;
 import se.jbee.inject.UnresolvableDependency.NoMethodForDependency;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.UnresolvableDependency.SupplyFailed;
 import se.jbee.inject.lang.Utils;
@@ -144,7 +145,7 @@ public abstract class ActionModule extends BinderModule {
 		}
 
 		private <I, O> Action<?, ?> newAction(Type<I> input, Type<O> output) {
-			Method method = resolveAction(input, output);
+			Method method = Metadata.detached(resolveAction(input, output));
 			Object impl = injector.resolve(method.getDeclaringClass());
 			env.accessible(method);
 			return new ExecutorRunAction<>(injector, executor,
@@ -0,0 +1,21 @@
+/**
+ * Contains an add-on to generate a static {@link se.jbee.inject.Injector} for
+ * a fixed set of {@link se.jbee.inject.bind.Binding}s ahead of time and the
+ * annotation processors creating the {@link se.jbee.inject.lang.ConstructorIndex}
+ * and the {@link se.jbee.inject.binder.BundleIndex}.
+ */
+module se.jbee.inject.aot {
+
+	requires java.compiler;
+	requires se.jbee.inject.lang;
+	requires se.jbee.inject.api;
+	requires se.jbee.inject.bind;
+	requires se.jbee.inject.container;
+	requires se.jbee.inject.bootstrap;
+
+	exports se.jbee.inject.aot;
+
+	provides javax.annotation.processing.Processor
+			with se.jbee.inject.aot.ConstructorIndexProcessor,
+				se.jbee.inject.aot.BundleIndexProcessor;
+}
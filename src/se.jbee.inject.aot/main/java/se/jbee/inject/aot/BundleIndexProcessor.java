@@ -0,0 +1,121 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.aot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import se.jbee.inject.Extends;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.binder.BundleIndex;
+
+/**
+ * An annotation processor that writes the {@link BundleIndex} for all
+ * {@link Bundle} classes compiled. For each {@link Bundle} the {@link Extends}
+ * target is recorded so that bootstrapping can decide which
+ * {@link java.util.ServiceLoader} {@link Bundle}s to install without loading
+ * or instantiating the others.
+ *
+ * Add it to the compilation using {@code -processor} with this class name or
+ * {@code --processor-module-path}.
+ *
+ * @since 19.1
+ */
+@SupportedAnnotationTypes("*")
+public final class BundleIndexProcessor extends AbstractProcessor {
+
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment round) {
+		TypeElement bundle = processingEnv.getElementUtils().getTypeElement(
+				Bundle.class.getName());
+		if (bundle != null)
+			for (TypeElement type : ElementFilter.typesIn(
+					round.getRootElements()))
+				indexType(type, bundle.asType());
+		if (round.processingOver() && !index.isEmpty())
+			writeIndex();
+		return false; // does not claim any annotations
+	}
+
+	private void indexType(TypeElement type, TypeMirror bundle) {
+		Types types = processingEnv.getTypeUtils();
+		if (type.getKind() == ElementKind.CLASS
+			&& !type.getModifiers().contains(Modifier.ABSTRACT)
+			&& (type.getEnclosingElement().getKind() == ElementKind.PACKAGE
+				|| type.getModifiers().contains(Modifier.STATIC))
+			&& types.isAssignable(types.erasure(type.asType()), bundle))
+			index.put(binaryName(type), extendsTarget(type));
+		for (TypeElement member : ElementFilter.typesIn(
+				type.getEnclosedElements()))
+			indexType(member, bundle);
+	}
+
+	private String extendsTarget(TypeElement type) {
+		for (AnnotationMirror a : type.getAnnotationMirrors()) {
+			TypeElement annotation = (TypeElement) a.getAnnotationType().asElement();
+			if (annotation.getQualifiedName().contentEquals(
+					Extends.class.getName())) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : //
+				a.getElementValues().entrySet()) {
+					if (e.getKey().getSimpleName().contentEquals("value")) {
+						DeclaredType target = (DeclaredType) e.getValue().getValue();
+						return binaryName((TypeElement) target.asElement());
+					}
+				}
+			}
+		}
+		return "";
+	}
+
+	private String binaryName(TypeElement type) {
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", BundleIndex.RESOURCE);
+			try (Writer out = file.openWriter()) {
+				for (Map.Entry<String, String> e : index.entrySet())
+					out.append(e.getKey()).append('=').append(
+							e.getValue()).append('\n');
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"Failed to write " + BundleIndex.RESOURCE + ": "
+						+ e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.aot;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import se.jbee.inject.lang.ConstructorIndex;
+import se.jbee.inject.lang.Utils;
+
+/**
+ * An annotation processor that writes the {@link ConstructorIndex} for all
+ * classes compiled. For each class the constructor is selected using the same
+ * rules as {@link Utils#commonConstructor(Class)} so that bootstrapping in a
+ * native image can look it up directly instead of scanning all declared
+ * constructors (see {@link ConstructorIndex#isUsed()}).
+ *
+ * Add it to the compilation using {@code -processor} with this class name or
+ * {@code --processor-module-path}.
+ *
+ * @since 19.1
+ */
+@SupportedAnnotationTypes("*")
+public final class ConstructorIndexProcessor extends AbstractProcessor {
+
+	private final Map<String, String> index = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment round) {
+		for (TypeElement type : ElementFilter.typesIn(round.getRootElements()))
+			indexType(type);
+		if (round.processingOver() && !index.isEmpty())
+			writeIndex();
+		return false; // does not claim any annotations
+	}
+
+	private void indexType(TypeElement type) {
+		if (type.getKind() == ElementKind.CLASS
+			&& !type.getModifiers().contains(Modifier.ABSTRACT)
+			&& (type.getEnclosingElement().getKind() == ElementKind.PACKAGE
+				|| type.getModifiers().contains(Modifier.STATIC))) {
+			ExecutableElement common = commonConstructor(type);
+			if (common != null)
+				index.put(binaryName(type), parameterTypes(common));
+		}
+		for (TypeElement member : ElementFilter.typesIn(
+				type.getEnclosedElements()))
+			indexType(member);
+	}
+
+	private ExecutableElement commonConstructor(TypeElement type) {
+		List<ExecutableElement> cs = ElementFilter.constructorsIn(
+				type.getEnclosedElements());
+		if (cs.size() == 1)
+			return cs.get(0);
+		ExecutableElement common = null;
+		for (ExecutableElement c : cs)
+			if (!isSelfReferencing(type, c) && (common == null
+				|| visibility(c) > visibility(common)
+				|| visibility(c) == visibility(common)
+					&& c.getParameters().size() > common.getParameters().size()))
+				common = c;
+		return common;
+	}
+
+	private boolean isSelfReferencing(TypeElement type, ExecutableElement c) {
+		Types types = processingEnv.getTypeUtils();
+		for (VariableElement p : c.getParameters())
+			if (types.isSameType(types.erasure(type.asType()),
+					types.erasure(p.asType())))
+				return true;
+		return false;
+	}
+
+	private static int visibility(Element e) {
+		Set<Modifier> modifiers = e.getModifiers();
+		if (modifiers.contains(Modifier.PUBLIC))
+			return 3;
+		if (modifiers.contains(Modifier.PROTECTED))
+			return 2;
+		return modifiers.contains(Modifier.PRIVATE) ? 0 : 1;
+	}
+
+	private String parameterTypes(ExecutableElement c) {
+		StringBuilder params = new StringBuilder();
+		for (VariableElement p : c.getParameters()) {
+			if (params.length() > 0)
+				params.append(',');
+			params.append(className(
+					processingEnv.getTypeUtils().erasure(p.asType())));
+		}
+		return params.toString();
+	}
+
+	/**
+	 * @return the name as returned by {@link Class#getName()}
+	 */
+	private String className(TypeMirror type) {
+		if (type.getKind().isPrimitive())
+			return type.getKind().name().toLowerCase(Locale.ROOT);
+		if (type.getKind() == TypeKind.ARRAY)
+			return "[" + descriptor(((ArrayType) type).getComponentType());
+		return binaryName((TypeElement) ((DeclaredType) type).asElement());
+	}
+
+	private String descriptor(TypeMirror type) {
+		switch (type.getKind()) {
+		case BOOLEAN: return "Z";
+		case BYTE: return "B";
+		case CHAR: return "C";
+		case SHORT: return "S";
+		case INT: return "I";
+		case LONG: return "J";
+		case FLOAT: return "F";
+		case DOUBLE: return "D";
+		case ARRAY: return className(type);
+		default: return "L" + className(type) + ";";
+		}
+	}
+
+	private String binaryName(TypeElement type) {
+		return processingEnv.getElementUtils().getBinaryName(type).toString();
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject file = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", ConstructorIndex.RESOURCE);
+			try (Writer out = file.openWriter()) {
+				for (Map.Entry<String, String> e : index.entrySet())
+					out.append(e.getKey()).append('=').append(
+							e.getValue()).append('\n');
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"Failed to write " + ConstructorIndex.RESOURCE + ": "
+						+ e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.aot;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import se.jbee.inject.Annotated;
+import se.jbee.inject.Hint;
+import se.jbee.inject.Initialiser;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Name;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Target;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.BindingType;
+import se.jbee.inject.binder.Supply;
+import se.jbee.inject.container.PostConstructObserver;
+import se.jbee.inject.lang.Type;
+
+/**
+ * Generates the Java source of a {@link StaticInjector} for a fixed set of
+ * {@link Binding}s as returned by
+ * {@code se.jbee.inject.bootstrap.Bootstrap#bindings}.
+ *
+ * A {@link Binding} is resolved statically, that is by a direct constructor
+ * call without any {@link se.jbee.inject.Locator} matching or reflection, when
+ * it can be proven that the {@link se.jbee.inject.container.Container} would
+ * yield the very same instance:
+ * <ul>
+ * <li>it is the only {@link Binding} for its raw type which has no type
+ * parameters</li>
+ * <li>it has the {@link Name#DEFAULT} name and is not targeted</li>
+ * <li>it is a {@link BindingType#CONSTRUCTOR} {@link Binding} to a public
+ * constructor of a public class in {@link Scope#application}</li>
+ * <li>all its parameters are relative references to the exact parameter type
+ * which again is resolved statically, or they are the {@link Injector}</li>
+ * <li>there are no {@link Initialiser}s or {@link PostConstructObserver}s
+ * </ul>
+ *
+ * The generated singletons are created lazily.
+ *
+ * @since 19.1
+ */
+public final class InjectorGenerator {
+
+	private InjectorGenerator() {
+		throw new UnsupportedOperationException("util");
+	}
+
+	/**
+	 * Writes the generated source to the package directory within the given
+	 * source root.
+	 *
+	 * @return the file written
+	 */
+	public static Path generate(Path sourceRoot, String className,
+			Binding<?>[] bindings) throws IOException {
+		Path file = sourceRoot.resolve(className.replace('.', '/') + ".java");
+		Files.createDirectories(file.getParent());
+		Files.write(file,
+				generate(className, bindings).getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	/**
+	 * @param className fully qualified name of the generated class
+	 * @param bindings the complete set of {@link Binding}s the generated
+	 *            {@link StaticInjector} is created for, the very same are
+	 *            passed to its constructor at runtime
+	 * @return the Java source of the generated {@link StaticInjector}
+	 */
+	public static String generate(String className, Binding<?>[] bindings) {
+		Map<Class<?>, Binding<?>> statics = staticBindings(bindings);
+		Map<Class<?>, String> names = new HashMap<>();
+		for (Class<?> type : statics.keySet())
+			names.put(type, "s" + names.size());
+		int dot = className.lastIndexOf('.');
+		StringBuilder src = new StringBuilder();
+		if (dot > 0)
+			src.append("package ").append(className, 0, dot).append(";\n\n");
+		src.append("/**\n * Generated by {@link ").append(
+				InjectorGenerator.class.getName()).append(
+						"}, do not edit.\n */\n");
+		src.append("public final class ").append(className.substring(dot + 1));
+		src.append(" extends ").append(
+				StaticInjector.class.getName()).append(" {\n\n");
+		src.append("\tpublic ").append(className.substring(dot + 1)).append(
+				"(se.jbee.inject.bind.Binding<?>... fallback) {\n");
+		src.append("\t\tsuper(fallback);\n\t}\n");
+		for (Binding<?> b : statics.values())
+			appendSingleton(src, b, names);
+		src.append("\n\t@Override\n\tprotected boolean isStatic(Class<?> type) {\n");
+		appendSwitch(src, statics.keySet(), names, false);
+		src.append("\n\t@Override\n\tprotected Object resolveStatic(Class<?> type) {\n");
+		appendSwitch(src, statics.keySet(), names, true);
+		src.append("}\n");
+		return src.toString();
+	}
+
+	/**
+	 * @return the raw types that are resolved statically by the generated
+	 *         {@link StaticInjector} for the given {@link Binding}s
+	 */
+	public static Set<Class<?>> staticTypes(Binding<?>[] bindings) {
+		return staticBindings(bindings).keySet();
+	}
+
+	private static void appendSingleton(StringBuilder src, Binding<?> b,
+			Map<Class<?>, String> names) {
+		String type = b.type().rawType.getCanonicalName();
+		String name = names.get(b.type().rawType);
+		Constructor<?> target = constructor(b);
+		src.append("\n\t// ").append(b.signature.toString().trim()).append('\n');
+		src.append("\tprivate volatile ").append(type).append(' ').append(
+				name).append(";\n\n");
+		src.append("\tprivate ").append(type).append(' ').append(name).append(
+				"() {\n");
+		src.append("\t\t").append(type).append(" res = ").append(name).append(
+				";\n");
+		src.append("\t\tif (res == null) {\n\t\t\tsynchronized (this) {\n");
+		src.append("\t\t\t\tres = ").append(name).append(";\n");
+		src.append("\t\t\t\tif (res == null) {\n");
+		src.append("\t\t\t\t\tres = new ").append(
+				target.getDeclaringClass().getCanonicalName()).append('(');
+		Hint<?>[] hints = ((Supply.WithArgs<?>) b.supplier).hints();
+		for (int i = 0; i < hints.length; i++) {
+			if (i > 0)
+				src.append(", ");
+			Class<?> param = hints[i].type().rawType;
+			src.append(param == Injector.class ? "this" : names.get(param) + "()");
+		}
+		src.append(");\n");
+		src.append("\t\t\t\t\t").append(name).append(" = res;\n");
+		src.append("\t\t\t\t}\n\t\t\t}\n\t\t}\n\t\treturn res;\n\t}\n");
+	}
+
+	private static void appendSwitch(StringBuilder src, Set<Class<?>> types,
+			Map<Class<?>, String> names, boolean resolve) {
+		if (types.isEmpty()) {
+			src.append("\t\treturn ").append(resolve ? "null" : "false").append(
+					";\n\t}\n");
+			return;
+		}
+		src.append("\t\tswitch (type.getName()) {\n");
+		for (Class<?> type : types) {
+			src.append("\t\tcase \"").append(type.getName()).append("\":\n");
+			src.append("\t\t\treturn ").append(
+					resolve ? names.get(type) + "()" : "true").append(";\n");
+		}
+		src.append("\t\tdefault:\n\t\t\treturn ").append(
+				resolve ? "null" : "false").append(";\n\t\t}\n\t}\n");
+	}
+
+	/**
+	 * @return the static {@link Binding}s by their raw type in order of the
+	 *         given {@link Binding}s
+	 */
+	private static Map<Class<?>, Binding<?>> staticBindings(
+			Binding<?>[] bindings) {
+		Map<Class<?>, Binding<?>> candidates = new LinkedHashMap<>();
+		Map<Class<?>, Integer> counts = new HashMap<>();
+		for (Binding<?> b : bindings) {
+			Class<?> rawType = b.type().rawType;
+			if (Initialiser.class.isAssignableFrom(rawType)
+				|| PostConstructObserver.class.isAssignableFrom(rawType))
+				return new LinkedHashMap<>();
+			counts.merge(rawType, 1, Integer::sum);
+			if (isCandidate(b))
+				candidates.put(rawType, b);
+		}
+		Map<Class<?>, Boolean> proven = new IdentityHashMap<>();
+		Map<Class<?>, Binding<?>> statics = new LinkedHashMap<>();
+		for (Binding<?> b : candidates.values()) {
+			Class<?> rawType = b.type().rawType;
+			if (isStatic(rawType, candidates, counts, proven))
+				statics.put(rawType, b);
+		}
+		return statics;
+	}
+
+	private static boolean isStatic(Class<?> rawType,
+			Map<Class<?>, Binding<?>> candidates, Map<Class<?>, Integer> counts,
+			Map<Class<?>, Boolean> proven) {
+		Boolean known = proven.get(rawType);
+		if (known != null)
+			return known;
+		Binding<?> b = candidates.get(rawType);
+		if (b == null || counts.get(rawType) != 1)
+			return false;
+		proven.put(rawType, false); // a cycle is not static
+		for (Hint<?> hint : ((Supply.WithArgs<?>) b.supplier).hints()) {
+			Class<?> param = hint.type().rawType;
+			if (param != Injector.class
+				&& !isStatic(param, candidates, counts, proven))
+				return false;
+		}
+		proven.put(rawType, true);
+		return true;
+	}
+
+	private static boolean isCandidate(Binding<?> b) {
+		Type<?> type = b.type();
+		Constructor<?> target = constructor(b);
+		if (b.type != BindingType.CONSTRUCTOR || target == null
+			|| !b.scope.equalTo(Scope.application)
+			|| !b.signature.instance.name.isDefault()
+			|| b.signature.target.indirect
+			|| !b.signature.target.equalTo(Target.ANY) || !isExact(type)
+			|| type.rawType == Injector.class
+			|| !Modifier.isPublic(target.getModifiers())
+			|| !isAccessible(target.getDeclaringClass())
+			|| !type.rawType.isAssignableFrom(target.getDeclaringClass()))
+			return false;
+		Hint<?>[] hints = ((Supply.WithArgs<?>) b.supplier).hints();
+		Class<?>[] params = target.getParameterTypes();
+		if (hints.length != params.length)
+			return false;
+		for (int i = 0; i < hints.length; i++) {
+			Hint<?> hint = hints[i];
+			if (hint.relativeRef == null || hint.absoluteRef != null
+				|| hint.value != null || !isExact(hint.type())
+				|| hint.type().rawType != params[i]
+				|| !(hint.relativeRef.name.isAny()
+					|| hint.relativeRef.name.isDefault()))
+				return false;
+		}
+		return true;
+	}
+
+	private static Constructor<?> constructor(Binding<?> b) {
+		if (!(b.supplier instanceof Supply.WithArgs)
+			|| !(b.supplier instanceof Annotated))
+			return null;
+		Object element = ((Annotated) b.supplier).element();
+		return element instanceof Constructor ? (Constructor<?>) element : null;
+	}
+
+	private static boolean isExact(Type<?> type) {
+		return !type.isUpperBound() && !type.isParameterized()
+			&& type.arrayDimensions() == 0 && !type.rawType.isPrimitive()
+			&& type.rawType.getTypeParameters().length == 0;
+	}
+
+	private static boolean isAccessible(Class<?> type) {
+		if (!Modifier.isPublic(type.getModifiers())
+			|| type.getCanonicalName() == null)
+			return false;
+		Class<?> outer = type.getEnclosingClass();
+		return outer == null
+			|| Modifier.isStatic(type.getModifiers()) && isAccessible(outer);
+	}
+}
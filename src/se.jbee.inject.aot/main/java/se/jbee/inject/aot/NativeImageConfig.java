@@ -0,0 +1,176 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.aot;
+
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import se.jbee.inject.Annotated;
+import se.jbee.inject.Env;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.binder.BundleIndex;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.lang.ConstructorIndex;
+
+/**
+ * Generates the GraalVM native-image {@code reflect-config.json} and
+ * {@code resource-config.json} for a root {@link Bundle}.
+ *
+ * The reflection configuration contains all constructors, methods and fields
+ * the {@link Binding}s invoke and the no-argument constructors of all
+ * {@link Bundle}s that are instantiated when bootstrapping the root
+ * {@link Bundle}. The fields of {@link Bundle}s are all included as they are
+ * scanned to tell if a module has state. The resource configuration includes the
+ * {@link ConstructorIndex} and the {@link BundleIndex}.
+ *
+ * @since 19.1
+ */
+public final class NativeImageConfig {
+
+	public static final String REFLECT_CONFIG = "reflect-config.json";
+	public static final String RESOURCE_CONFIG = "resource-config.json";
+
+	private NativeImageConfig() {
+		throw new UnsupportedOperationException("util");
+	}
+
+	/**
+	 * Writes the {@link #REFLECT_CONFIG} and {@link #RESOURCE_CONFIG} files to
+	 * the given directory, usually
+	 * {@code META-INF/native-image/<group>/<artifact>}.
+	 */
+	public static void generate(Env env, Class<? extends Bundle> root,
+			Path dir) throws IOException {
+		Files.createDirectories(dir);
+		Files.write(dir.resolve(REFLECT_CONFIG),
+				reflectConfig(env, root).getBytes(StandardCharsets.UTF_8));
+		Files.write(dir.resolve(RESOURCE_CONFIG),
+				resourceConfig().getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String reflectConfig(Env env, Class<? extends Bundle> root) {
+		return reflectConfig(Bootstrap.bundler(env).bundle(root),
+				Bootstrap.bindings(env, root, Bindings.newBindings()));
+	}
+
+	public static String reflectConfig(Class<? extends Bundle>[] bundles,
+			Binding<?>[] bindings) {
+		Map<String, Entry> entries = new TreeMap<>();
+		for (Class<? extends Bundle> bundle : bundles) {
+			Entry e = entry(entries, bundle);
+			e.methods.add(signature("<init>"));
+			e.allDeclaredFields = true;
+		}
+		for (Binding<?> b : bindings) {
+			if (!(b.supplier instanceof Annotated))
+				continue;
+			AnnotatedElement member = ((Annotated) b.supplier).element();
+			if (member instanceof Constructor) {
+				Constructor<?> c = (Constructor<?>) member;
+				entry(entries, c.getDeclaringClass()).methods.add(
+						signature("<init>", c));
+			} else if (member instanceof Method) {
+				Method m = (Method) member;
+				entry(entries, m.getDeclaringClass()).methods.add(
+						signature(m.getName(), m));
+			} else if (member instanceof Field) {
+				Field f = (Field) member;
+				entry(entries, f.getDeclaringClass()).fields.add(
+						"{ \"name\": \"" + f.getName() + "\" }");
+			}
+		}
+		StringBuilder json = new StringBuilder("[");
+		String sep = "\n";
+		for (Entry e : entries.values()) {
+			json.append(sep);
+			e.appendTo(json);
+			sep = ",\n";
+		}
+		return json.append("\n]\n").toString();
+	}
+
+	public static String resourceConfig() {
+		return "{\n  \"resources\": {\n    \"includes\": [\n"
+			+ "      { \"pattern\": \"\\\\Q" + ConstructorIndex.RESOURCE
+			+ "\\\\E\" },\n"
+			+ "      { \"pattern\": \"\\\\Q" + BundleIndex.RESOURCE
+			+ "\\\\E\" }\n    ]\n  }\n}\n";
+	}
+
+	private static Entry entry(Map<String, Entry> entries, Class<?> type) {
+		return entries.computeIfAbsent(type.getName(), Entry::new);
+	}
+
+	private static String signature(String name, Executable member) {
+		StringBuilder sig = new StringBuilder();
+		sig.append("{ \"name\": \"").append(name).append(
+				"\", \"parameterTypes\": [");
+		Class<?>[] params = member.getParameterTypes();
+		for (int i = 0; i < params.length; i++) {
+			if (i > 0)
+				sig.append(", ");
+			sig.append('"').append(params[i].getTypeName()).append('"');
+		}
+		return sig.append("] }").toString();
+	}
+
+	private static String signature(String name) {
+		return "{ \"name\": \"" + name + "\", \"parameterTypes\": [] }";
+	}
+
+	/**
+	 * The configuration of a single {@link Class}.
+	 */
+	private static final class Entry {
+
+		final String name;
+		final Set<String> methods = new TreeSet<>();
+		final Set<String> fields = new TreeSet<>();
+		boolean allDeclaredFields;
+
+		Entry(String name) {
+			this.name = name;
+		}
+
+		void appendTo(StringBuilder json) {
+			json.append("  {\n    \"name\": \"").append(name).append("\",\n");
+			// constructors are chosen and methods are selected by scanning
+			json.append("    \"queryAllDeclaredConstructors\": true,\n");
+			json.append("    \"queryAllDeclaredMethods\": true");
+			if (allDeclaredFields)
+				json.append(",\n    \"allDeclaredFields\": true");
+			appendMembers(json, "methods", methods);
+			appendMembers(json, "fields", fields);
+			json.append("\n  }");
+		}
+
+		private static void appendMembers(StringBuilder json, String key,
+				Set<String> members) {
+			if (members.isEmpty())
+				return;
+			json.append(",\n    \"").append(key).append("\": [");
+			String sep = "\n";
+			for (String m : members) {
+				json.append(sep).append("      ").append(m);
+				sep = ",\n";
+			}
+			json.append("\n    ]");
+		}
+	}
+}
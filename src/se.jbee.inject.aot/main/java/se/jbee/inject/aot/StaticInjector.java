@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.aot;
+
+import static se.jbee.inject.lang.Utils.arrayMap;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Name;
+import se.jbee.inject.Supplier;
+import se.jbee.inject.UnresolvableDependency;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.container.Container;
+import se.jbee.inject.lang.Type;
+
+/**
+ * The base class of the {@link Injector}s generated by the
+ * {@link InjectorGenerator}.
+ *
+ * A generated {@link StaticInjector} knows the types it can resolve without a
+ * {@link Container}. These are created by direct constructor calls. All other
+ * {@link Dependency}s are resolved by a fallback {@link Container} made from
+ * the {@link Binding}s passed to the constructor. Within the fallback the
+ * {@link Binding}s of the static types are replaced by references back to the
+ * {@link StaticInjector} so that both share the same instances.
+ *
+ * @since 19.1
+ */
+public abstract class StaticInjector implements Injector {
+
+	private final Injector fallback;
+
+	protected StaticInjector(Binding<?>... fallback) {
+		this.fallback = Container.injector(
+				arrayMap(fallback, this::linked));
+	}
+
+	/**
+	 * @param type a raw type without type parameters
+	 * @return true, if the instance for the given type is created by this
+	 *         {@link StaticInjector} without the fallback {@link Container}
+	 */
+	protected abstract boolean isStatic(Class<?> type);
+
+	/**
+	 * @param type a raw type without type parameters
+	 * @return the instance for the given type or null if the type is not
+	 *         {@link #isStatic(Class)}
+	 */
+	protected abstract Object resolveStatic(Class<?> type);
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public final <T> T resolve(Dependency<T> dep)
+			throws UnresolvableDependency {
+		Type<T> type = dep.type();
+		Name name = dep.instance.name;
+		if ((name.isAny() || name.isDefault()) && !type.isUpperBound()
+			&& !type.isParameterized() && type.arrayDimensions() == 0) {
+			if (type.rawType == Injector.class)
+				return (T) this;
+			Object res = resolveStatic(type.rawType);
+			if (res != null)
+				return (T) res;
+		}
+		return fallback.resolve(dep);
+	}
+
+	private <T> Binding<T> linked(Binding<T> b) {
+		Class<T> rawType = b.type().rawType;
+		if (b.type().isParameterized() || !isStatic(rawType))
+			return b;
+		Supplier<T> supplier = (dep, context) -> rawType.cast(
+				resolveStatic(rawType));
+		return Binding.binding(b.signature, b.type, supplier, b.scope,
+				b.source).annotatedBy(b.annotations);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " => " + fallback;
+	}
+}
@@ -0,0 +1,16 @@
+/**
+ * Contains the add-on to generate the source of a
+ * {@link se.jbee.inject.aot.StaticInjector} for a fixed set of
+ * {@link se.jbee.inject.bind.Binding}s at build time.
+ *
+ * <h2>Generating</h2>
+ * The {@link se.jbee.inject.aot.InjectorGenerator} is given the
+ * {@link se.jbee.inject.bind.Binding}s of the application as they are returned
+ * by {@code se.jbee.inject.bootstrap.Bootstrap#bindings}.
+ *
+ * <h2>Running</h2>
+ * The generated class is constructed with the very same
+ * {@link se.jbee.inject.bind.Binding}s which are used for everything that
+ * cannot be resolved statically.
+ */
+package se.jbee.inject.aot;
@@ -12,13 +12,13 @@ import se.jbee.inject.lang.Typed;
 
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 
 import static java.util.Arrays.asList;
 import static se.jbee.inject.Instance.defaultInstanceOf;
 import static se.jbee.inject.Packages.packageAndSubPackagesOf;
 import static se.jbee.inject.lang.Type.raw;
-import static se.jbee.inject.lang.Utils.*;
 
 /**
  * Describes what is wanted/needed as parameter to construct a instance of T.
@@ -30,33 +30,109 @@ public final class Dependency<T>
 		implements Typed<T>, Iterable<Injection>, Serializable {
 
 	/**
-	 * A empty {@link Injection} hierarchy. It is used whenever the
-	 * {@link Dependency} does not depend on the actual hierarchy. This is the
-	 * default.
+	 * One level of the {@link Injection} hierarchy linked to the level it is
+	 * injected into. Levels are shared between all {@link Dependency}s that
+	 * are derived from the same parent so adding a level is constant in time
+	 * and memory.
+	 *
+	 * The {@link #hash} is the same as {@link Arrays#hashCode(Object[])} of
+	 * the hierarchy as an array. The {@link #filter} has a bit set for each
+	 * {@link Injection} in the hierarchy so that most cycle checks can
+	 * conclude that the {@link Injection} is not contained without walking the
+	 * hierarchy.
+	 *
+	 * The hierarchy as an array from the outermost to the innermost
+	 * {@link Injection} is only created when iterated and then kept with the
+	 * {@link Level} as matching a {@link Target} iterates the same hierarchy
+	 * many times.
 	 */
-	private static final Injection[] NO_TARGET = new Injection[0];
+	private static final class Level implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		final Injection injection;
+		final Level parent;
+		final int depth;
+		final int hash;
+		final long filter;
+		private transient volatile Injection[] injections;
+
+		Level(Level parent, Injection injection) {
+			this.injection = injection;
+			this.parent = parent;
+			int injectionHash = injection.hashCode();
+			if (parent == null) {
+				this.depth = 1;
+				this.hash = 31 + injectionHash;
+				this.filter = bit(injectionHash);
+			} else {
+				this.depth = parent.depth + 1;
+				this.hash = 31 * parent.hash + injectionHash;
+				this.filter = parent.filter | bit(injectionHash);
+			}
+		}
+
+		static long bit(int hash) {
+			return 1L << ((hash ^ (hash >>> 16)) & 63);
+		}
+
+		Injection[] injections() {
+			Injection[] res = injections;
+			if (res == null) {
+				res = new Injection[depth];
+				for (Level l = this; l != null; l = l.parent)
+					res[l.depth - 1] = l.injection;
+				injections = res;
+			}
+			return res;
+		}
+
+		boolean contains(Injection e) {
+			if ((filter & bit(e.hashCode())) == 0)
+				return false;
+			for (Level l = this; l != null; l = l.parent)
+				if (l.injection.equalTo(e))
+					return true;
+			return false;
+		}
+
+		static boolean equalTo(Level a, Level b) {
+			if (a == b)
+				return true;
+			if (a == null || b == null || a.depth != b.depth
+				|| a.hash != b.hash)
+				return false;
+			while (a != b) {
+				if (!a.injection.equalTo(b.injection))
+					return false;
+				a = a.parent;
+				b = b.parent;
+			}
+			return true;
+		}
+	}
 
 	public static <T> Dependency<T> dependency(Class<T> type) {
 		return dependency(raw(type));
 	}
 
 	public static <T> Dependency<T> dependency(Type<T> type) {
-		return dependency(Instance.instance(Name.ANY, type), NO_TARGET);
+		return dependency(Instance.instance(Name.ANY, type));
 	}
 
 	public static <T> Dependency<T> dependency(Instance<T> instance) {
-		return dependency(instance, NO_TARGET);
+		return new Dependency<>(instance, null);
 	}
 
-	private static <T> Dependency<T> dependency(Instance<T> instance,
-			Injection[] hierarchy) {
-		return new Dependency<>(instance, hierarchy);
-	}
-
-	private final Injection[] hierarchy;
+	/**
+	 * The innermost level of the {@link Injection} hierarchy or null when this
+	 * {@link Dependency} does not depend on the actual hierarchy (the
+	 * default).
+	 */
+	private final Level hierarchy;
 	public final Instance<T> instance;
 
-	private Dependency(Instance<T> instance, Injection... hierarchy) {
+	private Dependency(Instance<T> instance, Level hierarchy) {
 		this.instance = instance;
 		this.hierarchy = hierarchy;
 	}
@@ -68,21 +144,21 @@ public final class Dependency<T>
 
 	@Override
 	public int hashCode() {
-		return instance.hashCode() ^ Arrays.hashCode(hierarchy);
+		return instance.hashCode() ^ (hierarchy == null ? 1 : hierarchy.hash);
 	}
 
 	public boolean equalTo(Dependency<?> other) {
 		// cheapest first...
 		return instance.equalTo(other.instance)
-			&& arrayEquals(hierarchy, other.hierarchy, Injection::equalTo);
+			&& Level.equalTo(hierarchy, other.hierarchy);
 	}
 
 	@Override
 	public String toString() {
 		StringBuilder b = new StringBuilder();
 		b.append(instance);
-		for (int i = hierarchy.length - 1; i >= 0; i--)
-			b.append(" :: ").append(hierarchy[i].target);
+		for (Level l = hierarchy; l != null; l = l.parent)
+			b.append(" :: ").append(l.injection.target);
 		return b.toString();
 	}
 
@@ -109,22 +185,24 @@ public final class Dependency<T>
 	}
 
 	public <E> Dependency<E> instanced(Instance<E> instance) {
-		return dependency(instance, hierarchy);
+		return new Dependency<>(instance, hierarchy);
 	}
 
 	public Dependency<T> untargeted() {
-		return dependency(instance, NO_TARGET);
+		return new Dependency<>(instance, null);
 	}
 
 	public Dependency<T> ignoredScoping() {
-		return hierarchy.length == 0
-			? this
-			: dependency(instance,
-					arrayMap(hierarchy, Injection::ignoredScoping));
+		if (hierarchy == null)
+			return this;
+		Level ignored = null;
+		for (Injection e : this)
+			ignored = new Level(ignored, e.ignoredScoping());
+		return new Dependency<>(instance, ignored);
 	}
 
 	public boolean isUntargeted() {
-		return hierarchy.length == 0;
+		return hierarchy == null;
 	}
 
 	public Instance<?> target() {
@@ -132,13 +210,27 @@ public final class Dependency<T>
 	}
 
 	public Instance<?> target(int level) {
-		return level >= hierarchy.length
-			? Instance.ANY
-			: hierarchy[hierarchy.length - 1 - level].target.instance;
+		Level l = hierarchy;
+		for (int i = 0; i < level && l != null; i++)
+			l = l.parent;
+		return l == null ? Instance.ANY : l.injection.target.instance;
 	}
 
 	public int injectionDepth() {
-		return hierarchy.length;
+		return hierarchy == null ? 0 : hierarchy.depth;
+	}
+
+	/**
+	 * @param index 0 for the outermost, {@link #injectionDepth()} - 1 for the
+	 *            innermost {@link Injection}
+	 * @return the {@link Injection} at the given index in the same order as
+	 *         they are {@link #iterator()}ed
+	 * @since 19.1
+	 */
+	public Injection injection(int index) {
+		if (hierarchy == null)
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		return hierarchy.injections()[index];
 	}
 
 	/**
@@ -165,38 +257,54 @@ public final class Dependency<T>
 		Target target = Target.ANY.in(packageAndSubPackagesOf(pkg));
 		Injection injection = new Injection(Instance.ANY,
 				new Locator<>(Instance.ANY, target), ScopePermanence.ignore);
-		if (hierarchy.length == 0)
-			return new Dependency<>(instance, injection);
-		return new Dependency<>(instance, arrayAppend(hierarchy, injection));
+		return new Dependency<>(instance, new Level(hierarchy, injection));
 	}
 
 	public Dependency<T> injectingInto(Locator<?> target,
 			ScopePermanence permanence)
 			throws DependencyCycle, UnstableDependency {
 		Injection injection = new Injection(instance, target, permanence);
-		if (hierarchy.length == 0)
-			return new Dependency<>(instance, injection);
-		ensureStableScopeNesting(injection);
-		ensureNoDependencyCycle(injection);
-		return new Dependency<>(instance, arrayAppend(hierarchy, injection));
+		if (hierarchy != null) {
+			ensureStableScopeNesting(injection);
+			ensureNoDependencyCycle(injection);
+		}
+		return new Dependency<>(instance, new Level(hierarchy, injection));
+	}
+
+	/**
+	 * Same as {@link #injectingInto(Locator, ScopePermanence)} but without
+	 * checking for cycles or unstable scope nesting. Only used for
+	 * {@link Resource}s the dependency graph analysis has verified.
+	 *
+	 * @since 19.1
+	 */
+	public Dependency<T> injectingIntoVerified(Locator<?> target,
+			ScopePermanence permanence) {
+		return new Dependency<>(instance, new Level(hierarchy,
+				new Injection(instance, target, permanence)));
 	}
 
 	public Dependency<T> uninject() {
-		return hierarchy.length <= 1
-			? untargeted()
-			: new Dependency<>(instance, arrayDropTail(hierarchy, 1));
+		return hierarchy == null
+			? this
+			: new Dependency<>(instance, hierarchy.parent);
 	}
 
 	private void ensureNoDependencyCycle(Injection injection)
 			throws DependencyCycle {
-		if (arrayContains(hierarchy, injection, Injection::equalTo))
+		if (hierarchy.contains(injection))
 			throw new DependencyCycle(this, injection.target);
 	}
 
 	private void ensureStableScopeNesting(Injection injection)
 			throws UnstableDependency {
-		Injection unstable = arrayFindFirst(hierarchy,
-				e -> !injection.permanence.isConsistentIn(e.permanence));
+		ScopePermanence permanence = injection.permanence;
+		if (permanence.isPermanent() || permanence.isIgnore())
+			return; // consistent in any other
+		Injection unstable = null; // the outermost is reported
+		for (Level l = hierarchy; l != null; l = l.parent)
+			if (!permanence.isConsistentIn(l.injection.permanence))
+				unstable = l.injection;
 		if (unstable != null)
 			throw new UnstableDependency(unstable, injection);
 	}
@@ -207,8 +315,8 @@ public final class Dependency<T>
 		Type<? super T> required = instance.type;
 		if (required.rawType.isInterface())
 			return;
-		for (int level = 0; level < injectionDepth(); level++) {
-			Instance<?> parent = target(level);
+		for (Level l = hierarchy; l != null; l = l.parent) {
+			Instance<?> parent = l.injection.target.instance;
 			if (!required.isAssignableTo(parent.type()))
 				throw new UnresolvableDependency.IllegalAccess(locator, this);
 			if (parent.type.rawType.isInterface())
@@ -217,9 +325,14 @@ public final class Dependency<T>
 		throw new UnresolvableDependency.IllegalAccess(locator, this);
 	}
 
+	/**
+	 * @return the {@link Injection}s from the outermost to the innermost
+	 */
 	@Override
 	public Iterator<Injection> iterator() {
-		return asList(hierarchy).iterator();
+		if (hierarchy == null)
+			return Collections.emptyIterator();
+		return asList(hierarchy.injections()).iterator();
 	}
 
 	public Hint<T> asHint() {
@@ -33,6 +33,30 @@ public interface Env {
 	 */
 	String GP_USE_VERIFICATION = "verify";
 
+	/**
+	 * Property name used to configure a boolean if {@code
+	 * se.jbee.inject.bind.Module}s are declared concurrently, each into its own
+	 * buffer that is merged in the original order of the modules. Default is
+	 * sequential declaration (false).
+	 */
+	String GP_USE_PARALLEL_DECLARATION = "parallel-declaration";
+
+	/**
+	 * Property name used to configure a {@link java.nio.file.Path} the classes
+	 * loaded during the bootstrapping of an {@link Injector} are written to in
+	 * the format of a {@code -XX:SharedClassListFile}. By default no class
+	 * list is recorded (undefined).
+	 */
+	String GP_CLASS_LIST = "class-list";
+
+	/**
+	 * Property name used to configure a boolean if each resolution checks the
+	 * injection hierarchy for dependency cycles and unstable scope nesting.
+	 * If not, the checks are skipped for {@link Resource}s the analysis of the
+	 * dependency graph at bootstrap has verified (default).
+	 */
+	String GP_USE_RUNTIME_CHECKS = "runtime-checks";
+
 	<T> T property(Name name, Type<T> property, Package scope)
 			throws InconsistentDeclaration;
 
@@ -12,6 +12,7 @@ import static se.jbee.inject.Instance.anyOf;
 import static se.jbee.inject.Instance.instance;
 import static se.jbee.inject.lang.Type.raw;
 
+import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Map;
@@ -24,7 +25,9 @@ import java.util.Map;
  *
  * @param <T> The {@link Type} of the argument
  */
-public final class Hint<T> implements Typed<T> {
+public final class Hint<T> implements Typed<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private static final Hint<?>[] NO_PARAMS = new Hint<?>[0];
 
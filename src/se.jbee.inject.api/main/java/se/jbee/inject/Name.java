@@ -8,12 +8,22 @@ package se.jbee.inject;
 import se.jbee.inject.lang.Qualifying;
 import se.jbee.inject.lang.Type;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A {@link Name} is used as discriminator in cases where multiple
  * {@link Instance}s are bound for the same {@link Type}.
  *
+ * Names are interned so that equal names are the same instance. Each name
+ * classifies itself on construction so that matching with other names only
+ * does the work its {@link Kind} requires.
+ *
  * @author Jan Bernitt (jan@jbee.se)
  */
 public final class Name
@@ -30,6 +40,69 @@ public final class Name
 	 */
 	public static final char NAMESPACE = ':';
 
+	/**
+	 * The canonical instances by their value. Entries of collected instances
+	 * are removed when their {@link Interned} reference is enqueued.
+	 */
+	private static final ConcurrentMap<String, Interned> INTERNED = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<Name> COLLECTED = new ReferenceQueue<>();
+
+	private static final class Interned extends WeakReference<Name> {
+
+		final String value;
+
+		Interned(Name name) {
+			super(name, COLLECTED);
+			this.value = name.value;
+		}
+	}
+
+	private static final ClassValue<Name> NAMESPACES = new ClassValue<Name>() {
+
+		@Override
+		protected Name computeValue(Class<?> type) {
+			return named(type.getName() + NAMESPACE);
+		}
+	};
+
+	/**
+	 * How a {@link Name} matches other {@link Name}s.
+	 */
+	private enum Kind {
+		/**
+		 * No wild-card, only matches itself
+		 */
+		EXACT,
+		/**
+		 * The {@link #DEFAULT} name, only matches itself
+		 */
+		DEFAULT,
+		/**
+		 * The {@link #ANY} name, matches all names
+		 */
+		ANY,
+		/**
+		 * A single wild-card at the end, matches names starting with the same
+		 * prefix
+		 */
+		PREFIX,
+		/**
+		 * Any other use of wild-cards
+		 */
+		PATTERN;
+
+		static Kind of(String value) {
+			if (value.isEmpty())
+				return DEFAULT;
+			int wildcard = value.indexOf(WILDCARD);
+			if (wildcard < 0)
+				return EXACT;
+			if (value.length() == 1)
+				return ANY;
+			return wildcard == value.length() - 1 ? PREFIX : PATTERN;
+		}
+	}
+
 	/**
 	 * Used when no name is specified. Maybe at first counter-intuitively this
 	 * is the most qualified name of all because it is the first to try. If the
@@ -38,31 +111,64 @@ public final class Name
 	 *
 	 * @see #ANY
 	 */
-	public static final Name DEFAULT = new Name("");
+	public static final Name DEFAULT = intern("");
 	/**
 	 * It is the least qualified name of all so it is the last name that will be
 	 * tried and as it matches any name asked for it the match is found.
 	 */
-	public static final Name ANY = new Name("" + WILDCARD);
+	public static final Name ANY = intern("" + WILDCARD);
 
-	public static final Name AS = new Name("as");
+	public static final Name AS = intern("as");
 
 	final String value;
+	private final transient Kind kind;
 
 	public static Name named(Object name) {
-		if (name instanceof Class) {
-			Class<?> cls = (Class<?>) name;
-			return named(cls.getName() + NAMESPACE);
-		}
+		if (name instanceof Class)
+			return NAMESPACES.get((Class<?>) name);
 		return named(String.valueOf(name));
 	}
 
 	public static Name named(String name) {
-		return name == null || name.trim().isEmpty() ? DEFAULT : new Name(name);
+		return name == null || name.trim().isEmpty() ? DEFAULT : intern(name);
+	}
+
+	private static Name intern(String value) {
+		Interned ref = INTERNED.get(value);
+		Name interned = ref == null ? null : ref.get();
+		if (interned != null)
+			return interned;
+		removeCollected();
+		Name name = new Name(value);
+		Interned created = new Interned(name);
+		while (true) {
+			ref = INTERNED.putIfAbsent(value, created);
+			if (ref == null)
+				return name;
+			interned = ref.get();
+			if (interned != null)
+				return interned;
+			if (INTERNED.replace(value, ref, created))
+				return name;
+		}
+	}
+
+	private static void removeCollected() {
+		Reference<?> ref = COLLECTED.poll();
+		while (ref != null) {
+			Interned collected = (Interned) ref;
+			INTERNED.remove(collected.value, collected);
+			ref = COLLECTED.poll();
+		}
 	}
 
 	private Name(String value) {
 		this.value = value;
+		this.kind = Kind.of(value);
+	}
+
+	private Object readResolve() throws ObjectStreamException {
+		return value.isEmpty() ? DEFAULT : intern(value);
 	}
 
 	@Override
@@ -88,7 +194,7 @@ public final class Name
 	}
 
 	public boolean equalTo(Name other) {
-		return value.equals(other.value);
+		return this == other || value.equals(other.value);
 	}
 
 	@Override
@@ -97,11 +203,11 @@ public final class Name
 	}
 
 	public boolean isAny() {
-		return value.equals(ANY.value);
+		return kind == Kind.ANY;
 	}
 
 	public boolean isDefault() {
-		return value.isEmpty();
+		return kind == Kind.DEFAULT;
 	}
 
 	@Override
@@ -124,8 +230,25 @@ public final class Name
 	}
 
 	public boolean isCompatibleWith(Name other) {
-		return isAny() || other.isAny() || other.value.equals(value)
-			|| matches(value, other.value) || matches(other.value, value);
+		// equal names are the same instance
+		return this == other || accepts(other.value) || other.accepts(value);
+	}
+
+	/**
+	 * @return true if this name used as pattern matches the given name other
+	 *         than this name itself
+	 */
+	private boolean accepts(String name) {
+		switch (kind) {
+			case ANY:
+				return true;
+			case PREFIX:
+				return name.regionMatches(0, value, 0, value.length() - 1);
+			case PATTERN:
+				return matches(value, name);
+			default:
+				return false;
+		}
 	}
 
 	private static boolean matches(String pattern, String str) {
@@ -144,7 +144,19 @@ public final class Resource<T> implements Comparable<Resource<?>>,
 				return -1;
 			return c1.getName().compareTo(c2.getName());
 		}
-		return Qualifying.compare(l1, l2);
+		// like Binding#compareTo: instances not more qualified than each
+		// other are ordered before targets are compared, otherwise the
+		// order is not transitive for named instances with targets
+		int res = Qualifying.compare(l1.instance, l2.instance);
+		if (res != 0)
+			return res;
+		res = l1.instance.compareTo(l2.instance);
+		if (res != 0)
+			return res;
+		res = Qualifying.compare(l1.target, l2.target);
+		if (res != 0)
+			return res;
+		return l1.target.compareTo(l2.target);
 	}
 
 	@Override
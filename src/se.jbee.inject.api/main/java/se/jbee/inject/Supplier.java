@@ -23,6 +23,20 @@ public interface Supplier<T> {
 	T supply(Dependency<? super T> dep, Injector context)
 			throws UnresolvableDependency;
 
+	/**
+	 * Used to analyse the dependency graph when an {@link Injector} context is
+	 * bootstrapped.
+	 *
+	 * @return the {@link Hint}s for all instances this {@link Supplier}
+	 *         resolves from the {@link Injector} context within the
+	 *         {@link Dependency} it is called with, or {@code null} if they are
+	 *         not known upfront (default)
+	 * @since 19.1
+	 */
+	default Hint<?>[] dependencies() {
+		return null;
+	}
+
 	/**
 	 * Mostly defined to capture the contract by convention that when a {@link
 	 * Supplier} class does implement {@link Generator} they are directly used
@@ -120,8 +120,13 @@ public final class Target
 			return false;
 		}
 		int pi = 0;
-		while (pl <= il && pl > 0) {
-			if (isAssignableTo(parents.at(pi).type(), dep.target(il).type())) {
+		int depth = il + 1;
+		// from the outermost target (il) to the innermost
+		for (int i = 0; i < depth; i++) {
+			if (pl > il || pl == 0)
+				break;
+			if (isAssignableTo(parents.at(pi).type(),
+					dep.injection(i).target.instance.type())) {
 				pl--;
 				pi++;
 			}
@@ -175,9 +180,28 @@ public final class Target
 				other.packages);
 	}
 
+	/**
+	 * Orders {@link Target}s so that the order is consistent with
+	 * {@link #moreQualifiedThan(Target)} also when it is applied to
+	 * {@link Target}s whose types are not related. Therefore deeper parents
+	 * and more specific types come first.
+	 *
+	 * Ordering by the target {@link Instance} first was not transitive for
+	 * unrelated types so sorting many targeted bindings could fail. As a
+	 * consequence, when two bindings match and their target types are not
+	 * related the one with more supertypes is used instead of the one
+	 * declared first.
+	 */
 	@Override
 	public int compareTo(Target other) {
-		int res = instance.compareTo(other.instance);
+		int res = Integer.compare(other.parents.depth(), parents.depth());
+		if (res != 0)
+			return res;
+		res = Integer.compare(specificity(other.instance.type),
+				specificity(instance.type));
+		if (res != 0)
+			return res;
+		res = instance.compareTo(other.instance);
 		if (res != 0)
 			return res;
 		res = parents.compareTo(other.parents);
@@ -186,6 +210,28 @@ public final class Target
 		return packages.compareTo(other.packages);
 	}
 
+	/**
+	 * A subtype always has more supertypes than its supertypes have.
+	 */
+	private static int specificity(Type<?> type) {
+		int supertypes = SUPERTYPES.get(type.rawType);
+		return 2 * supertypes + (type.isUpperBound() ? 0 : 1);
+	}
+
+	private static final ClassValue<Integer> SUPERTYPES = new ClassValue<Integer>() {
+
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			if (type == Object.class)
+				return 0;
+			int supertypes = 1;
+			for (Type<?> supertype : raw(type).supertypes())
+				if (supertype.rawType != Object.class)
+					supertypes++;
+			return supertypes;
+		}
+	};
+
 	public boolean equalTo(Target other) {
 		return this == other || packages.equalTo(other.packages)
 			&& instance.equalTo(other.instance)
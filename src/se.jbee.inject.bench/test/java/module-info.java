@@ -0,0 +1,24 @@
+/**
+ * Contains the generator of synthetic {@link se.jbee.inject.bench.Graph}s and
+ * the JMH benchmarks of the library's hot paths.
+ *
+ * Run all benchmarks with allocation profiling using
+ * {@link se.jbee.inject.bench.Benchmarks}.
+ */
+open module se.jbee.inject.bench {
+
+	exports se.jbee.inject.bench;
+
+	requires junit;
+	requires jmh.core;
+	requires jdk.management;
+
+	/* core */
+	requires transitive se.jbee.inject;
+	/* and the add-ons */
+	requires se.jbee.inject.action;
+	requires se.jbee.inject.convert;
+	requires se.jbee.inject.event;
+	/* and the sample application */
+	requires com.example.app;
+}
@@ -0,0 +1,77 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.action.ActionModule.actionDependency;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.action.Action;
+import se.jbee.inject.action.ActionModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+/**
+ * Measures {@link Action#run(Object)} of a resolved {@link Action} and the
+ * resolution of the {@link Action} itself.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ActionBenchmark {
+
+	public static class Service {
+
+		public Integer negate(Number value) {
+			return -value.intValue();
+		}
+	}
+
+	static final class ActionBenchmarkModule extends ActionModule {
+
+		@Override
+		protected void declare() {
+			bindActionsIn(Service.class);
+		}
+	}
+
+	private Injector context;
+	private Action<Number, Integer> negate;
+
+	@Setup
+	public void setup() {
+		context = Bootstrap.injector(ActionBenchmarkModule.class);
+		negate = resolve();
+	}
+
+	@Benchmark
+	public Integer run() {
+		return negate.run(42);
+	}
+
+	@Benchmark
+	public Action<Number, Integer> resolve() {
+		return context.resolve(
+				actionDependency(raw(Number.class), raw(Integer.class)));
+	}
+}
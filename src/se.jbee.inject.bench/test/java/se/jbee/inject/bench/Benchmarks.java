@@ -0,0 +1,37 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this module with the {@link GCProfiler} so that each
+ * result reports the bytes allocated per operation ({@code gc.alloc.rate.norm})
+ * next to the time.
+ *
+ * The arguments are JMH's usual command line options, for example
+ * {@code Resolve} to only run the {@link ResolveBenchmark}. Without arguments
+ * all benchmarks run.
+ *
+ * @since 19.1
+ */
+public final class Benchmarks {
+
+	public static void main(String... args) throws Exception {
+		new Runner(new OptionsBuilder() //
+				.parent(new CommandLineOptions(args)) //
+				.addProfiler(GCProfiler.class) //
+				.shouldFailOnError(true) //
+				.build()).run();
+	}
+
+	private Benchmarks() {
+		throw new UnsupportedOperationException("util");
+	}
+}
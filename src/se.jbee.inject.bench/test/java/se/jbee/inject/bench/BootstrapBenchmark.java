@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+/**
+ * Measures {@link Bootstrap#injector(Env, Class)} and the declaration of the
+ * {@link Binding}s alone for small and large generated {@link Graph}s.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BootstrapBenchmark {
+
+	@Param({ "100", "10000" })
+	int nodes;
+
+	private Env env;
+
+	@Setup
+	public void setup() {
+		env = Graph.DEFAULT.withNodes(nodes).env(Environment.DEFAULT);
+	}
+
+	@Benchmark
+	public Injector injector() {
+		return Bootstrap.injector(env, Graph.GraphBundle.class);
+	}
+
+	@Benchmark
+	public Binding<?>[] bindings() {
+		return Bootstrap.bindings(env, Graph.GraphBundle.class,
+				Bindings.newBindings());
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Env;
+import se.jbee.inject.binder.ServiceLoaderBundles;
+import se.jbee.inject.binder.ServiceLoaderEnvBundles;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+/**
+ * Compares the cold start of the {@code com.example.app} sample with and
+ * without a CDS archive dumped from the class list written by a training run
+ * (see {@link Env#GP_CLASS_LIST}).
+ *
+ * Each operation starts a new JVM that bootstraps the {@link Env} and the
+ * {@link se.jbee.inject.Injector} of the application from its service
+ * provider declarations, as done in production, and exits. The setup does the training run and dumps the archive using
+ * {@code -Xshare:dump -XX:SharedClassListFile} with the classes of the
+ * training run added to the JDK's default class list. The JVMs are started
+ * with the class-path or module-path of the running JVM. CDS only archives
+ * classes loaded from JAR files so the benchmark has to be run from JARs, like
+ * the usual JMH uber-JAR.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+
+	/**
+	 * The program run by each started JVM. The optional argument is the file
+	 * to write the class list to.
+	 */
+	public static final class Main {
+
+		public static void main(String... args) {
+			Environment env = Environment.override(
+					Bootstrap.env(ServiceLoaderEnvBundles.class));
+			if (args.length > 0)
+				env = env.with(Env.GP_CLASS_LIST, Path.class,
+						Paths.get(args[0]));
+			Bootstrap.injector(env, ServiceLoaderBundles.class);
+		}
+	}
+
+	@Param({ "false", "true" })
+	boolean archive;
+
+	private Path dir;
+	private List<String> command;
+
+	@Setup
+	public void setup() throws IOException, InterruptedException {
+		dir = Files.createTempDirectory("cold-start");
+		if (!archive) {
+			command = java(emptyList());
+			return;
+		}
+		Path training = dir.resolve("training.lst");
+		run(java(emptyList(), training.toString()));
+		// the archive replaces the JDK's default one so it also needs its classes
+		Path classList = dir.resolve("classes.lst");
+		List<String> classes = new ArrayList<>(Files.readAllLines(
+				Paths.get(System.getProperty("java.home"), "lib", "classlist")));
+		classes.addAll(Files.readAllLines(training));
+		Files.write(classList, classes);
+		Path sharedArchive = dir.resolve("classes.jsa");
+		run(java(asList("-Xshare:dump", "-XX:SharedClassListFile=" + classList,
+				"-XX:SharedArchiveFile=" + sharedArchive)));
+		command = java(asList("-Xshare:on",
+				"-XX:SharedArchiveFile=" + sharedArchive));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path file : (Iterable<Path>) files::iterator)
+				Files.delete(file);
+		}
+		Files.delete(dir);
+	}
+
+	@Benchmark
+	public int coldStart() throws IOException, InterruptedException {
+		return run(command);
+	}
+
+	private static int run(List<String> command)
+			throws IOException, InterruptedException {
+		int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+		if (exitCode != 0)
+			throw new IllegalStateException(
+					"Exit code " + exitCode + ": " + command);
+		return exitCode;
+	}
+
+	private static List<String> java(List<String> options, String... args) {
+		List<String> cmd = new ArrayList<>();
+		cmd.add(Paths.get(System.getProperty("java.home"), "bin",
+				"java").toString());
+		cmd.addAll(options);
+		String modulePath = System.getProperty("jdk.module.path");
+		if (modulePath != null) {
+			// JFR is used by the training run to record the loaded classes
+			cmd.addAll(asList("--module-path", modulePath, "--add-modules",
+					"jdk.jfr", "-m", ColdStartBenchmark.class.getModule().getName()
+						+ "/" + Main.class.getName()));
+		} else {
+			cmd.addAll(asList("-cp", System.getProperty("java.class.path"),
+					Main.class.getName()));
+		}
+		cmd.addAll(asList(args));
+		return cmd;
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.lang.Type.raw;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Converter;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.convert.Chain;
+import se.jbee.inject.convert.ConverterModule;
+import se.jbee.inject.convert.Converts;
+import se.jbee.inject.convert.Imports;
+
+/**
+ * Measures the conversion through a {@link Chain} of {@link Converter}s and
+ * the linking of the {@link Chain} for an input type.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ConvertBenchmark {
+
+	@Imports({ String.class, Integer.class })
+	@Converts({ "String", "Long", "Integer" })
+	public static final class Int2BigInt
+			implements Converter<Integer, BigInteger> {
+
+		@Override
+		public BigInteger convert(Integer input) {
+			return BigInteger.valueOf(input.longValue());
+		}
+	}
+
+	public static class ConvertBenchmarkModule extends ConverterModule {
+
+		public Converter<String, Long> str2long = Long::parseLong;
+		public Converter<Long, Integer> long2int = Long::intValue;
+	}
+
+	private Chain<BigInteger> chain;
+	private Converter<String, BigInteger> str2bigInt;
+
+	@Setup
+	public void setup() {
+		Injector context = Bootstrap.injector(ConvertBenchmarkModule.class);
+		chain = new Chain<>(new Int2BigInt(), context);
+		str2bigInt = link();
+	}
+
+	@Benchmark
+	public BigInteger convert() {
+		return str2bigInt.convert("42");
+	}
+
+	@Benchmark
+	public Converter<String, BigInteger> link() {
+		return chain.forInput(raw(String.class));
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Instance.instance;
+import static se.jbee.inject.Name.named;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Locator;
+import se.jbee.inject.Source;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.BindingType;
+import se.jbee.inject.bind.Bindings;
+
+/**
+ * Measures {@link Binding#disambiguate(Binding[])} for 10k, 100k and 1M
+ * named constants in random order spread over 16 raw types.
+ *
+ * As bootstrapping does this once the first invocation in a new JVM matters
+ * most, therefore each iteration is a single shot.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class DisambiguateBenchmark {
+
+	private static final Class<?>[] TYPES = { String.class, Integer.class,
+			Long.class, Double.class, Float.class, Short.class, Byte.class,
+			Character.class, Boolean.class, StringBuilder.class,
+			StringBuffer.class, Object.class, Number.class, CharSequence.class,
+			Runnable.class, Thread.class };
+
+	@Param({ "10000", "100000", "1000000" })
+	int bindings;
+
+	private Binding<?>[] declared;
+
+	@Setup
+	public void setup() {
+		declared = new Binding<?>[bindings];
+		Random rnd = new Random(42);
+		Source source = Source.source(DisambiguateBenchmark.class);
+		for (int i = 0; i < bindings; i++) {
+			@SuppressWarnings("unchecked")
+			Class<Object> type = (Class<Object>) TYPES[i % TYPES.length];
+			declared[i] = Binding.binding(
+					new Locator<>(instance(
+							named("n" + rnd.nextInt(bindings * 4) + "_" + i),
+							raw(type))),
+					BindingType.PREDEFINED, Bindings.supplyConstant(i),
+					se.jbee.inject.Scope.application, source);
+		}
+	}
+
+	@Benchmark
+	public Binding<?>[] disambiguate() {
+		return Binding.disambiguate(declared.clone());
+	}
+}
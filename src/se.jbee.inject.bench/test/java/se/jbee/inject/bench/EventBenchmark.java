@@ -0,0 +1,90 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Injector;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.event.ConcurrentEventProcessor;
+import se.jbee.inject.event.EventModule;
+
+/**
+ * Measures the dispatch of void events and the computation of events with a
+ * result by the {@link ConcurrentEventProcessor} through the handler proxy.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class EventBenchmark {
+
+	public interface Handler {
+
+		void onEvent(int value);
+
+		int compute(int value);
+	}
+
+	public static class Service implements Handler {
+
+		final LongAdder events = new LongAdder();
+
+		@Override
+		public void onEvent(int value) {
+			events.add(value);
+		}
+
+		@Override
+		public int compute(int value) {
+			return value + 1;
+		}
+	}
+
+	static final class EventBenchmarkModule extends EventModule {
+
+		@Override
+		protected void declare() {
+			handle(Handler.class);
+			construct(Service.class);
+		}
+	}
+
+	private Handler handler;
+
+	@Setup
+	public void setup() {
+		Injector context = Bootstrap.injector(EventBenchmarkModule.class);
+		context.resolve(Service.class); // registers the handler
+		handler = context.resolve(Handler.class);
+	}
+
+	@Benchmark
+	public void dispatch() {
+		handler.onEvent(1);
+	}
+
+	@Benchmark
+	public int compute() {
+		return handler.compute(1);
+	}
+}
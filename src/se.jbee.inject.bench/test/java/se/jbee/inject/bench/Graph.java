@@ -0,0 +1,364 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Instance.instance;
+import static se.jbee.inject.Name.named;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import se.jbee.inject.Env;
+import se.jbee.inject.Hint;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Name;
+import se.jbee.inject.Scope;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.lang.Type;
+
+/**
+ * A generator of synthetic {@link Injector} contexts of configurable size and
+ * shape used to benchmark bootstrapping and resolution at scale.
+ *
+ * A {@link Graph} is an immutable description. Its {@link Node}s are laid out
+ * in {@link #withDepth(int)} levels. Nodes of the lowest level depend on a
+ * named {@link String} constant, nodes of higher levels depend on
+ * {@link #withFanOut(int)} distinct nodes of lower levels, at least one of
+ * them from the level directly below. Each node is bound in a {@link Scope}
+ * sampled using the weights given to {@link #withScopes(int, int, int, int)}
+ * unless one of its dependencies requires a less permanent {@link Scope}.
+ * For a {@link #withTargeted(int)} percentage of the dependencies between
+ * nodes an additional binding targeting the dependent node is declared.
+ *
+ * The same {@link Graph} always generates the same bindings.
+ *
+ * @since 19.1
+ */
+public final class Graph {
+
+	public static final Graph DEFAULT = new Graph(1000, Node.TYPES.length, 5,
+			3, new int[] { 8, 2, 1, 2 }, 10, 100, 42L);
+
+	/**
+	 * The {@link Scope}s used ordered by decreasing permanence. A node only
+	 * depends on nodes in the same or a more permanent {@link Scope}.
+	 */
+	private static final Name[] SCOPES = { Scope.application, Scope.thread,
+			Scope.worker, Scope.injection };
+
+	private static final Hint<?> NONE = Hint.constantNull(raw(Object.class));
+
+	private final int nodes;
+	private final int types;
+	private final int depth;
+	private final int fanOut;
+	private final int[] scopes;
+	private final int targeted;
+	private final int constants;
+	private final long seed;
+
+	private Layout layout;
+
+	private Graph(int nodes, int types, int depth, int fanOut, int[] scopes,
+			int targeted, int constants, long seed) {
+		if (nodes < 1 || depth < 1 || depth > nodes)
+			throw new IllegalArgumentException(
+					"Depth must be in range 1.." + nodes + " but was: " + depth);
+		if (types < 1 || types > Node.TYPES.length)
+			throw new IllegalArgumentException("Types must be in range 1.."
+				+ Node.TYPES.length + " but was: " + types);
+		if (fanOut < 0 || fanOut > Node.MAX_FAN_OUT)
+			throw new IllegalArgumentException("Fan-out must be in range 0.."
+				+ Node.MAX_FAN_OUT + " but was: " + fanOut);
+		if (targeted < 0 || targeted > 100)
+			throw new IllegalArgumentException(
+					"Targeted must be a percentage but was: " + targeted);
+		if (constants < 0 || Arrays.stream(scopes).sum() <= 0)
+			throw new IllegalArgumentException(
+					"Constants must be positive and at least one scope weighted");
+		this.nodes = nodes;
+		this.types = types;
+		this.depth = depth;
+		this.fanOut = fanOut;
+		this.scopes = scopes;
+		this.targeted = targeted;
+		this.constants = constants;
+		this.seed = seed;
+	}
+
+	public Graph withNodes(int nodes) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	/**
+	 * @param types number of distinct raw types used for the nodes, at most
+	 *            the number of {@link Node#TYPES}
+	 */
+	public Graph withTypes(int types) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	public Graph withDepth(int depth) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	/**
+	 * @param fanOut number of dependencies of each node above the lowest
+	 *            level, at most {@link Node#MAX_FAN_OUT}
+	 */
+	public Graph withFanOut(int fanOut) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	/**
+	 * The arguments are relative weights, for example {@code 1,0,0,1} binds
+	 * half of the nodes in the {@link Scope#application} and half of them in
+	 * the {@link Scope#injection}.
+	 */
+	public Graph withScopes(int application, int thread, int worker,
+			int injection) {
+		return new Graph(nodes, types, depth, fanOut,
+				new int[] { application, thread, worker, injection }, targeted,
+				constants, seed);
+	}
+
+	/**
+	 * @param percent of the dependencies between nodes that are also bound
+	 *            specifically for the dependent node
+	 */
+	public Graph withTargeted(int percent) {
+		return new Graph(nodes, types, depth, fanOut, scopes, percent,
+				constants, seed);
+	}
+
+	public Graph withConstants(int constants) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	public Graph withSeed(long seed) {
+		return new Graph(nodes, types, depth, fanOut, scopes, targeted,
+				constants, seed);
+	}
+
+	/**
+	 * @return the number of bindings declared by the {@link GraphBundle}
+	 *         (without the defaults)
+	 */
+	public int bindings() {
+		return nodes + constants + layout().targetedBindings;
+	}
+
+	@SuppressWarnings("unchecked")
+	public Instance<Node> node(int index) {
+		return instance(named("n" + index),
+				(Type<Node>) raw(Node.TYPES[index % types]));
+	}
+
+	public Instance<String> constant(int index) {
+		return instance(named("c" + index), raw(String.class));
+	}
+
+	/**
+	 * @return the nodes of the highest level that no other node depends upon
+	 */
+	public Instance<Node>[] roots() {
+		return nodes(layout().levels[depth - 1], nodes, null);
+	}
+
+	/**
+	 * @return all nodes bound in the given {@link Scope}
+	 */
+	public Instance<Node>[] nodes(Name scope) {
+		return nodes(0, nodes, scope);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Instance<Node>[] nodes(int from, int to, Name scope) {
+		Layout layout = layout();
+		List<Instance<Node>> res = new ArrayList<>();
+		for (int i = from; i < to; i++)
+			if (scope == null || SCOPES[layout.scopes[i]].equalTo(scope))
+				res.add(node(i));
+		return res.toArray(new Instance[0]);
+	}
+
+	/**
+	 * @return the given {@link Env} with this {@link Graph} as property used
+	 *         by the {@link GraphBundle}
+	 */
+	public Env env(Env env) {
+		return Environment.override(env).with(Graph.class, this);
+	}
+
+	public Injector injector() {
+		return injector(Environment.DEFAULT);
+	}
+
+	public Injector injector(Env env) {
+		return Bootstrap.injector(env(env), GraphBundle.class);
+	}
+
+	@Override
+	public String toString() {
+		return "graph[nodes=" + nodes + ", types=" + types + ", depth=" + depth
+			+ ", fan-out=" + fanOut + ", scopes=" + Arrays.toString(scopes)
+			+ ", targeted=" + targeted + "%, constants=" + constants
+			+ ", seed=" + seed + "]";
+	}
+
+	private Layout layout() {
+		if (layout == null)
+			layout = new Layout(this);
+		return layout;
+	}
+
+	/**
+	 * The generated structure of a {@link Graph}.
+	 */
+	private static final class Layout {
+
+		/**
+		 * Index of the first node of each level, the last being the number of
+		 * nodes.
+		 */
+		final int[] levels;
+		final int[] scopes;
+		/**
+		 * Node index or {@code ~index} of a constant.
+		 */
+		final int[][] deps;
+		final int[][] targets;
+		final int targetedBindings;
+
+		Layout(Graph graph) {
+			Random rnd = new Random(graph.seed);
+			int n = graph.nodes;
+			this.levels = new int[graph.depth + 1];
+			for (int l = 0; l <= graph.depth; l++)
+				levels[l] = (int) ((long) n * l / graph.depth);
+			this.scopes = new int[n];
+			this.deps = new int[n][];
+			this.targets = new int[n][];
+			int targeted = 0;
+			for (int l = 0; l < graph.depth; l++) {
+				for (int i = levels[l]; i < levels[l + 1]; i++) {
+					int scope = sample(rnd, graph.scopes);
+					if (l == 0) {
+						deps[i] = graph.constants == 0
+							? new int[0]
+							: new int[] { ~rnd.nextInt(graph.constants) };
+						targets[i] = new int[0];
+					} else {
+						deps[i] = pick(rnd, graph.fanOut, levels[l - 1],
+								levels[l]);
+						int[] t = new int[deps[i].length];
+						int tn = 0;
+						for (int dep : deps[i]) {
+							scope = Math.max(scope, scopes[dep]);
+							if (rnd.nextInt(100) < graph.targeted)
+								t[tn++] = dep;
+						}
+						targets[i] = Arrays.copyOf(t, tn);
+						targeted += tn;
+					}
+					scopes[i] = scope;
+				}
+			}
+			this.targetedBindings = targeted;
+		}
+
+		private static int sample(Random rnd, int[] weights) {
+			int r = rnd.nextInt(Arrays.stream(weights).sum());
+			int i = 0;
+			while (r >= weights[i])
+				r -= weights[i++];
+			return i;
+		}
+
+		/**
+		 * Picks distinct nodes, the first from the level directly below
+		 * (starting at {@code below}), the others from any lower level.
+		 */
+		private static int[] pick(Random rnd, int fanOut, int below,
+				int level) {
+			int[] res = new int[Math.min(fanOut, level)];
+			for (int i = 0; i < res.length; i++) {
+				int dep;
+				do {
+					dep = i == 0
+						? below + rnd.nextInt(level - below)
+						: rnd.nextInt(level);
+				} while (contains(res, i, dep));
+				res[i] = dep;
+			}
+			return res;
+		}
+
+		private static boolean contains(int[] arr, int length, int e) {
+			for (int i = 0; i < length; i++)
+				if (arr[i] == e)
+					return true;
+			return false;
+		}
+	}
+
+	/**
+	 * Installs the defaults and the bindings of the {@link Graph} that is a
+	 * property of the {@link Env} used.
+	 *
+	 * @see Graph#env(Env)
+	 */
+	public static final class GraphBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			installDefaults();
+			install(new GraphModule());
+		}
+	}
+
+	private static final class GraphModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			Graph graph = env(Graph.class);
+			Layout layout = graph.layout();
+			for (int c = 0; c < graph.constants; c++)
+				bind(graph.constant(c)).to("c" + c);
+			Hint<?>[] leaf = hints(graph, new int[0]);
+			for (int i = 0; i < graph.nodes; i++) {
+				Instance<Node> node = graph.node(i);
+				per(SCOPES[layout.scopes[i]]).bind(node).toConstructor(
+						hints(graph, layout.deps[i]));
+				for (int target : layout.targets[i])
+					per(SCOPES[layout.scopes[target]]).injectingInto(
+							node).bind(graph.node(target)).toConstructor(leaf);
+			}
+		}
+
+		private static Hint<?>[] hints(Graph graph, int[] deps) {
+			Hint<?>[] res = new Hint<?>[Node.MAX_FAN_OUT];
+			Arrays.fill(res, NONE);
+			for (int i = 0; i < deps.length; i++)
+				res[i] = deps[i] < 0
+					? Hint.relativeReferenceTo(graph.constant(~deps[i]))
+					: Hint.relativeReferenceTo(graph.node(deps[i]));
+			return res;
+		}
+	}
+}
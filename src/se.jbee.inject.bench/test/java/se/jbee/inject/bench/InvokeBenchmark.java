@@ -0,0 +1,98 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.UnresolvableDependency.SupplyFailed;
+import se.jbee.inject.lang.Utils;
+
+/**
+ * Compares invoking constructors and methods through an
+ * {@link Utils#invoker(java.lang.reflect.Member)} with the reflective
+ * {@link Utils#construct(Constructor, Object[], java.util.function.Function)}
+ * and {@link Utils#produce(Method, Object, Object[], java.util.function.Function)}.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class InvokeBenchmark {
+
+	public static final class Service {
+
+		final String name;
+		final Integer id;
+
+		public Service(String name, Integer id) {
+			this.name = name;
+			this.id = id;
+		}
+
+		public static Service create(String name, Integer id) {
+			return new Service(name, id);
+		}
+	}
+
+	private final Object[] args = { "service", 42 };
+
+	private Constructor<Service> constructor;
+	private Method method;
+	private MethodHandle constructorInvoker;
+	private MethodHandle methodInvoker;
+
+	@Setup
+	public void setup() throws Exception {
+		constructor = Service.class.getConstructor(String.class,
+				Integer.class);
+		method = Service.class.getMethod("create", String.class,
+				Integer.class);
+		constructorInvoker = Utils.invoker(constructor);
+		methodInvoker = Utils.invoker(method);
+	}
+
+	@Benchmark
+	public Service constructReflective() {
+		return Utils.construct(constructor, args,
+				e -> SupplyFailed.valueOf(e, constructor));
+	}
+
+	@Benchmark
+	public Object constructInvoker() {
+		return Utils.invoke(constructorInvoker, null, args,
+				e -> SupplyFailed.valueOf(e, constructor));
+	}
+
+	@Benchmark
+	public Object produceReflective() {
+		return Utils.produce(method, null, args,
+				e -> SupplyFailed.valueOf(e, method));
+	}
+
+	@Benchmark
+	public Object produceInvoker() {
+		return Utils.invoke(methodInvoker, null, args,
+				e -> SupplyFailed.valueOf(e, method));
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+/**
+ * The nodes of a generated {@link Graph}.
+ *
+ * As classes cannot be generated without byte-code tooling the {@link Graph}
+ * uses a fixed palette of {@link #TYPES} to vary the raw types of its nodes.
+ * Each has a single constructor accepting up to {@link #MAX_FAN_OUT}
+ * dependencies. Unused parameters are injected as {@code null}.
+ *
+ * @since 19.1
+ */
+public abstract class Node {
+
+	public static final int MAX_FAN_OUT = 4;
+
+	public final Object[] deps;
+
+	Node(Object... deps) {
+		this.deps = deps;
+	}
+
+	/**
+	 * @return the number of {@link Node}s reachable from this {@link Node}
+	 *         including itself, nodes reachable via multiple paths are
+	 *         counted multiple times
+	 */
+	public int size() {
+		int size = 1;
+		for (Object dep : deps)
+			if (dep instanceof Node)
+				size += ((Node) dep).size();
+		return size;
+	}
+
+	public static final class N00 extends Node {
+
+		public N00(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N01 extends Node {
+
+		public N01(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N02 extends Node {
+
+		public N02(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N03 extends Node {
+
+		public N03(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N04 extends Node {
+
+		public N04(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N05 extends Node {
+
+		public N05(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N06 extends Node {
+
+		public N06(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N07 extends Node {
+
+		public N07(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N08 extends Node {
+
+		public N08(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N09 extends Node {
+
+		public N09(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N10 extends Node {
+
+		public N10(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N11 extends Node {
+
+		public N11(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N12 extends Node {
+
+		public N12(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N13 extends Node {
+
+		public N13(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N14 extends Node {
+
+		public N14(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	public static final class N15 extends Node {
+
+		public N15(Object a, Object b, Object c, Object d) {
+			super(a, b, c, d);
+		}
+	}
+
+	static final Class<?>[] TYPES = { N00.class, N01.class, N02.class,
+			N03.class, N04.class, N05.class, N06.class, N07.class, N08.class,
+			N09.class, N10.class, N11.class, N12.class, N13.class, N14.class,
+			N15.class };
+}
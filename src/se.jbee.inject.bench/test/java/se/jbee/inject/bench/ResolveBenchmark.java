@@ -0,0 +1,209 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static java.util.Collections.singletonList;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Scope.Controller;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.lang.Type;
+
+/**
+ * Measures {@link Injector#resolve(Dependency)} for the different
+ * {@link Scope}s, arrays, upper bounds, targeted bindings of raw and
+ * parameterized types and the roots of a generated {@link Graph} with a
+ * varying share of targeted bindings.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(org.openjdk.jmh.annotations.Scope.Thread)
+public class ResolveBenchmark {
+
+	public static class Singleton {
+		// just a type
+	}
+
+	public static class PerInjection {
+		// just a type
+	}
+
+	public static class PerThread {
+		// just a type
+	}
+
+	public static class PerWorker {
+		// just a type
+	}
+
+	public static class Targeted {
+		// just a type
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static final Type<List<String>> STRINGS = (Type) raw(List.class).parametized(
+			String.class);
+
+	static final class ResolveBenchmarkModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per(Scope.application).construct(Singleton.class);
+			per(Scope.injection).construct(PerInjection.class);
+			per(Scope.thread).construct(PerThread.class);
+			per(Scope.worker).construct(PerWorker.class);
+			multibind(Integer.class).to(1, 2, 3);
+			bind(Long.class).to(4L);
+			bind(Double.class).to(5d);
+			bind(String.class).to("untargeted");
+			injectingInto(Targeted.class).bind(String.class).to("targeted");
+			bind(STRINGS).to(singletonList("untargeted"));
+			injectingInto(Targeted.class).bind(STRINGS).to(
+					singletonList("targeted"));
+		}
+	}
+
+	private static final Dependency<Integer[]> ARRAY = dependency(
+			Integer[].class);
+	private static final Dependency<? extends Number[]> UPPER_BOUND = dependency(
+			raw(Number.class).asUpperBound().addArrayDimension());
+	private static final Dependency<String> TARGETED = dependency(
+			String.class).injectingInto(Targeted.class);
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final Dependency<List<? extends CharSequence>> GENERIC_TARGETED = dependency(
+			(Type) raw(List.class).parametized(
+					raw(CharSequence.class).asUpperBound())).injectingInto(
+							Targeted.class);
+
+	private Injector context;
+	private Controller worker;
+
+	@Setup
+	public void setup() {
+		context = Bootstrap.injector(ResolveBenchmarkModule.class);
+		worker = context.resolve(Controller.forScope(Scope.worker));
+		worker.allocate();
+	}
+
+	@TearDown
+	public void tearDown() {
+		worker.deallocate();
+	}
+
+	@Benchmark
+	public Singleton singleton() {
+		return context.resolve(Singleton.class);
+	}
+
+	@Benchmark
+	public PerInjection injectionScope() {
+		return context.resolve(PerInjection.class);
+	}
+
+	@Benchmark
+	public PerThread threadScope() {
+		return context.resolve(PerThread.class);
+	}
+
+	@Benchmark
+	public PerWorker workerScope() {
+		return context.resolve(PerWorker.class);
+	}
+
+	@Benchmark
+	public Integer[] array() {
+		return context.resolve(ARRAY);
+	}
+
+	@Benchmark
+	public Number[] upperBound() {
+		return context.resolve(UPPER_BOUND);
+	}
+
+	@Benchmark
+	public String targeted() {
+		return context.resolve(TARGETED);
+	}
+
+	/**
+	 * Resolves a parameterized type that is only assignable to the required
+	 * type when comparing the type parameters.
+	 */
+	@Benchmark
+	public List<? extends CharSequence> genericTargeted() {
+		return context.resolve(GENERIC_TARGETED);
+	}
+
+	/**
+	 * Resolves the roots of a generated {@link Graph} one after the other.
+	 */
+	@State(org.openjdk.jmh.annotations.Scope.Thread)
+	public static class GraphState {
+
+		@Param({ "1000", "10000" })
+		int nodes;
+
+		@Param({ "10", "100" })
+		int targeted;
+
+		Injector context;
+		Controller worker;
+		Instance<Node>[] roots;
+		int next;
+
+		@Setup
+		public void setup() {
+			Graph graph = Graph.DEFAULT.withNodes(nodes).withTargeted(targeted);
+			context = graph.injector();
+			roots = graph.roots();
+			worker = context.resolve(Controller.forScope(Scope.worker));
+			worker.allocate();
+		}
+
+		@TearDown
+		public void tearDown() {
+			worker.deallocate();
+		}
+
+		Instance<Node> next() {
+			Instance<Node> root = roots[next++];
+			if (next == roots.length)
+				next = 0;
+			return root;
+		}
+	}
+
+	@Benchmark
+	public Node graph(GraphState graph) {
+		return graph.context.resolve(graph.next());
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bench;
+
+import static se.jbee.inject.Dependency.dependency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Provider;
+import se.jbee.inject.Scope;
+import se.jbee.inject.scope.ApplicationScope;
+
+/**
+ * Compares the {@link ApplicationScope} with the previous CAS based
+ * implementation at 1, 8 and 64 threads.
+ *
+ * Each iteration is a single shot of {@link #RESOURCES} operations per thread
+ * on a fresh {@link Scope}. Every thread asks for each slot exactly once and
+ * all threads ask in the same order, so each measured operation is a first
+ * request that might race with the same request of the other threads. The
+ * scope is not reset per invocation as a {@link Level#Invocation} setup would
+ * cost more than the measured operation.
+ *
+ * @since 19.1
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 20, batchSize = ScopeBenchmark.RESOURCES)
+@Measurement(iterations = 100, batchSize = ScopeBenchmark.RESOURCES)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class ScopeBenchmark {
+
+	/**
+	 * The {@link ApplicationScope} as it was before it claimed the slots
+	 * it provides. It might ask the {@link Provider} more than once.
+	 */
+	static final class CasApplicationScope implements Scope {
+
+		private final AtomicReference<AtomicReferenceArray<Object>> instances = new AtomicReference<>();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T provide(int serialID, int resources,
+				Dependency<? super T> dep, Provider<T> provider) {
+			return (T) instances.updateAndGet(objs -> objs != null
+				? objs
+				: new AtomicReferenceArray<>(resources)).updateAndGet(serialID,
+						obj -> obj != null ? obj : provider.provide());
+		}
+	}
+
+	static final int RESOURCES = 4096;
+	private static final Dependency<Object> DEP = dependency(Object.class);
+
+	private static final Provider<Object> PROVIDER = Object::new;
+
+	@State(org.openjdk.jmh.annotations.Scope.Thread)
+	public static class Cursor {
+
+		int next;
+
+		@Setup(Level.Iteration)
+		public void setup() {
+			next = 0;
+		}
+
+		int next() {
+			return next++;
+		}
+	}
+
+	Scope cas;
+	Scope claim;
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		cas = new CasApplicationScope();
+		claim = new ApplicationScope();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Object cas1(Cursor cursor) {
+		return cas.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object cas8(Cursor cursor) {
+		return cas.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public Object cas64(Cursor cursor) {
+		return cas.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+
+	@Benchmark
+	@Threads(1)
+	public Object claim1(Cursor cursor) {
+		return claim.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Object claim8(Cursor cursor) {
+		return claim.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+
+	@Benchmark
+	@Threads(64)
+	public Object claim64(Cursor cursor) {
+		return claim.provide(cursor.next(), RESOURCES, DEP, PROVIDER);
+	}
+}
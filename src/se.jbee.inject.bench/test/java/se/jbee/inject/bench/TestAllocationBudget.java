@@ -0,0 +1,159 @@
+package se.jbee.inject.bench;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static se.jbee.inject.Cast.providerTypeOf;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Instance.defaultInstanceOf;
+import static se.jbee.inject.action.ActionModule.actionDependency;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Provider;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Scope.Controller;
+import se.jbee.inject.Target;
+import se.jbee.inject.action.Action;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.defaults.CoreFeature;
+import se.jbee.inject.bench.ResolveBenchmark.PerWorker;
+import se.jbee.inject.bench.ResolveBenchmark.ResolveBenchmarkModule;
+import se.jbee.inject.bench.ResolveBenchmark.Singleton;
+import se.jbee.inject.binder.BootstrapperBundle;
+
+/**
+ * Tests that the hot paths measured by the benchmarks do not allocate more
+ * bytes per operation than their budget. The budgets are upper bounds slightly
+ * above what is allocated today so that any additional hidden allocation
+ * (lambdas, {@link se.jbee.inject.Dependency} copies, boxing) fails the test.
+ *
+ * Uses {@link ThreadMXBean#getThreadAllocatedBytes(long)} which is not
+ * supported by every JVM in which case the tests are skipped.
+ */
+public class TestAllocationBudget {
+
+	private static final int WARMUP = 20_000;
+	private static final int OPERATIONS = 10_000;
+	private static final int ROUNDS = 5;
+
+	private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static final class AllocationBudgetBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(CoreFeature.PROVIDER);
+			install(ResolveBenchmarkModule.class);
+		}
+	}
+
+	/**
+	 * Keeps the results of the operations reachable so they are not
+	 * eliminated.
+	 */
+	static volatile Object sink;
+
+	@BeforeClass
+	public static void allocatedBytesMustBeSupported() {
+		assumeTrue(THREADS.isThreadAllocatedMemorySupported());
+		THREADS.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void resolvingSingletonStaysWithinBudget() {
+		Injector context = Bootstrap.injector(ResolveBenchmarkModule.class);
+		assertBudget(256, () -> context.resolve(Singleton.class));
+	}
+
+	@Test
+	public void resolvingWorkerScopedInstanceStaysWithinBudget() {
+		Injector context = Bootstrap.injector(ResolveBenchmarkModule.class);
+		Controller worker = context.resolve(Controller.forScope(Scope.worker));
+		worker.allocate();
+		try {
+			assertBudget(256, () -> context.resolve(PerWorker.class));
+		} finally {
+			worker.deallocate();
+		}
+	}
+
+	@Test
+	public void provideOfResolvedProviderStaysWithinBudget() {
+		Injector context = Bootstrap.injector(AllocationBudgetBundle.class);
+		Provider<Singleton> provider = context.resolve(
+				providerTypeOf(Singleton.class));
+		assertBudget(160, provider::provide);
+	}
+
+	@Test
+	public void dispatchOfVoidEventStaysWithinBudget() {
+		Injector context = Bootstrap.injector(
+				EventBenchmark.EventBenchmarkModule.class);
+		EventBenchmark.Service service = context.resolve(
+				EventBenchmark.Service.class);
+		EventBenchmark.Handler handler = context.resolve(
+				EventBenchmark.Handler.class);
+		assertBudget(256, () -> {
+			handler.onEvent(1);
+			return handler;
+		});
+		assertTrue(service.events.sum() > 0);
+	}
+
+	@Test
+	public void runOfResolvedActionStaysWithinBudget() {
+		Injector context = Bootstrap.injector(
+				ActionBenchmark.ActionBenchmarkModule.class);
+		Action<Number, Integer> negate = context.resolve(
+				actionDependency(raw(Number.class), raw(Integer.class)));
+		assertEquals(-42, negate.run(42).intValue());
+		assertBudget(32, () -> negate.run(42));
+	}
+
+	@Test
+	public void matchingTargetWithParentsStaysWithinBudget() {
+		Dependency<String> dep = dependency(String.class) //
+				.injectingInto(Integer.class) //
+				.injectingInto(Long.class) //
+				.injectingInto(Short.class) //
+				.injectingInto(Byte.class);
+		Target target = Target.targeting(Byte.class) //
+				.within(defaultInstanceOf(raw(Short.class))) //
+				.within(defaultInstanceOf(raw(Long.class)));
+		assertTrue(target.isCompatibleWith(dep));
+		assertBudget(16, () -> target.isCompatibleWith(dep));
+	}
+
+	/**
+	 * As the JIT might still optimise the operation during the first rounds
+	 * the round with the fewest bytes allocated is compared to the budget.
+	 */
+	private static void assertBudget(long bytesPerOperation,
+			Supplier<?> operation) {
+		for (int i = 0; i < WARMUP; i++)
+			sink = operation.get();
+		long id = Thread.currentThread().getId();
+		long perOperation = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long before = THREADS.getThreadAllocatedBytes(id);
+			for (int i = 0; i < OPERATIONS; i++)
+				sink = operation.get();
+			long allocated = THREADS.getThreadAllocatedBytes(id) - before;
+			perOperation = Math.min(perOperation, allocated / OPERATIONS);
+		}
+		assertTrue("Allocated " + perOperation
+			+ " bytes per operation but budget is " + bytesPerOperation,
+				perOperation <= bytesPerOperation);
+	}
+}
@@ -0,0 +1,111 @@
+package se.jbee.inject.bench;
+
+import org.junit.Test;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Scope.Controller;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the {@link Graph}s generated can be bootstrapped and all their
+ * {@link Node}s can be resolved.
+ */
+public class TestGraph {
+
+	@Test
+	public void sameGraphDeclaresSameBindings() {
+		Graph graph = Graph.DEFAULT.withNodes(200);
+		Binding<?>[] a = bindings(graph);
+		Binding<?>[] b = bindings(graph);
+		assertEquals(a.length, b.length);
+		for (int i = 0; i < a.length; i++)
+			assertEquals(a[i].toString(), b[i].toString());
+	}
+
+	@Test
+	public void allBindingsAreDeclared() {
+		Graph graph = Graph.DEFAULT.withNodes(500);
+		int defaults = bindings(graph.withDepth(1).withNodes(1) //
+				.withConstants(0).withTargeted(0)).length - 1;
+		assertEquals(graph.bindings(), bindings(graph).length - defaults);
+	}
+
+	@Test
+	public void allNodesOfLargeGraphsCanBeResolved() {
+		Graph graph = Graph.DEFAULT.withNodes(10_000).withConstants(1000);
+		assertTrue(graph.bindings() > 10_000);
+		Injector context = graph.injector();
+		Controller worker = context.resolve(Controller.forScope(Scope.worker));
+		worker.allocate();
+		try {
+			for (Instance<Node> root : graph.roots())
+				assertTrue(context.resolve(root).size() > 1);
+			for (Instance<Node> node : graph.nodes(Scope.application))
+				assertSame(context.resolve(node), context.resolve(node));
+			for (Instance<Node> node : graph.nodes(Scope.injection))
+				assertNotNull(context.resolve(node));
+		} finally {
+			worker.deallocate();
+		}
+	}
+
+	@Test
+	public void graphsOfAnySeedCanBeBootstrapped() {
+		for (long seed = 1; seed <= 5; seed++) {
+			Graph graph = Graph.DEFAULT.withSeed(seed).withScopes(1, 0, 0, 1);
+			Injector context = graph.injector();
+			for (Instance<Node> root : graph.roots())
+				assertNotNull(context.resolve(root));
+		}
+	}
+
+	@Test
+	public void nodesHaveTheConfiguredFanOutAndDepth() {
+		Graph graph = Graph.DEFAULT.withNodes(100).withDepth(4).withFanOut(
+				2).withTargeted(0).withScopes(1, 0, 0, 0);
+		Injector context = graph.injector();
+		for (Instance<Node> root : graph.roots()) {
+			Node node = context.resolve(root);
+			for (int level = 3; level > 0; level--) {
+				assertNotNull(node.deps[1]);
+				assertNull(node.deps[2]);
+				node = (Node) node.deps[0];
+			}
+			assertTrue(node.deps[0] instanceof String);
+		}
+	}
+
+	@Test
+	public void targetedBindingsAreUsedForTheirTarget() {
+		Graph graph = Graph.DEFAULT.withNodes(10).withDepth(2).withFanOut(
+				1).withTargeted(100);
+		Injector context = graph.injector();
+		Node root = context.resolve(graph.roots()[0]);
+		assertNull(((Node) root.deps[0]).deps[0]);
+		Node leaf = context.resolve(graph.node(0));
+		assertTrue(leaf.deps[0] instanceof String);
+	}
+
+	@Test
+	public void typesAreUsedRoundRobin() {
+		Graph graph = Graph.DEFAULT.withTypes(3);
+		assertSame(Node.N00.class, graph.node(0).type.rawType);
+		assertSame(Node.N02.class, graph.node(2).type.rawType);
+		assertSame(Node.N00.class, graph.node(3).type.rawType);
+	}
+
+	private static Binding<?>[] bindings(Graph graph) {
+		return Bootstrap.bindings(graph.env(Environment.DEFAULT),
+				Graph.GraphBundle.class, Bindings.newBindings());
+	}
+}
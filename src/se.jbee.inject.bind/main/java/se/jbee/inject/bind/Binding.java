@@ -9,8 +9,11 @@ import static se.jbee.inject.lang.Utils.arrayOf;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import se.jbee.inject.*;
@@ -147,7 +150,7 @@ public final class Binding<T> extends ResourceDescriptor<T>
 		if (bindings.length <= 1)
 			return bindings;
 		List<Binding<?>> uniques = new ArrayList<>(bindings.length);
-		Arrays.sort(bindings);
+		sort(bindings);
 		uniques.add(bindings[0]);
 		int lastUniqueIndex = 0;
 		Set<Type<?>> required = new HashSet<>();
@@ -183,6 +186,91 @@ public final class Binding<T> extends ResourceDescriptor<T>
 		return withoutProvidedThatAreNotRequiredIn(uniques, required, dropped);
 	}
 
+	/**
+	 * Sorts the given {@link Binding}s in the order of
+	 * {@link #compareTo(Binding)}.
+	 *
+	 * Instead of comparing the raw type names for each pair of {@link Binding}s
+	 * these are grouped by raw type name first. Only the groups are sorted
+	 * using {@link #compareInGroup(Binding, Binding)}. As {@link Type}s and
+	 * {@link Name}s are canonical the costly qualification of
+	 * {@link Instance}s is only compared when they actually differ.
+	 */
+	static void sort(Binding<?>[] bindings) {
+		Map<String, List<Binding<?>>> byRawType = new HashMap<>();
+		for (Binding<?> b : bindings) {
+			String rawType = b.type().rawType.getName();
+			List<Binding<?>> group = byRawType.get(rawType);
+			if (group == null) {
+				group = new ArrayList<>();
+				byRawType.put(rawType, group);
+			}
+			group.add(b);
+		}
+		String[] rawTypes = byRawType.keySet().toArray(new String[0]);
+		Arrays.sort(rawTypes);
+		int i = 0;
+		for (String rawType : rawTypes) {
+			List<Binding<?>> group = byRawType.get(rawType);
+			int start = i;
+			for (Binding<?> b : group)
+				bindings[i++] = b;
+			if (group.size() > 1)
+				Arrays.sort(bindings, start, i, IN_GROUP_ORDER);
+		}
+	}
+
+	/**
+	 * Not a lambda as linking it costs more than the sort of a few thousand
+	 * {@link Binding}s in a cold JVM.
+	 */
+	private static final Comparator<Binding<?>> IN_GROUP_ORDER = new Comparator<Binding<?>>() {
+
+		@Override
+		public int compare(Binding<?> b1, Binding<?> b2) {
+			return compareInGroup(b1, b2);
+		}
+	};
+
+	/**
+	 * Same as {@link #compareTo(Binding)} for {@link Binding}s of the same raw
+	 * type name.
+	 */
+	private static int compareInGroup(Binding<?> b1, Binding<?> b2) {
+		Instance<?> i1 = b1.signature.instance;
+		Instance<?> i2 = b2.signature.instance;
+		int res;
+		// equal types and names are the same instance
+		if (i1.type != i2.type || i1.name != i2.name) {
+			res = Qualifying.compare(i1, i2);
+			if (res != 0)
+				return res;
+			res = i1.compareTo(i2);
+			if (res != 0)
+				return res;
+		}
+		Target t1 = b1.signature.target;
+		Target t2 = b2.signature.target;
+		if (t1 != t2) {
+			res = Qualifying.compare(t1, t2);
+			if (res != 0)
+				return res;
+			res = t1.compareTo(t2);
+			if (res != 0)
+				return res;
+		}
+		res = Qualifying.compare(b1.source, b2.source);
+		if (res != 0)
+			return res;
+		res = b1.source.compareTo(b2.source);
+		if (res != 0)
+			return res;
+		res = b1.scope.compareTo(b2.scope);
+		if (res != 0)
+			return res;
+		return b1.type.compareTo(b2.type);
+	}
+
 	private static boolean isDuplicateIdenticalConstant(boolean equalResource,
 			Binding<?> lastUnique, Binding<?> current) {
 		return equalResource && current.type == BindingType.PREDEFINED
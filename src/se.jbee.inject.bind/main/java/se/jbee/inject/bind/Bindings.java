@@ -9,17 +9,20 @@ import static se.jbee.inject.lang.Type.raw;
 import static se.jbee.inject.lang.Utils.arrayOf;
 import static se.jbee.inject.lang.Utils.isClassMonomodal;
 
+import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 import se.jbee.inject.Annotated;
 import se.jbee.inject.Annotated.Merge;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Env;
 import se.jbee.inject.Generator;
+import se.jbee.inject.Hint;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Instance;
 import se.jbee.inject.Locator;
@@ -126,6 +129,23 @@ public final class Bindings {
 	}
 
 	public void declareFrom(Env env, Module... modules) {
+		Module[] declaring = declaring(modules);
+		if (declaring.length > 1
+			&& env.globalProperty(Env.GP_USE_PARALLEL_DECLARATION, false)) {
+			declareInParallel(env, declaring);
+		} else {
+			for (Module m : declaring)
+				m.declare(this, env);
+		}
+	}
+
+	/**
+	 * @return the {@link Module}s that actually get declared in the order they
+	 *         are declared. A monomodal {@link Module} class is only declared
+	 *         once, multimodal ones are declared for each instance.
+	 */
+	public static Module[] declaring(Module... modules) {
+		List<Module> res = new ArrayList<>(modules.length);
 		Set<Class<?>> declared = new HashSet<>();
 		Set<Class<?>> multimodals = new HashSet<>();
 		for (Module m : modules) {
@@ -134,10 +154,39 @@ public final class Bindings {
 			if (hasBeenDeclared && !isClassMonomodal(ns))
 				multimodals.add(ns);
 			if (!hasBeenDeclared || multimodals.contains(ns)) {
-				m.declare(this, env);
+				res.add(m);
 				declared.add(ns);
 			}
 		}
+		return arrayOf(res, Module.class);
+	}
+
+	/**
+	 * Each {@link Module} is declared into its own {@link Bindings} buffer.
+	 * The buffers are added in the order of the {@link Module}s so that the
+	 * result is the same as for a sequential declaration.
+	 */
+	private void declareInParallel(Env env, Module[] modules) {
+		Bindings[] buffers = new Bindings[modules.length];
+		IntStream.range(0, modules.length).parallel().forEach(i -> {
+			Module m = modules[i];
+			Bindings buffer = newBindings();
+			// same instance might be declared more than once
+			synchronized (m) {
+				m.declare(buffer, env);
+			}
+			buffers[i] = buffer;
+		});
+		for (Bindings buffer : buffers)
+			addAll(buffer);
+	}
+
+	/**
+	 * Adds all {@link Binding}s accumulated by the given {@link Bindings} as
+	 * they are, that means without further expansion.
+	 */
+	public void addAll(Bindings other) {
+		list.addAll(other.list);
 	}
 
 	public static <T> Supplier<T> supplyConstant(T constant) {
@@ -157,7 +206,29 @@ public final class Bindings {
 	 *         {@link ScopePermanence} effects.
 	 */
 	public static <T> Supplier<T> supplyScopedConstant(T constant) {
-		return (dep, context) -> constant;
+		return new ScopedConstantSupplier<>(constant);
+	}
+
+	/**
+	 * Supplies the constant like any other bean so that it is subject to
+	 * {@link ScopePermanence} effects.
+	 */
+	private static final class ScopedConstantSupplier<T>
+			implements Supplier<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T constant;
+
+		ScopedConstantSupplier(T constant) {
+			this.constant = constant;
+		}
+
+		@Override
+		public T supply(Dependency<? super T> dep, Injector context)
+				throws UnresolvableDependency {
+			return constant;
+		}
 	}
 
 	/**
@@ -169,7 +240,9 @@ public final class Bindings {
 	 * {@link #hashCode()} to allow elimination of duplicate constant bindings.
 	 */
 	private static final class ConstantSupplier<T>
-			implements Supplier<T>, Generator<T> {
+			implements Supplier<T>, Generator<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private final T constant;
 
@@ -189,6 +262,11 @@ public final class Bindings {
 			return generate(dep);
 		}
 
+		@Override
+		public Hint<?>[] dependencies() {
+			return Hint.none();
+		}
+
 		@Override
 		public boolean equals(Object obj) {
 			return obj instanceof ConstantSupplier
@@ -34,6 +34,24 @@ public interface Bootstrapper {
 	 */
 	void install(Class<? extends Bundle> bundle);
 
+	/**
+	 * Installs a {@link Bundle} deferred. Instead of its {@link Module}s only
+	 * the exported types are bound. The {@link Bundle} is bootstrapped when
+	 * one of them is resolved the first time. Its context can use everything
+	 * installed in the {@link Bundle}s that are not deferred.
+	 *
+	 * @param bundle the {@link Bundle} to install on first demand
+	 * @param exports the types resolved from the deferred {@link Bundle}
+	 * @throws UnsupportedOperationException in case the {@link Bootstrapper}
+	 *             does not support deferred installation
+	 * @since 19.1
+	 */
+	default void installDeferred(Class<? extends Bundle> bundle,
+			Class<?>... exports) {
+		throw new UnsupportedOperationException(
+				"Deferred installation of " + bundle.getName());
+	}
+
 	/**
 	 * Uninstalling is very different from overriding. It allows to totally
 	 * remove a well defined part from the consideration while a override
@@ -38,6 +38,12 @@ public abstract class BootstrapperBundle implements Bundle, Bootstrapper {
 		bootstrap.install(bundle);
 	}
 
+	@Override
+	public final void installDeferred(Class<? extends Bundle> bundle,
+			Class<?>... exports) {
+		bootstrap.installDeferred(bundle, exports);
+	}
+
 	@Override
 	public final void install(Module module) {
 		bootstrap.install(module);
@@ -0,0 +1,144 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.binder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import se.jbee.inject.Extends;
+import se.jbee.inject.bind.Bundle;
+
+/**
+ * Access to the {@link Extends} targets of {@link Bundle}s precomputed at
+ * compile time and written to {@link #RESOURCE} files.
+ *
+ * Each line of an index file has the form
+ *
+ * <pre>
+ * binary-bundle-class-name=binary-extends-target-class-name
+ * </pre>
+ *
+ * where the target is empty for {@link Bundle}s not annotated with
+ * {@link Extends}. Together with the names listed in the {@link #SERVICES}
+ * files this allows to decide which {@link ServiceLoader} {@link Bundle}s to
+ * install without loading or instantiating those that are not installed.
+ *
+ * @since 19.1
+ */
+public final class BundleIndex {
+
+	/**
+	 * Name of the index resource files. Each artifact can contain one file.
+	 */
+	public static final String RESOURCE = "META-INF/se.jbee.inject/bundles.index";
+
+	/**
+	 * Name of the {@link ServiceLoader} provider configuration files for
+	 * {@link Bundle}s.
+	 */
+	public static final String SERVICES = "META-INF/services/"
+		+ Bundle.class.getName();
+
+	private static final Map<ClassLoader, Map<String, String>> INDEXES = new WeakHashMap<>();
+
+	private BundleIndex() {
+		throw new UnsupportedOperationException("util");
+	}
+
+	/**
+	 * @return the binary names of the {@link Bundle} services listed in
+	 *         {@link #SERVICES} files in the order {@link ServiceLoader} would
+	 *         load them, empty if there are no such files (for example when
+	 *         services are only provided by modules)
+	 */
+	public static Collection<String> services(ClassLoader loader) {
+		Set<String> names = new LinkedHashSet<>();
+		try {
+			Enumeration<URL> files = loader.getResources(SERVICES);
+			while (files.hasMoreElements())
+				readServices(files.nextElement(), names);
+		} catch (IOException e) {
+			// use what has been read so far
+		}
+		return names;
+	}
+
+	/**
+	 * @return the binary name of the {@link Extends#value()} of the given
+	 *         {@link Bundle}, empty if it is not annotated or null if it is not
+	 *         indexed
+	 */
+	public static String extendsTarget(ClassLoader loader, String bundle) {
+		return indexOf(loader).get(bundle);
+	}
+
+	private static Map<String, String> indexOf(ClassLoader loader) {
+		synchronized (INDEXES) {
+			return INDEXES.computeIfAbsent(loader, BundleIndex::read);
+		}
+	}
+
+	private static Map<String, String> read(ClassLoader loader) {
+		Map<String, String> index = new HashMap<>();
+		try {
+			Enumeration<URL> files = loader.getResources(RESOURCE);
+			while (files.hasMoreElements())
+				read(files.nextElement(), index);
+		} catch (IOException e) {
+			// use what has been read so far
+		}
+		return index.isEmpty() ? Collections.emptyMap() : index;
+	}
+
+	private static void read(URL file, Map<String, String> index)
+			throws IOException {
+		try (BufferedReader lines = open(file)) {
+			String line = lines.readLine();
+			while (line != null) {
+				int eq = line.indexOf('=');
+				if (eq > 0)
+					index.putIfAbsent(line.substring(0, eq),
+							line.substring(eq + 1));
+				line = lines.readLine();
+			}
+		}
+	}
+
+	private static void readServices(URL file, Set<String> names)
+			throws IOException {
+		try (BufferedReader lines = open(file)) {
+			String line = lines.readLine();
+			while (line != null) {
+				int comment = line.indexOf('#');
+				String name = (comment >= 0
+					? line.substring(0, comment)
+					: line).trim();
+				if (!name.isEmpty())
+					names.add(name);
+				line = lines.readLine();
+			}
+		}
+	}
+
+	private static BufferedReader open(URL file) throws IOException {
+		InputStream in = file.openStream();
+		return new BufferedReader(
+				new InputStreamReader(in, StandardCharsets.UTF_8));
+	}
+}
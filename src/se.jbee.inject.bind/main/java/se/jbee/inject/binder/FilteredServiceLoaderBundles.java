@@ -1,26 +1,136 @@
 package se.jbee.inject.binder;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+import se.jbee.inject.Extends;
 import se.jbee.inject.bind.Bundle;
 
+/**
+ * Installs the {@link Bundle}s provided via {@link ServiceLoader} that pass a
+ * filter.
+ *
+ * When the {@link Bundle} services are listed in
+ * {@link BundleIndex#SERVICES} files they are not instantiated by the
+ * {@link ServiceLoader}. Instead their {@link Extends} target is looked up in
+ * the {@link BundleIndex} so that {@link Bundle}s not targeting the expected
+ * type are not even loaded. Services not indexed are loaded (but not
+ * initialised) to check them.
+ *
+ * On Java 9 and later the {@link Bundle} services provided by named modules
+ * are installed as well unless they are also listed in the
+ * {@link BundleIndex#SERVICES} files. They are loaded (but not initialised) to
+ * check them.
+ */
 public abstract class FilteredServiceLoaderBundles extends BootstrapperBundle {
 
 	private final Predicate<Class<? extends Bundle>> filter;
+	private final Predicate<String> extendsTarget;
 
 	protected FilteredServiceLoaderBundles(
 			Predicate<Class<? extends Bundle>> filter) {
+		this(filter, target -> true);
+	}
+
+	/**
+	 * @param filter applied to the loaded {@link Bundle} class
+	 * @param extendsTarget applied to the binary name of the {@link Extends}
+	 *            target of indexed {@link Bundle}s before they are loaded, the
+	 *            empty name stands for {@link Bundle}s not annotated
+	 * @since 19.1
+	 */
+	protected FilteredServiceLoaderBundles(
+			Predicate<Class<? extends Bundle>> filter,
+			Predicate<String> extendsTarget) {
 		this.filter = filter;
+		this.extendsTarget = extendsTarget;
 	}
 
 	@Override
 	protected final void bootstrap() {
 		//TODO localise effect to package
-		for (Bundle bundle : ServiceLoader.load(Bundle.class)) {
-			if (filter.test(bundle.getClass())) {
-				install(bundle.getClass());
+		ClassLoader loader = Thread.currentThread().getContextClassLoader();
+		if (loader == null)
+			loader = ClassLoader.getSystemClassLoader();
+		Collection<String> services = BundleIndex.services(loader);
+		for (String service : services) {
+			String target = BundleIndex.extendsTarget(loader, service);
+			if (target == null || extendsTarget.test(target)) {
+				Class<? extends Bundle> bundle = load(loader, service);
+				if (filter.test(bundle)) {
+					install(bundle);
+				}
 			}
 		}
+		for (Class<? extends Bundle> bundle : moduleServices(loader)) {
+			if (!services.contains(bundle.getName()) && filter.test(bundle)) {
+				install(bundle);
+			}
+		}
+	}
+
+	/**
+	 * As this is compiled for Java 8 the Java 9 API of {@link ServiceLoader}
+	 * is used reflectively.
+	 *
+	 * @return the types of the {@link Bundle} services provided by named
+	 *         modules, empty on Java 8
+	 */
+	private static List<Class<? extends Bundle>> moduleServices(
+			ClassLoader loader) {
+		List<Class<? extends Bundle>> res = new ArrayList<>();
+		Method stream;
+		Method type;
+		Method getModule;
+		Method isNamed;
+		try {
+			stream = ServiceLoader.class.getMethod("stream");
+			type = Class.forName("java.util.ServiceLoader$Provider") //
+					.getMethod("type");
+			getModule = Class.class.getMethod("getModule");
+			isNamed = Class.forName("java.lang.Module").getMethod("isNamed");
+		} catch (ClassNotFoundException | NoSuchMethodException e) {
+			return res;
+		}
+		try {
+			Iterator<?> providers = ((Stream<?>) stream.invoke(
+					ServiceLoader.load(Bundle.class, loader))).iterator();
+			while (providers.hasNext()) {
+				Class<?> bundle = (Class<?>) type.invoke(providers.next());
+				// providers of named modules come first, then those of the services files
+				if (!((Boolean) isNamed.invoke(getModule.invoke(bundle))))
+					return res;
+				res.add(bundle.asSubclass(Bundle.class));
+			}
+			return res;
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new ServiceConfigurationError(
+					Bundle.class.getName() + ": " + e.getCause(), e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new ServiceConfigurationError(
+					Bundle.class.getName() + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static Class<? extends Bundle> load(ClassLoader loader,
+			String bundle) {
+		try {
+			return Class.forName(bundle, false, loader).asSubclass(
+					Bundle.class);
+		} catch (ClassNotFoundException | ClassCastException e) {
+			// same as the ServiceLoader would do
+			throw new ServiceConfigurationError(Bundle.class.getName()
+				+ ": Provider " + bundle + " not found", e);
+		}
 	}
 }
@@ -8,6 +8,7 @@ package se.jbee.inject.binder;
 import java.lang.reflect.Constructor;
 
 import se.jbee.inject.Hint;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.lang.Typed;
 import se.jbee.inject.bind.ValueBinder;
@@ -28,7 +29,7 @@ public final class New<T> implements Typed<T> {
 	public final Hint<?>[] hints;
 
 	private New(Constructor<T> target, Hint<?>[] hints) {
-		this.target = target;
+		this.target = Metadata.detached(target);
 		this.hints = hints;
 	}
 
@@ -11,6 +11,7 @@ import static se.jbee.inject.lang.Type.parameterType;
 import java.lang.reflect.Method;
 
 import se.jbee.inject.Hint;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.lang.Typed;
 import se.jbee.inject.bind.ValueBinder;
@@ -39,7 +40,7 @@ public final class Produces<T> implements Typed<T> {
 	@SuppressWarnings("unchecked")
 	private Produces(Object owner, Method target, Hint<?>[] hints) {
 		this.returns = (Type<T>) Type.returnType(target);
-		this.target = target;
+		this.target = Metadata.detached(target);
 		this.hints = hints;
 		this.owner = owner;
 		this.isInstanceMethod = !isStatic(target.getModifiers());
@@ -7,7 +7,9 @@ import se.jbee.inject.bind.Bundle;
 public class ServiceLoaderBundles extends FilteredServiceLoaderBundles {
 
 	public ServiceLoaderBundles() {
-		super(ServiceLoaderBundles::isTargetingInjector);
+		super(ServiceLoaderBundles::isTargetingInjector,
+				target -> target.isEmpty()
+					|| target.equals(Injector.class.getName()));
 	}
 
 	static boolean isTargetingInjector(Class<? extends Bundle> bundle) {
@@ -7,7 +7,8 @@ import se.jbee.inject.bind.Bundle;
 public class ServiceLoaderEnvBundles extends FilteredServiceLoaderBundles {
 
 	public ServiceLoaderEnvBundles() {
-		super(ServiceLoaderEnvBundles::isTargetingEnv);
+		super(ServiceLoaderEnvBundles::isTargetingEnv,
+				target -> target.equals(Env.class.getName()));
 	}
 
 	static boolean isTargetingEnv(Class<? extends Bundle> bundle) {
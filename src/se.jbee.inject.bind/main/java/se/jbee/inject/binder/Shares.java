@@ -6,6 +6,7 @@ import static se.jbee.inject.lang.Type.fieldType;
 import java.lang.reflect.Field;
 
 import se.jbee.inject.Supplier;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.lang.Typed;
 
@@ -33,7 +34,7 @@ public final class Shares<T> implements Typed<T> {
 	private Shares(Object owner, Field target) {
 		this.isInstanceField = !isStatic(target.getModifiers());
 		this.owner = isInstanceField ? owner : null;
-		this.target = target;
+		this.target = Metadata.detached(target);
 		this.type = (Type<T>) fieldType(target);
 	}
 
@@ -11,14 +11,21 @@ import se.jbee.inject.lang.Type;
 import se.jbee.inject.lang.TypeVariable;
 import se.jbee.inject.lang.Utils;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.util.*;
-import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
-import static java.util.stream.Collectors.toMap;
 import static se.jbee.inject.Instance.anyOf;
 import static se.jbee.inject.lang.Type.parameterTypes;
 import static se.jbee.inject.lang.Type.raw;
@@ -31,9 +38,7 @@ import static se.jbee.inject.lang.Utils.newArray;
  */
 public final class Supply {
 
-	public static final Supplier<Provider<?>> PROVIDER = (dep, context) //
-	-> byLazyProvider(dep.onTypeParameter().uninject().ignoredScoping(),
-			context);
+	public static final Supplier<Provider<?>> PROVIDER = new ProviderSupplier();
 
 	private static final Supplier<?> REQUIRED = (dep, context) -> {
 		throw new NoResourceForDependency("Should never be called!", dep);
@@ -46,12 +51,13 @@ public final class Supply {
 	 * list). Arrays itself have build in support that will (if not redefined by
 	 * a more precise binding) return all known
 	 */
-	public static final ArrayBridge<List<?>> LIST_BRIDGE = Arrays::asList;
-	public static final ArrayBridge<Set<?>> SET_BRIDGE = //
-			elems -> new HashSet<>(Arrays.asList(elems));
+	public static final ArrayBridge<List<?>> LIST_BRIDGE = new ListBridge();
+	public static final ArrayBridge<Set<?>> SET_BRIDGE = new SetBridge();
 
 	private static final String SUPPLIES = "supplies";
 
+	private static final Object[] NO_ARGS = new Object[0];
+
 	/**
 	 * A {@link Supplier} used as fall-back. Should a required {@link Locator}
 	 * not be provided it is still bound to this supplier that will throw an
@@ -67,8 +73,7 @@ public final class Supply {
 	 */
 	public static <T> Supplier<T> bySupplierReference(
 			Class<? extends Supplier<? extends T>> type) {
-		return (dep, context) -> context.resolve(dep.instanced(anyOf(type))) //
-				.supply(dep, context);
+		return new SupplierReference<>(type);
 	}
 
 	public static <E> Supplier<E[]> fromElements(Type<E[]> arrayType,
@@ -79,12 +84,12 @@ public final class Supply {
 	public static <T> Supplier<T> byInstanceReference(Instance<T> instance) {
 		// Note that this is not "buffered" using Resources as it is used to
 		// implement the plain resolution
-		return (dep, context) -> context.resolve(dep.instanced(instance));
+		return new InstanceReference<>(instance);
 	}
 
 	public static <T> Supplier<T> byDependencyReference(
 			Dependency<T> dependency) {
-		return (dep, context) -> context.resolve(dependency);
+		return new DependencyReference<>(dependency);
 	}
 
 	/**
@@ -93,13 +98,7 @@ public final class Supply {
 	 */
 	public static <T> Supplier<T> byParametrizedInstanceReference(
 			Instance<T> instance) {
-		return (dep, context) -> {
-			Type<? super T> type = dep.type();
-			Instance<? extends T> parametrized = instance.typed(instance.type() //
-							.parametized(type.parameters()) //
-							.upperBound(dep.type().isUpperBound()));
-			return context.resolve(dep.instanced(parametrized));
-		};
+		return new ParametrizedInstanceReference<>(instance);
 	}
 
 	public static <T> Supplier<T> byProducer(Produces<T> producer) {
@@ -157,6 +156,112 @@ public final class Supply {
 		T bridge(Object[] elems);
 	}
 
+	private static final class ListBridge
+			implements ArrayBridge<List<?>>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public List<?> bridge(Object[] elems) {
+			return Arrays.asList(elems);
+		}
+
+		private Object readResolve() {
+			return LIST_BRIDGE;
+		}
+	}
+
+	private static final class SetBridge
+			implements ArrayBridge<Set<?>>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Set<?> bridge(Object[] elems) {
+			return new HashSet<>(Arrays.asList(elems));
+		}
+
+		private Object readResolve() {
+			return SET_BRIDGE;
+		}
+	}
+
+	private static final class ProviderSupplier
+			implements Supplier<Provider<?>>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Provider<?> supply(Dependency<? super Provider<?>> dep,
+				Injector context) {
+			return byLazyProvider(
+					dep.onTypeParameter().uninject().ignoredScoping(), context);
+		}
+
+		private Object readResolve() {
+			return PROVIDER;
+		}
+	}
+
+	private static final class SupplierReference<T>
+			implements Supplier<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Class<? extends Supplier<? extends T>> type;
+
+		SupplierReference(Class<? extends Supplier<? extends T>> type) {
+			this.type = type;
+		}
+
+		@Override
+		public T supply(Dependency<? super T> dep, Injector context)
+				throws UnresolvableDependency {
+			return context.resolve(dep.instanced(anyOf(type))).supply(dep,
+					context);
+		}
+	}
+
+	private static final class DependencyReference<T>
+			implements Supplier<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Dependency<T> dependency;
+
+		DependencyReference(Dependency<T> dependency) {
+			this.dependency = dependency;
+		}
+
+		@Override
+		public T supply(Dependency<? super T> dep, Injector context)
+				throws UnresolvableDependency {
+			return context.resolve(dependency);
+		}
+	}
+
+	private static final class ParametrizedInstanceReference<T>
+			implements Supplier<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Instance<T> instance;
+
+		ParametrizedInstanceReference(Instance<T> instance) {
+			this.instance = instance;
+		}
+
+		@Override
+		public T supply(Dependency<? super T> dep, Injector context)
+				throws UnresolvableDependency {
+			Type<? super T> type = dep.type();
+			Instance<? extends T> parametrized = instance.typed(instance.type() //
+					.parametized(type.parameters()) //
+					.upperBound(type.isUpperBound()));
+			return context.resolve(dep.instanced(parametrized));
+		}
+	}
+
 	/**
 	 * A {@link Supplier} uses multiple different separate suppliers to provide
 	 * the elements of a array of the supplied type.
@@ -164,7 +269,9 @@ public final class Supply {
 	 * @author Jan Bernitt (jan@jbee.se)
 	 */
 	private static final class PredefinedArraySupplier<E>
-			extends WithArgs<E[]> {
+			extends WithArgs<E[]> implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private final Type<E[]> arrayType;
 
@@ -174,6 +281,10 @@ public final class Supply {
 			this.arrayType = arrayType;
 		}
 
+		private Object writeReplace() {
+			return new ElementsReference<>(arrayType, hints);
+		}
+
 		@SuppressWarnings("SuspiciousSystemArraycopy")
 		@Override
 		protected E[] invoke(Object[] args, Injector context) {
@@ -189,18 +300,53 @@ public final class Supply {
 		}
 	}
 
-	private static final class Access<T> implements Annotated, Supplier<T> {
+	private static final class InstanceReference<T>
+			implements Supplier<T>, Serializable {
 
-		private final Shares<T> field;
+		private static final long serialVersionUID = 1L;
+
+		private final Instance<T> instance;
+
+		InstanceReference(Instance<T> instance) {
+			this.instance = instance;
+		}
+
+		@Override
+		public T supply(Dependency<? super T> dep, Injector context)
+				throws UnresolvableDependency {
+			return context.resolve(dep.instanced(instance));
+		}
+
+		@Override
+		public Hint<?>[] dependencies() {
+			return new Hint<?>[] { Hint.relativeReferenceTo(instance) };
+		}
+	}
+
+	private static final class Access<T>
+			implements Annotated, Supplier<T>, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Shares<T> field;
+		private final transient MethodHandle invoker;
 
 		Access(Shares<T> field) {
 			this.field = field;
+			this.invoker = Utils.invoker(field.target);
+		}
+
+		private Object writeReplace() {
+			return new MemberReference(field.target, field.owner, null);
 		}
 
 		@SuppressWarnings("unchecked")
 		@Override
 		public T supply(Dependency<? super T> dep, Injector context)
 				throws UnresolvableDependency {
+			if (invoker != null)
+				return (T) Utils.invoke(invoker, field.owner, NO_ARGS,
+						e -> UnresolvableDependency.SupplyFailed.valueOf(e, field.target));
 			return (T) Utils.share(field.target, field.owner,
 					e -> UnresolvableDependency.SupplyFailed.valueOf(e, field.target));
 		}
@@ -210,16 +356,29 @@ public final class Supply {
 			return field.target;
 		}
 
+		@Override
+		public Hint<?>[] dependencies() {
+			return Hint.none();
+		}
+
 	}
 
 	private static final class Instantiation<T> extends WithArgs<T>
-			implements Annotated {
+			implements Annotated, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
-		private final Constructor<T> target;
+		private final transient Constructor<T> target;
+		private final transient MethodHandle invoker;
 
 		Instantiation(Constructor<T> target, Hint<?>[] args) {
 			super(args);
 			this.target = target;
+			this.invoker = Utils.invoker(target);
+		}
+
+		private Object writeReplace() {
+			return new MemberReference(target, null, hints);
 		}
 
 		@Override
@@ -228,7 +387,11 @@ public final class Supply {
 		}
 
 		@Override
+		@SuppressWarnings("unchecked")
 		protected T invoke(Object[] args, Injector context) {
+			if (invoker != null)
+				return (T) Utils.invoke(invoker, null, args,
+						e -> UnresolvableDependency.SupplyFailed.valueOf(e, target));
 			return Utils.construct(target, args,
 					e -> UnresolvableDependency.SupplyFailed.valueOf(e, target));
 		}
@@ -240,12 +403,26 @@ public final class Supply {
 	}
 
 	private static final class Call<T> extends WithArgs<T>
-			implements Annotated {
+			implements Annotated, Serializable {
 
-		private Object owner;
-		private final Produces<T> producer;
-		private final Class<T> returns;
-		private final Map<String, UnaryOperator<Type<?>>> typeVariableResolvers;
+		private static final long serialVersionUID = 1L;
+
+		private static final int ACTUAL_TYPE_HINTS_LIMIT = 64;
+
+		private transient Object owner;
+		private final transient Produces<T> producer;
+		private final transient Class<T> returns;
+		private final transient String[] typeVariables;
+		private final transient UnaryOperator<Type<?>>[] typeVariableResolvers;
+		private final transient java.lang.reflect.Parameter[] params;
+		private final transient MethodHandle invoker;
+
+		/**
+		 * The {@link Hint}s with actual types by the actual {@link Type}
+		 * requested for producers with type variables. Bounded by
+		 * {@link #ACTUAL_TYPE_HINTS_LIMIT} as the types can be computed.
+		 */
+		private final transient Map<Type<?>, Hint<?>[]> actualTypeHints;
 
 		Call(Produces<T> producer, Hint<?>[] args,
 				Function<Dependency<?>, Object> supplyActual) {
@@ -253,10 +430,24 @@ public final class Supply {
 			this.producer = producer;
 			this.returns = producer.returns.rawType;
 			this.owner = producer.owner;
-			this.typeVariableResolvers = producer.hasTypeVariables
-				? TypeVariable.typeVariables(
-						producer.target.getGenericReturnType())
-				: null;
+			if (producer.hasTypeVariables) {
+				Map<String, UnaryOperator<Type<?>>> resolvers = TypeVariable.typeVariables(
+						producer.target.getGenericReturnType());
+				this.typeVariables = resolvers.keySet().toArray(new String[0]);
+				UnaryOperator<Type<?>>[] compiled = newResolvers(
+						typeVariables.length);
+				for (int i = 0; i < compiled.length; i++)
+					compiled[i] = resolvers.get(typeVariables[i]);
+				this.typeVariableResolvers = compiled;
+				this.params = producer.target.getParameters();
+				this.actualTypeHints = new ConcurrentHashMap<>();
+			} else {
+				this.typeVariables = null;
+				this.typeVariableResolvers = null;
+				this.params = null;
+				this.actualTypeHints = null;
+			}
+			this.invoker = Utils.invoker(producer.target);
 		}
 
 		@Override
@@ -264,10 +455,24 @@ public final class Supply {
 			return producer.target;
 		}
 
+		@Override
+		public Hint<?>[] dependencies() {
+			// hints of type variables depend on the actual type
+			return producer.hasTypeVariables ? null : hints();
+		}
+
+		private Object writeReplace() {
+			return new MemberReference(producer.target, producer.owner,
+					producer.hints);
+		}
+
 		@Override
 		protected T invoke(Object[] args, Injector context) {
 			if (producer.isInstanceMethod && owner == null)
 				owner = context.resolve(producer.target.getDeclaringClass());
+			if (invoker != null)
+				return returns.cast(Utils.invoke(invoker, owner, args,
+						e -> UnresolvableDependency.SupplyFailed.valueOf(e, producer.target)));
 			return returns.cast(Utils.produce(producer.target, owner, args,
 					e -> UnresolvableDependency.SupplyFailed.valueOf(e, producer.target)));
 		}
@@ -276,16 +481,30 @@ public final class Supply {
 		protected Hint<?>[] hintsFor(Dependency<? super T> dep) {
 			if (!producer.hasTypeVariables)
 				return hints;
-			Hint<?>[] actualTypeHints = hints.clone();
-			Map<String, Type<?>> actualTypes = typeVariableResolvers.entrySet().stream() //
-					.collect(toMap(Entry::getKey,
-							e -> e.getValue().apply(dep.type())));
-			java.lang.reflect.Parameter[] params = producer.target.getParameters();
-			for (int i = 0; i < actualTypeHints.length; i++) {
-				actualTypeHints[i] = actualTypeHints[i].withActualType(
-						params[i], actualTypes);
-			}
-			return actualTypeHints;
+			Type<? super T> actualType = dep.type();
+			Hint<?>[] res = actualTypeHints.get(actualType);
+			if (res != null)
+				return res;
+			res = hintsFor(actualType);
+			if (actualTypeHints.size() < ACTUAL_TYPE_HINTS_LIMIT)
+				actualTypeHints.putIfAbsent(actualType, res);
+			return res;
+		}
+
+		private Hint<?>[] hintsFor(Type<?> actualType) {
+			Map<String, Type<?>> actualTypes = new HashMap<>();
+			for (int i = 0; i < typeVariables.length; i++)
+				actualTypes.put(typeVariables[i],
+						typeVariableResolvers[i].apply(actualType));
+			Hint<?>[] res = hints.clone();
+			for (int i = 0; i < res.length; i++)
+				res[i] = res[i].withActualType(params[i], actualTypes);
+			return res;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> UnaryOperator<T>[] newResolvers(int length) {
+			return (UnaryOperator<T>[]) new UnaryOperator<?>[length];
 		}
 
 		@Override
@@ -294,6 +513,80 @@ public final class Supply {
 		}
 	}
 
+	/**
+	 * The serial form of {@link Instantiation}, {@link Call} and {@link Access}
+	 * suppliers. The {@link Member} is referenced by its signature. Its owner
+	 * and {@link Hint}s have to be {@link Serializable} themselves.
+	 */
+	private static final class MemberReference implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?> declaringClass;
+		private final String name;
+		private final Class<?>[] parameterTypes;
+		private final boolean accessible;
+		private final Object owner;
+		private final Hint<?>[] hints;
+
+		@SuppressWarnings("deprecation")
+		MemberReference(Member target, Object owner, Hint<?>[] hints) {
+			this.declaringClass = target.getDeclaringClass();
+			this.name = target instanceof Constructor ? null : target.getName();
+			this.parameterTypes = target instanceof Field
+				? null
+				: ((Executable) target).getParameterTypes();
+			this.accessible = ((AccessibleObject) target).isAccessible();
+			this.owner = owner;
+			this.hints = hints;
+		}
+
+		private Object readResolve() throws ObjectStreamException {
+			try {
+				if (parameterTypes == null)
+					return byAccess(Shares.shares(owner,
+							accessible(declaringClass.getDeclaredField(name))));
+				if (name == null)
+					return byNew(New.newInstance(accessible(
+							declaringClass.getDeclaredConstructor(parameterTypes)),
+							hints));
+				return byProducer(Produces.produces(owner, accessible(
+						declaringClass.getDeclaredMethod(name, parameterTypes)),
+						hints));
+			} catch (NoSuchMethodException | NoSuchFieldException e) {
+				InvalidObjectException ex = new InvalidObjectException(
+						"Member no longer exists: " + e.getMessage());
+				ex.initCause(e);
+				throw ex;
+			}
+		}
+
+		private <T extends AccessibleObject> T accessible(T target) {
+			return accessible ? Utils.accessible(target) : target;
+		}
+	}
+
+	/**
+	 * The serial form of {@link PredefinedArraySupplier}.
+	 */
+	private static final class ElementsReference<E> implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Type<E[]> arrayType;
+		private final Hint<? extends E>[] hints;
+
+		@SuppressWarnings("unchecked")
+		ElementsReference(Type<E[]> arrayType, Hint<?>[] hints) {
+			this.arrayType = arrayType;
+			this.hints = (Hint<? extends E>[]) hints;
+		}
+
+		private Object readResolve() {
+			return fromElements(arrayType, hints);
+		}
+	}
+
 	public static String describe(Object behaviour) {
 		return "<" + behaviour + ">";
 	}
@@ -320,6 +613,19 @@ public final class Supply {
 
 		protected abstract T invoke(Object[] args, Injector context);
 
+		/**
+		 * @return the {@link Hint}s used to resolve the arguments, one for each
+		 *         parameter
+		 */
+		public final Hint<?>[] hints() {
+			return hints.clone();
+		}
+
+		@Override
+		public Hint<?>[] dependencies() {
+			return hints();
+		}
+
 		@Override
 		public T supply(Dependency<? super T> dep, Injector context)
 				throws UnresolvableDependency {
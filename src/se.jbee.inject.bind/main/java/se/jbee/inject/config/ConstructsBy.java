@@ -11,6 +11,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 
 import se.jbee.inject.Packages;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.lang.Utils;
 
@@ -57,7 +58,8 @@ public interface ConstructsBy {
 			@Override
 			public <T> Constructor<T> reflect(Class<T> type) {
 				@SuppressWarnings("unchecked")
-				Constructor<T>[] cs = (Constructor<T>[]) type.getDeclaredConstructors();
+				Constructor<T>[] cs = (Constructor<T>[]) Metadata.of(
+						type).declaredConstructors();
 				Constructor<T> marked = arrayFindFirst(cs,
 						c -> c.isAnnotationPresent(marker));
 				return marked != null ? marked : self.reflect(type);
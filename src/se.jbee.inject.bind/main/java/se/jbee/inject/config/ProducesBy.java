@@ -20,6 +20,7 @@ import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 import se.jbee.inject.Packages;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 
 /**
@@ -41,7 +42,7 @@ public interface ProducesBy {
 	Method[] reflect(Class<?> impl);
 
 	ProducesBy noMethods = impl -> __noMethods;
-	ProducesBy declaredMethods = ((ProducesBy) Class::getDeclaredMethods).ignoreSynthetic();
+	ProducesBy declaredMethods = ((ProducesBy) impl -> Metadata.of(impl).declaredMethods()).ignoreSynthetic();
 	ProducesBy allMethods = ((ProducesBy) ProducesBy::allMethods).ignoreSynthetic();
 
 	default ProducesBy ignoreStatic() {
@@ -90,7 +91,7 @@ public interface ProducesBy {
 	static Method[] allMethods(Class<?> type) {
 		List<Method> all = new ArrayList<>();
 		while (type != Object.class && type != null) {
-			all.addAll(asList(type.getDeclaredMethods()));
+			all.addAll(asList(Metadata.of(type).declaredMethods()));
 			type = type.getSuperclass();
 		}
 		return all.toArray(__noMethods);
@@ -15,6 +15,7 @@ import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 
 import se.jbee.inject.Packages;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Type;
 
 /**
@@ -41,7 +42,7 @@ public interface SharesBy {
 	Field[] reflect(Class<?> impl);
 
 	SharesBy noFields = impl -> __noFields;
-	SharesBy declaredFields = ((SharesBy) Class::getDeclaredFields).ignoreSynthetic();
+	SharesBy declaredFields = ((SharesBy) impl -> Metadata.of(impl).declaredFields()).ignoreSynthetic();
 	SharesBy allFields = ((SharesBy) SharesBy::allFields).ignoreSynthetic();
 
 	default SharesBy ignoreStatic() {
@@ -90,7 +91,7 @@ public interface SharesBy {
 	static Field[] allFields(Class<?> type) {
 		List<Field> all = new ArrayList<>();
 		while (type != Object.class && type != null) {
-			all.addAll(asList(type.getDeclaredFields()));
+			all.addAll(asList(Metadata.of(type).declaredFields()));
 			type = type.getSuperclass();
 		}
 		return all.toArray(__noFields);
@@ -5,9 +5,12 @@
  */
 package se.jbee.inject.bootstrap;
 
+import static java.util.Arrays.asList;
 import static se.jbee.inject.lang.Utils.arrayOf;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
@@ -29,6 +32,7 @@ import se.jbee.inject.bind.Toggled;
 import se.jbee.inject.config.Edition;
 import se.jbee.inject.container.Container;
 import se.jbee.inject.defaults.DefaultsBundle;
+import se.jbee.inject.lang.Metadata;
 import se.jbee.inject.lang.Utils;
 
 /**
@@ -50,8 +54,12 @@ public final class Bootstrap {
 	@SafeVarargs
 	public static Injector injector(Env env, Bindings bindings,
 			Class<? extends Bundle>... roots) {
-		BuiltinBootstrapper boots = new BuiltinBootstrapper(env);
-		return injector(env, bindings, boots.modulesOf(boots.bundleAll(roots)));
+		try (ClassList classes = ClassList.start(env)) {
+			BuiltinBootstrapper boots = new BuiltinBootstrapper(env);
+			return classes.complete(injector(env, bindings,
+					boots.modulesOf(classes.addAll(boots.bundleAll(roots))),
+					classes));
+		}
 	}
 
 	public static Injector injector(Class<? extends Bundle> root) {
@@ -64,13 +72,96 @@ public final class Bootstrap {
 
 	public static Injector injector(Env env, Class<? extends Bundle> root,
 			Bindings bindings) {
-		return injector(env, bindings, modulariser(env).modularise(root));
+		try (ClassList classes = ClassList.start(env)) {
+			classes.add(root);
+			return classes.complete(injector(env, bindings,
+					modulariser(env).modularise(root), classes));
+		}
 	}
 
 	public static Injector injector(Env env, Bindings bindings,
 			Module[] modules) {
-		return Container.injector(
-				Binding.disambiguate(bindings.declaredFrom(env, modules)));
+		try (ClassList classes = ClassList.start(env)) {
+			return classes.complete(injector(env, bindings, modules, classes));
+		}
+	}
+
+	private static Injector injector(Env env, Bindings bindings,
+			Module[] modules, ClassList classes) {
+		return Container.injector(classes.addAll(Binding.disambiguate(
+				bindings.declaredFrom(Environment.compile(env),
+						classes.addAll(modules)))));
+	}
+
+	/**
+	 * Bootstraps the {@link Injector} of a deferred {@link Bundle}. It falls
+	 * back to the given parent for everything not bound by the {@link Bundle}.
+	 * The defaults are not installed again so that the {@link Env}, scopes and
+	 * other core instances of the parent are used.
+	 *
+	 * @since 19.1
+	 */
+	static Injector injector(Injector parent, Env env,
+			Class<? extends Bundle> root) {
+		Env compiled = Environment.compile(env);
+		try (ClassList classes = ClassList.start(compiled)) {
+			classes.add(root);
+			Module[] modules = new BuiltinBootstrapper(compiled, null,
+					false).modularise(root);
+			return classes.complete(Container.injector(parent,
+					classes.addAll(Binding.disambiguate(Bindings.newBindings() //
+							.declaredFrom(compiled, classes.addAll(modules))))));
+		}
+	}
+
+	/**
+	 * Like {@link #injector(Env, Class)} but the {@link Binding}s of the
+	 * {@link Module}s are restored from the given snapshot file should it
+	 * exist and match the current class- and module-path. Otherwise the
+	 * {@link Binding}s are declared as usual and the snapshot file is
+	 * (re)written.
+	 *
+	 * @param snapshot the file used to store the snapshot
+	 */
+	public static Injector injector(Env env, Class<? extends Bundle> root,
+			Path snapshot) {
+		try (ClassList classes = ClassList.start(env)) {
+			classes.add(root);
+			return classes.complete(Container.injector(
+					classes.addAll(bindings(env, root, snapshot))));
+		}
+	}
+
+	/**
+	 * Bootstraps the {@link Binding}s of the given root {@link Bundle} like
+	 * {@link #bindings(Env, Class, Bindings)} but measures each
+	 * {@link Bundle#bootstrap(Bootstrapper)} and
+	 * {@link Module#declare(Bindings, Env)}. {@link Module}s are always
+	 * declared sequentially.
+	 *
+	 * @return the report of the measurements
+	 */
+	public static Profile profile(Env env, Class<? extends Bundle> root) {
+		Profile profile = new Profile();
+		Env compiled = Environment.compile(env);
+		Metadata.countScans(true);
+		try {
+			BuiltinBootstrapper boots = new BuiltinBootstrapper(compiled,
+					profile);
+			Class<? extends Bundle>[] bundles = boots.bundle(root);
+			Set<Module> declaring = Collections.newSetFromMap(
+					new IdentityHashMap<>());
+			declaring.addAll(
+					asList(Bindings.declaring(boots.modulesOf(bundles))));
+			Bindings bindings = Bindings.newBindings();
+			for (Class<? extends Bundle> bundle : bundles)
+				for (Module module : boots.modulesOf(bundle))
+					if (declaring.contains(module))
+						profile.declare(bundle, module, compiled, bindings);
+		} finally {
+			Metadata.countScans(false);
+		}
+		return profile;
 	}
 
 	public static Modulariser modulariser(Env env) {
@@ -83,8 +174,14 @@ public final class Bootstrap {
 
 	public static Binding<?>[] bindings(Env env, Class<? extends Bundle> root,
 			Bindings bindings) {
+		Env compiled = Environment.compile(env);
 		return Binding.disambiguate(bindings//
-				.declaredFrom(env, modulariser(env).modularise(root)));
+				.declaredFrom(compiled, modulariser(compiled).modularise(root)));
+	}
+
+	public static Binding<?>[] bindings(Env env, Class<? extends Bundle> root,
+			Path snapshot) {
+		return Snapshot.bindings(env, root, snapshot);
 	}
 
 	private Bootstrap() {
@@ -98,17 +195,34 @@ public final class Bootstrap {
 		private final Map<Class<? extends Bundle>, List<Module>> bundleModules = new IdentityHashMap<>();
 		private final Set<Class<? extends Bundle>> uninstalled = new HashSet<>();
 		private final Set<Class<? extends Bundle>> installed = new HashSet<>();
+		private final Set<Class<? extends Bundle>> deferred = new HashSet<>();
 		private final LinkedList<Class<? extends Bundle>> stack = new LinkedList<>();
 		private final Env env;
 		private final Edition edition;
 
+		private final Profile profile;
+		private final boolean defaults;
+
 		BuiltinBootstrapper(Env env) {
-			this.env = env;
-			this.edition = env.property(Edition.class, Env.class.getPackage());
+			this(env, null);
+		}
+
+		BuiltinBootstrapper(Env env, Profile profile) {
+			this(env, profile, true);
+		}
+
+		BuiltinBootstrapper(Env env, Profile profile, boolean defaults) {
+			this.env = Environment.compile(env);
+			this.edition = this.env.property(Edition.class,
+					Env.class.getPackage());
+			this.profile = profile;
+			this.defaults = defaults;
 		}
 
 		@Override
 		public void installDefaults() {
+			if (!defaults)
+				return;
 			install(DefaultsBundle.class);
 			install(InjectorFeature.SUB_CONTEXT_FUNCTION);
 		}
@@ -129,8 +243,12 @@ public final class Bootstrap {
 						key -> new LinkedHashSet<>()).add(bundle);
 			}
 			stack.push(bundle);
+			if (profile != null)
+				profile.enter(bundle);
 			Bundle instance = createBundle(bundle);
 			instance.bootstrap(this);
+			if (profile != null)
+				profile.exit();
 			if (stack.pop() != bundle)
 				throw new IllegalStateException(bundle.getCanonicalName());
 		}
@@ -142,6 +260,20 @@ public final class Bootstrap {
 					e -> new InconsistentDeclaration("Failed to create bundle: " + bundle, e));
 		}
 
+		@Override
+		public void installDeferred(Class<? extends Bundle> bundle,
+				Class<?>... exports) {
+			if (uninstalled.contains(bundle) || installed.contains(bundle)
+				|| deferred.contains(bundle))
+				return;
+			if (!edition.featured(bundle)) {
+				uninstalled.add(bundle);
+				return;
+			}
+			deferred.add(bundle);
+			install(new DeferredModule(env, bundle, exports));
+		}
+
 		@Override
 		public <F extends Enum<F>> void install(
 				Class<? extends Toggled<F>> bundle, final Class<F> flags) {
@@ -216,7 +348,8 @@ public final class Bootstrap {
 			return arrayOf(newlyInstalled, Class.class);
 		}
 
-		final Module[] modulesOf(Class<? extends Bundle>[] bundles) {
+		@SafeVarargs
+		final Module[] modulesOf(Class<? extends Bundle>... bundles) {
 			List<Module> newlyInstalled = new ArrayList<>(bundles.length);
 			for (Class<? extends Bundle> b : bundles) {
 				List<Module> modules = bundleModules.get(b);
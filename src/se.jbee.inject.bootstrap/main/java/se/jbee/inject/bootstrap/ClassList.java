@@ -0,0 +1,188 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import static se.jbee.inject.lang.Type.raw;
+
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import se.jbee.inject.Annotated;
+import se.jbee.inject.Env;
+import se.jbee.inject.InconsistentDeclaration;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.bind.Module;
+
+/**
+ * Records the classes loaded while an {@link se.jbee.inject.Injector} is
+ * bootstrapped (including the eager initialisation of its instances) and
+ * writes them to the file given by {@link Env#GP_CLASS_LIST} in the format
+ * expected by {@code -XX:SharedClassListFile} when dumping a CDS archive.
+ *
+ * The loaded classes are recorded using a JFR {@code jdk.ClassLoad} recording
+ * when JFR is available (on the module-path this requires
+ * {@code --add-modules jdk.jfr}). The classes of the root bundles, modules and bindings
+ * are always added since they might have been loaded before the bootstrap
+ * started. Classes that cannot be archived, like lambdas and other hidden
+ * classes, are not included.
+ *
+ * As the recording itself is costly this is meant to be used in a training run
+ * only.
+ *
+ * @since 19.1
+ */
+final class ClassList implements AutoCloseable {
+
+	private static final ClassList NONE = new ClassList(null, null);
+
+	static ClassList start(Env env) {
+		Path file = env.globalProperty(Env.GP_CLASS_LIST, raw(Path.class),
+				null);
+		return file == null ? NONE : new ClassList(file, startRecording());
+	}
+
+	private final Path file;
+	private final Object recording;
+	private final Set<String> names = new TreeSet<>();
+	private boolean completed;
+
+	private ClassList(Path file, Object recording) {
+		this.file = file;
+		this.recording = recording;
+	}
+
+	Class<? extends Bundle>[] addAll(Class<? extends Bundle>[] bundles) {
+		if (this != NONE)
+			for (Class<? extends Bundle> bundle : bundles)
+				add(bundle);
+		return bundles;
+	}
+
+	Module[] addAll(Module[] modules) {
+		if (this != NONE)
+			for (Module module : modules)
+				add(module.getClass());
+		return modules;
+	}
+
+	Binding<?>[] addAll(Binding<?>[] bindings) {
+		if (this != NONE)
+			for (Binding<?> b : bindings) {
+				add(b.type().rawType);
+				add(b.supplier.getClass());
+				if (b.supplier instanceof Annotated) {
+					AnnotatedElement member = ((Annotated) b.supplier).element();
+					if (member instanceof Member)
+						add(((Member) member).getDeclaringClass());
+				}
+			}
+		return bindings;
+	}
+
+	void add(Class<?> type) {
+		if (this != NONE)
+			add(type.getName());
+	}
+
+	/**
+	 * Marks the bootstrap as successful so that the recorded classes are
+	 * written when the recording is closed.
+	 */
+	<T> T complete(T injector) {
+		completed = true;
+		return injector;
+	}
+
+	@Override
+	public void close() {
+		if (this == NONE)
+			return;
+		if (recording != null)
+			stopRecording();
+		if (completed)
+			write();
+	}
+
+	private void add(String name) {
+		// lambdas and other hidden classes cannot be listed
+		if (name.startsWith("[") || name.contains("$$Lambda")
+			|| name.contains("+0x") || name.contains("/")
+			|| name.startsWith("jdk.jfr."))
+			return;
+		names.add(name.replace('.', '/'));
+	}
+
+	private void write() {
+		StringBuilder list = new StringBuilder();
+		for (String name : names)
+			list.append(name).append('\n');
+		try {
+			Path dir = file.toAbsolutePath().getParent();
+			if (dir != null)
+				Files.createDirectories(dir);
+			Files.write(file, list.toString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			throw new InconsistentDeclaration(
+					"Failed to write class list: " + file, e);
+		}
+	}
+
+	/*
+	 * JFR is accessed reflectively as it is not part of every (Java 8) JRE
+	 */
+
+	private static Object startRecording() {
+		try {
+			Class<?> recording = Class.forName("jdk.jfr.Recording");
+			Object res = recording.getConstructor().newInstance();
+			Object settings = recording.getMethod("enable", String.class) //
+					.invoke(res, "jdk.ClassLoad");
+			Class.forName("jdk.jfr.EventSettings") //
+					.getMethod("withoutThreshold").invoke(settings);
+			recording.getMethod("start").invoke(res);
+			return res;
+		} catch (Exception | LinkageError e) {
+			return null; // only the known classes are listed
+		}
+	}
+
+	private void stopRecording() {
+		Path dump = null;
+		try {
+			Class<?> type = Class.forName("jdk.jfr.Recording");
+			type.getMethod("stop").invoke(recording);
+			dump = Files.createTempFile("purejin-classes", ".jfr");
+			type.getMethod("dump", Path.class).invoke(recording, dump);
+			type.getMethod("close").invoke(recording);
+			List<?> events = (List<?>) Class.forName(
+					"jdk.jfr.consumer.RecordingFile") //
+					.getMethod("readAllEvents", Path.class).invoke(null, dump);
+			Method value = Class.forName("jdk.jfr.consumer.RecordedObject") //
+					.getMethod("getValue", String.class);
+			Method name = Class.forName("jdk.jfr.consumer.RecordedClass") //
+					.getMethod("getName");
+			for (Object event : events) {
+				Object loaded = value.invoke(event, "loadedClass");
+				if (loaded != null)
+					add((String) name.invoke(loaded));
+			}
+		} catch (Exception | LinkageError e) {
+			// only the known classes are listed
+		} finally {
+			if (dump != null)
+				dump.toFile().delete();
+		}
+	}
+}
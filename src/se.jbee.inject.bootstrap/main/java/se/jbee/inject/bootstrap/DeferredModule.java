@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Env;
+import se.jbee.inject.Generator;
+import se.jbee.inject.InconsistentDeclaration;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Name;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Supplier;
+import se.jbee.inject.UnresolvableDependency;
+import se.jbee.inject.bind.Bootstrapper;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.binder.BinderModule;
+
+/**
+ * Binds the types exported by a {@link Bundle} installed with
+ * {@link Bootstrapper#installDeferred(Class, Class...)}.
+ *
+ * The {@link Bundle} is bootstrapped into its own {@link Injector} when one of
+ * the exported types is resolved the first time. That {@link Injector} falls
+ * back to the context the exports are bound in so the deferred
+ * {@link Bundle} can use everything that is not deferred. Once bootstrapped
+ * all threads resolve the exports from the same {@link Injector}.
+ *
+ * The exports are bound to this module as {@link Generator} so that the
+ * {@link Dependency} is passed on to the deferred {@link Injector} as it was
+ * resolved from the context they are bound in. This allows the deferred
+ * {@link Bundle} to bind its exports targeted.
+ *
+ * @since 19.1
+ */
+final class DeferredModule extends BinderModule
+		implements Supplier<Object>, Generator<Object> {
+
+	private final Env env;
+	private final Class<? extends Bundle> bundle;
+	private final Class<?>[] exports;
+
+	private volatile Injector parent;
+	private volatile Injector context;
+	private boolean bootstrapping;
+
+	DeferredModule(Env env, Class<? extends Bundle> bundle,
+			Class<?>[] exports) {
+		this.env = env;
+		this.bundle = bundle;
+		this.exports = exports;
+	}
+
+	@Override
+	protected void declare() {
+		for (Class<?> export : exports)
+			export(export);
+		initbind().to((injector, context) -> {
+			parent = injector;
+			return injector;
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> void export(Class<T> type) {
+		per(Scope.reference).bind(Name.ANY, type) //
+				.toSupplier((Supplier<T>) (Supplier<?>) this);
+	}
+
+	@Override
+	public Object supply(Dependency<? super Object> dep, Injector context)
+			throws UnresolvableDependency {
+		return deferred(context).resolve(dep);
+	}
+
+	@Override
+	public Object generate(Dependency<? super Object> dep)
+			throws UnresolvableDependency {
+		return deferred(parent).resolve(dep);
+	}
+
+	private Injector deferred(Injector parent) {
+		Injector res = context;
+		if (res != null)
+			return res;
+		synchronized (this) {
+			if (context == null) {
+				if (bootstrapping)
+					throw new InconsistentDeclaration(
+							"Deferred bundle depends on its own exports while it is bootstrapped: "
+								+ bundle.getName());
+				bootstrapping = true;
+				try {
+					context = Bootstrap.injector(parent, env, bundle);
+				} finally {
+					bootstrapping = false;
+				}
+			}
+			return context;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "deferred " + bundle.getSimpleName();
+	}
+}
@@ -7,6 +7,7 @@ import static se.jbee.inject.lang.Type.raw;
 import java.lang.annotation.Annotation;
 import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import se.jbee.inject.*;
 import se.jbee.inject.config.*;
@@ -49,16 +50,40 @@ public final class Environment implements Env {
 			.with(Env.GP_USE_DEEP_REFLECTION, boolean.class, false) //
 			.with(Env.GP_DEEP_REFLECTION_PACKAGES, Packages.class, Packages.ALL) //
 			.with(Env.GP_USE_VERIFICATION, boolean.class, false) //
-			.readonly();
+			.with(Env.GP_USE_PARALLEL_DECLARATION, boolean.class, false) //
+			.with(Env.GP_USE_RUNTIME_CHECKS, boolean.class, false) //
+			.compile();
 
 	public static Environment override(Env overridden) {
 		return new Environment(false, new HashMap<>(), true, overridden);
 	}
 
+	/**
+	 * @return the given {@link Env} if it already is compiled, otherwise a
+	 *         {@link #compile()}d {@link Environment} of it
+	 */
+	public static Env compile(Env env) {
+		if (env instanceof Environment) {
+			Environment e = (Environment) env;
+			return e.memo != null ? e : e.compile();
+		}
+		return override(env).compile();
+	}
+
+	/**
+	 * Marks a property that is known to be undefined.
+	 */
+	private static final Object UNDEFINED = new Object();
+	/**
+	 * Marks a property that is known to be defined as null.
+	 */
+	private static final Object NULL = new Object();
+
 	private final boolean readonly;
 	private final HashMap<Instance<?>, Object> values;
 	private final boolean override;
 	private final Env decorated;
+	private final ConcurrentHashMap<Key, Object> memo;
 
 	public Environment() {
 		this(false, new HashMap<>(), true, null);
@@ -66,18 +91,42 @@ public final class Environment implements Env {
 
 	private Environment(boolean sealed, HashMap<Instance<?>, Object> values,
 			boolean override, Env decorated) {
+		this(sealed, values, override, decorated, null);
+	}
+
+	private Environment(boolean sealed, HashMap<Instance<?>, Object> values,
+			boolean override, Env decorated,
+			ConcurrentHashMap<Key, Object> memo) {
 		this.readonly = sealed;
 		this.values = values;
 		this.override = override;
 		this.decorated = decorated;
+		this.memo = memo;
+	}
+
+	/**
+	 * Creates an immutable snapshot of this {@link Environment} that memorises
+	 * the outcome of each property lookup by name, type and package. This
+	 * assumes that the values of a decorated {@link Env} do not change. Once
+	 * known undefined properties are not again looked up in the decorated
+	 * {@link Env}.
+	 *
+	 * @return a readonly {@link Environment} with memorised lookup
+	 */
+	public Environment compile() {
+		return new Environment(true, copyOfValues(), override, decorated,
+				new ConcurrentHashMap<>());
 	}
 
 	public Environment readonly() {
-		return new Environment(true, values, override, decorated);
+		return new Environment(true, values, override, decorated, memo);
 	}
 
 	public Environment complete(Env completed) {
-		return new Environment(readonly, values, false, completed);
+		return memo == null
+			? new Environment(readonly, values, false, completed)
+			: new Environment(true, values, false, completed,
+					new ConcurrentHashMap<>());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -88,20 +137,61 @@ public final class Environment implements Env {
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> T property(Name name, Type<T> property, Package scope) {
+		Object value = valueOf(name, property, scope);
+		if (value == UNDEFINED)
+			throw InconsistentBinding.undefinedEnvProperty(name, property,
+					scope);
+		return value == NULL ? null : (T) value;
+	}
+
+	/**
+	 * @return the masked value of the property or {@link #UNDEFINED}
+	 */
+	private Object valueOf(Name name, Type<?> property, Package scope) {
+		// the values map itself is as fast as a memo
+		if (memo == null || decorated == null)
+			return lookup(name, property, scope);
+		Key key = new Key(name, property, scope);
+		Object value = memo.get(key);
+		if (value == null) {
+			value = lookup(name, property, scope);
+			memo.putIfAbsent(key, value);
+		}
+		return value;
+	}
+
+	private Object lookup(Name name, Type<?> property, Package scope) {
 		if (decorated != null && !override) {
-			try {
-				return decorated.property(name, property, scope);
-			} catch (InconsistentDeclaration e) {
-				// fall through and complement...
-			}
+			Object value = valueOf(decorated, name, property, scope);
+			if (value != UNDEFINED)
+				return value;
 		}
-		Instance<T> key = instance(name, property);
+		Instance<?> key = instance(name, property);
 		Object value = values.get(key);
 		if (value != null || values.containsKey(key))
-			return (T) value;
+			return maskNull(value);
 		if (decorated != null && override)
-			return decorated.property(name, property, scope);
-		throw InconsistentBinding.undefinedEnvProperty(name, property, scope);
+			return valueOf(decorated, name, property, scope);
+		return UNDEFINED;
+	}
+
+	/**
+	 * Decorated {@link Environment}s are asked directly so that an undefined
+	 * property does not throw an exception that is just caught again.
+	 */
+	private static Object valueOf(Env env, Name name, Type<?> property,
+			Package scope) {
+		if (env instanceof Environment)
+			return ((Environment) env).valueOf(name, property, scope);
+		try {
+			return maskNull(env.property(name, property, scope));
+		} catch (InconsistentDeclaration e) {
+			return UNDEFINED;
+		}
+	}
+
+	private static Object maskNull(Object value) {
+		return value == null ? NULL : value;
 	}
 
 	public <T> Environment with(Class<T> property, T value) {
@@ -154,6 +244,39 @@ public final class Environment implements Env {
 		return res;
 	}
 
+	/**
+	 * The key of a memorised property lookup.
+	 */
+	private static final class Key {
+
+		final Name name;
+		final Type<?> property;
+		final Package scope;
+		final int hash;
+
+		Key(Name name, Type<?> property, Package scope) {
+			this.name = name;
+			this.property = property;
+			this.scope = scope;
+			this.hash = (name.hashCode() * 31 + property.hashCode()) * 31
+				+ System.identityHashCode(scope);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && scope == other.scope
+				&& name.equalTo(other.name) && property.equalTo(other.property);
+		}
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder str = new StringBuilder();
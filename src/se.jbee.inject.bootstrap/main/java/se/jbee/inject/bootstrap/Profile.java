@@ -0,0 +1,233 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import se.jbee.inject.Env;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.bind.Module;
+import se.jbee.inject.lang.Metadata;
+
+/**
+ * A {@link Profile} is the report of a profiled bootstrapping created by
+ * {@link Bootstrap#profile(Env, Class)}.
+ *
+ * It records the wall time, the number of {@link se.jbee.inject.bind.Binding}s
+ * and the number of reflective lookups ({@link Metadata#scans()}) for each
+ * {@link Bundle#bootstrap(se.jbee.inject.bind.Bootstrapper)} and
+ * {@link Module#declare(Bindings, Env)} organised in the tree of
+ * {@link Bundle}s that installed them.
+ *
+ * @since 19.1
+ */
+public final class Profile {
+
+	/**
+	 * The measurements for a {@link Bundle} or a {@link Module}. The values of
+	 * a {@link Bundle} itself do not include the values of the {@link Bundle}s
+	 * it installed and the {@link Module}s it declared. These are included in
+	 * the totals.
+	 */
+	public static final class Entry {
+
+		public final Class<?> type;
+		public final Entry parent;
+		private final boolean bundle;
+		final List<Entry> children = new ArrayList<>();
+		long nanos;
+		int bindings;
+		long scans;
+
+		Entry(Class<?> type, Entry parent, boolean bundle) {
+			this.type = type;
+			this.parent = parent;
+			this.bundle = bundle;
+		}
+
+		/**
+		 * @return true if this is the entry of a {@link Bundle}, false if it is
+		 *         the entry of a {@link Module}. A
+		 *         {@link se.jbee.inject.binder.BinderModule} has both.
+		 */
+		public boolean isBundle() {
+			return bundle;
+		}
+
+		public Entry[] children() {
+			return children.toArray(new Entry[0]);
+		}
+
+		public long nanos() {
+			return nanos;
+		}
+
+		public int bindings() {
+			return bindings;
+		}
+
+		public long scans() {
+			return scans;
+		}
+
+		public long totalNanos() {
+			long res = nanos;
+			for (Entry e : children)
+				res += e.totalNanos();
+			return res;
+		}
+
+		public int totalBindings() {
+			int res = bindings;
+			for (Entry e : children)
+				res += e.totalBindings();
+			return res;
+		}
+
+		public long totalScans() {
+			long res = scans;
+			for (Entry e : children)
+				res += e.totalScans();
+			return res;
+		}
+
+		@Override
+		public String toString() {
+			return format(this, "");
+		}
+	}
+
+	private final List<Entry> roots = new ArrayList<>();
+	private final Map<Class<?>, Entry> bundles = new IdentityHashMap<>();
+	private final LinkedList<Entry> stack = new LinkedList<>();
+	private final LinkedList<long[]> started = new LinkedList<>();
+
+	Profile() {
+		// created by Bootstrap
+	}
+
+	/**
+	 * @return the root {@link Bundle}s
+	 */
+	public Entry[] roots() {
+		return roots.toArray(new Entry[0]);
+	}
+
+	/**
+	 * @return all {@link Bundle} and {@link Module} entries sorted by their own
+	 *         (not total) time, most costly first
+	 */
+	public Entry[] entries() {
+		List<Entry> res = new ArrayList<>();
+		for (Entry root : roots)
+			addAll(root, res);
+		Entry[] sorted = res.toArray(new Entry[0]);
+		Arrays.sort(sorted, (a, b) -> Long.compare(b.nanos, a.nanos));
+		return sorted;
+	}
+
+	public long totalNanos() {
+		long res = 0;
+		for (Entry root : roots)
+			res += root.totalNanos();
+		return res;
+	}
+
+	public int totalBindings() {
+		int res = 0;
+		for (Entry root : roots)
+			res += root.totalBindings();
+		return res;
+	}
+
+	private static void addAll(Entry e, List<Entry> accu) {
+		accu.add(e);
+		for (Entry c : e.children)
+			addAll(c, accu);
+	}
+
+	void enter(Class<? extends Bundle> bundle) {
+		Entry parent = stack.peek();
+		Entry e = new Entry(bundle, parent, true);
+		if (parent == null) {
+			roots.add(e);
+		} else {
+			parent.children.add(e);
+			pause(parent);
+		}
+		bundles.put(bundle, e);
+		stack.push(e);
+		started.push(new long[] { System.nanoTime(), Metadata.scans() });
+	}
+
+	void exit() {
+		Entry e = stack.pop();
+		stop(e, started.pop());
+		if (!stack.isEmpty())
+			started.push(resume(started.pop()));
+	}
+
+	void declare(Class<? extends Bundle> bundle, Module module, Env env,
+			Bindings bindings) {
+		Entry e = new Entry(module.getClass(), bundles.get(bundle), false);
+		e.parent.children.add(e);
+		Bindings declared = Bindings.newBindings();
+		long[] start = { System.nanoTime(), Metadata.scans() };
+		module.declare(declared, env);
+		stop(e, start);
+		e.bindings = declared.toArray().length;
+		bindings.addAll(declared);
+	}
+
+	private void pause(Entry parent) {
+		stop(parent, started.peek());
+	}
+
+	private static long[] resume(long[] start) {
+		start[0] = System.nanoTime();
+		start[1] = Metadata.scans();
+		return start;
+	}
+
+	private static void stop(Entry e, long[] start) {
+		e.nanos += System.nanoTime() - start[0];
+		e.scans += Metadata.scans() - start[1];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder str = new StringBuilder();
+		str.append(String.format("%8.3f ms %5d bindings total%n",
+				totalNanos() / 1000_000d, totalBindings()));
+		for (Entry root : roots)
+			appendTree(str, root, 0);
+		return str.toString();
+	}
+
+	private static void appendTree(StringBuilder str, Entry e, int depth) {
+		str.append(format(e, indent(depth))).append('\n');
+		for (Entry c : e.children)
+			appendTree(str, c, depth + 1);
+	}
+
+	private static String format(Entry e, String indent) {
+		return String.format("%8.3f ms %5d bindings %5d scans  %s%s %s",
+				e.totalNanos() / 1000_000d, e.totalBindings(), e.totalScans(),
+				indent, e.isBundle() ? "bundle" : "module", e.type.getName());
+	}
+
+	private static String indent(int depth) {
+		char[] indent = new char[depth * 2];
+		Arrays.fill(indent, ' ');
+		return new String(indent);
+	}
+}
@@ -0,0 +1,488 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.bootstrap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import se.jbee.inject.Env;
+import se.jbee.inject.InconsistentDeclaration;
+import se.jbee.inject.Name;
+import se.jbee.inject.Locator;
+import se.jbee.inject.Packages;
+import se.jbee.inject.ResourceDescriptor;
+import se.jbee.inject.Source;
+import se.jbee.inject.Supplier;
+import se.jbee.inject.Verifier;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.BindingType;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.bind.Module;
+import se.jbee.inject.lang.Type;
+import se.jbee.inject.lang.Utils;
+
+/**
+ * A {@link Snapshot} is a file that contains the {@link Binding}s declared by
+ * the {@link Module}s of a root {@link Bundle} so that a restart does not need
+ * to run the {@link Module#declare(Bindings, Env)} and the
+ * {@link se.jbee.inject.bind.ValueBinder} expansion again.
+ *
+ * A {@link Module} is restored from the file when all of its {@link Binding}s
+ * could be serialised. These are bindings to constructors, methods and fields
+ * (referenced by signature), to serialisable constants and to references.
+ * Other {@link Module}s, for example those binding lambdas, are declared again
+ * on each start. So are {@link Module}s with state as their {@link Binding}s
+ * might depend on it.
+ *
+ * The file is keyed by a {@link #fingerprint(Class, Module[])} of the class-
+ * and module-path and the declared {@link Module} classes. Should it not match
+ * the file is replaced. In addition each {@link Module} is only restored if
+ * the {@link Env} properties it looked up during declaration still have the
+ * same values. A {@link Module} that looked up properties with values that
+ * cannot be compared between starts is not restored.
+ *
+ * Reading the file only resolves classes that are {@link #isRestorable(Class)}
+ * so that it cannot make other classes run their deserialisation. As a
+ * {@link Class} value cannot be told apart from an instance of that class this
+ * also limits the types that can be referenced. {@link Module}s with
+ * {@link Binding}s that refer to other classes are not written to the file in
+ * the first place.
+ *
+ * The {@link Module}s are still expanded from the root {@link Bundle} on each
+ * start and the {@link Binding}s are disambiguated again. The file just saves
+ * the declaration of the restored {@link Module}s.
+ *
+ * @since 19.1
+ */
+final class Snapshot {
+
+	private static final String FORMAT = "purejin-snapshot-2";
+
+	/**
+	 * Description of a property value that cannot be compared between starts
+	 */
+	private static final String UNKNOWN = null;
+	private static final String UNDEFINED = "undefined";
+
+	private Snapshot() {
+		throw new UnsupportedOperationException("util");
+	}
+
+	static Binding<?>[] bindings(Env declaring, Class<? extends Bundle> root,
+			Path file) {
+		Env env = Environment.compile(declaring);
+		Module[] modules = Bindings.declaring(
+				Bootstrap.modulariser(env).modularise(root));
+		String fingerprint = fingerprint(root, modules);
+		Module[] restored = read(file, fingerprint, modules, env);
+		if (restored != null) {
+			try {
+				return Binding.disambiguate(
+						Bindings.newBindings().declaredFrom(env, restored));
+			} catch (RuntimeException e) {
+				// restored bindings are not usable, bootstrap as usual
+			}
+		}
+		Bindings bindings = Bindings.newBindings();
+		byte[][] frozen = new byte[modules.length][];
+		for (int i = 0; i < modules.length; i++) {
+			Bindings declared = Bindings.newBindings();
+			Lookups lookups = new Lookups(env);
+			modules[i].declare(declared, lookups);
+			bindings.addAll(declared);
+			frozen[i] = Utils.isClassMonomodal(modules[i].getClass())
+				? freeze(lookups, declared.toArray())
+				: null;
+		}
+		Binding<?>[] res = Binding.disambiguate(bindings.toArray());
+		write(file, fingerprint, frozen);
+		return res;
+	}
+
+	/**
+	 * @return a hash of the class- and module-path entries (their names, sizes
+	 *         and modification times) as well as the root {@link Bundle} and
+	 *         the declared {@link Module} classes.
+	 */
+	static String fingerprint(Class<? extends Bundle> root, Module[] modules) {
+		StringBuilder key = new StringBuilder();
+		key.append(root.getName());
+		for (Module m : modules)
+			key.append(';').append(m.getClass().getName());
+		appendClassFile(key, root);
+		for (Module m : modules)
+			appendClassFile(key, m.getClass());
+		appendPath(key, System.getProperty("java.class.path"));
+		appendPath(key, System.getProperty("jdk.module.path"));
+		try {
+			MessageDigest sha = MessageDigest.getInstance("SHA-256");
+			StringBuilder hex = new StringBuilder();
+			for (byte b : sha.digest(
+					key.toString().getBytes(StandardCharsets.UTF_8)))
+				hex.append(String.format("%02x", b));
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			return Integer.toHexString(key.toString().hashCode());
+		}
+	}
+
+	private static void appendPath(StringBuilder key, String path) {
+		if (path == null || path.isEmpty())
+			return;
+		for (String entry : path.split(File.pathSeparator))
+			appendFile(key, new File(entry));
+	}
+
+	private static void appendFile(StringBuilder key, File file) {
+		key.append('\n').append(file.getPath()).append(':').append(
+				file.lastModified()).append(':').append(file.length());
+	}
+
+	/**
+	 * Directories on the path are not walked. As their metadata does not
+	 * change when a class within is recompiled the class files of the
+	 * {@link Bundle} and {@link Module}s are added individually. Classes
+	 * within a jar are covered by the jar's metadata.
+	 */
+	private static void appendClassFile(StringBuilder key, Class<?> cls) {
+		String name = cls.getName();
+		URL url = cls.getResource(
+				name.substring(name.lastIndexOf('.') + 1) + ".class");
+		if (url == null || !"file".equals(url.getProtocol()))
+			return;
+		try {
+			appendFile(key, new File(url.toURI()));
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			key.append('\n').append(url);
+		}
+	}
+
+	/**
+	 * @return true if the given class can be resolved when reading a snapshot.
+	 *         That are classes that cannot be instantiated by deserialisation,
+	 *         enums and classes of this library or the {@code java.lang}
+	 *         package (but not its sub-packages).
+	 */
+	private static boolean isRestorable(Class<?> cls) {
+		while (cls.isArray())
+			cls = cls.getComponentType();
+		if (cls.isPrimitive() || cls.isEnum()
+			|| !Serializable.class.isAssignableFrom(cls))
+			return true;
+		String name = cls.getName();
+		return name.startsWith("se.jbee.inject.")
+			|| name.lastIndexOf('.') == "java.lang".length()
+				&& name.startsWith("java.lang.");
+	}
+
+	/**
+	 * @return the serialised form of the given {@link Binding}s or null if
+	 *         any of them cannot be restored from the serialised form
+	 */
+	private static byte[] freeze(Lookups lookups, Binding<?>[] bindings) {
+		if (lookups.values.containsValue(UNKNOWN))
+			return null;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new SnapshotOutputStream(bytes)) {
+			out.writeInt(lookups.values.size());
+			for (Map.Entry<Lookup, String> e : lookups.values.entrySet()) {
+				Lookup lookup = e.getKey();
+				out.writeObject(lookup.name);
+				out.writeObject(lookup.property);
+				out.writeObject(lookup.scope);
+				out.writeUTF(e.getValue());
+			}
+			out.writeInt(bindings.length);
+			for (Binding<?> b : bindings) {
+				if (b.verifier != Verifier.AOK
+					|| b.annotations != ResourceDescriptor.annotatedOf(
+							b.supplier))
+					return null;
+				out.writeObject(b.signature);
+				out.writeObject(b.type);
+				out.writeObject(b.supplier);
+				out.writeObject(b.scope);
+				out.writeObject(b.source);
+			}
+		} catch (IOException e) {
+			return null; // not serialisable
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return the restored {@link Module} or null if the {@link Env} property
+	 *         values it was declared with changed
+	 */
+	@SuppressWarnings("unchecked")
+	private static Module thaw(byte[] frozen, Env env)
+			throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new SnapshotInputStream(
+				new ByteArrayInputStream(frozen))) {
+			int lookups = in.readInt();
+			for (int i = 0; i < lookups; i++) {
+				Lookup lookup = new Lookup((Name) in.readObject(),
+						(Type<?>) in.readObject(), (String) in.readObject());
+				if (!in.readUTF().equals(lookup.describe(env)))
+					return null;
+			}
+			Binding<?>[] bindings = new Binding<?>[in.readInt()];
+			for (int i = 0; i < bindings.length; i++)
+				bindings[i] = Binding.binding((Locator<Object>) in.readObject(),
+						(BindingType) in.readObject(),
+						(Supplier<Object>) in.readObject(),
+						(Name) in.readObject(), (Source) in.readObject());
+			return new RestoredModule(bindings);
+		}
+	}
+
+	private static Module[] read(Path file, String fingerprint,
+			Module[] modules, Env env) {
+		if (!Files.isRegularFile(file))
+			return null;
+		try (InputStream is = Files.newInputStream(file);
+				ObjectInputStream in = new SnapshotInputStream(is)) {
+			if (!FORMAT.equals(in.readUTF())
+				|| !fingerprint.equals(in.readUTF())
+				|| in.readInt() != modules.length)
+				return null;
+			Module[] res = modules.clone();
+			for (int i = 0; i < res.length; i++) {
+				byte[] frozen = (byte[]) in.readObject();
+				if (frozen != null) {
+					try {
+						Module thawed = thaw(frozen, env);
+						if (thawed != null)
+							res[i] = thawed;
+					} catch (IOException | ClassNotFoundException
+							| RuntimeException e) {
+						// declare the module again
+					}
+				}
+			}
+			return res;
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			return null; // stale or corrupt, bootstrap as usual
+		}
+	}
+
+	private static void write(Path file, String fingerprint,
+			byte[][] frozen) {
+		Path tmp = null;
+		try {
+			Path dir = file.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			tmp = Files.createTempFile(dir, file.getFileName().toString(),
+					".tmp");
+			try (OutputStream os = Files.newOutputStream(tmp);
+					ObjectOutputStream out = new ObjectOutputStream(os)) {
+				out.writeUTF(FORMAT);
+				out.writeUTF(fingerprint);
+				out.writeInt(frozen.length);
+				for (byte[] module : frozen)
+					out.writeObject(module);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			// a snapshot is just an optimisation, next start tries again
+			if (tmp != null)
+				tmp.toFile().delete();
+		}
+	}
+
+	/**
+	 * Refuses to write classes that a {@link SnapshotInputStream} would not
+	 * restore so that such {@link Module}s are declared on each start.
+	 */
+	private static final class SnapshotOutputStream extends ObjectOutputStream {
+
+		SnapshotOutputStream(OutputStream out) throws IOException {
+			super(out);
+		}
+
+		@Override
+		protected void annotateClass(Class<?> cl) throws IOException {
+			if (!isRestorable(cl))
+				throw new NotSerializableException(cl.getName());
+		}
+
+		@Override
+		protected void annotateProxyClass(Class<?> cl) throws IOException {
+			throw new NotSerializableException(cl.getName());
+		}
+	}
+
+	/**
+	 * Only resolves classes that are {@link #isRestorable(Class)} so that a
+	 * snapshot file cannot make other classes run their deserialisation.
+	 */
+	private static final class SnapshotInputStream extends ObjectInputStream {
+
+		SnapshotInputStream(InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc)
+				throws IOException, ClassNotFoundException {
+			Class<?> cl = super.resolveClass(desc);
+			if (!isRestorable(cl))
+				throw new InvalidClassException(cl.getName(),
+						"not restorable from a snapshot");
+			return cl;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces)
+				throws IOException {
+			throw new InvalidClassException("proxy",
+					"not restorable from a snapshot");
+		}
+	}
+
+	/**
+	 * An {@link Env} that remembers the properties looked up through it by a
+	 * description of their values.
+	 */
+	private static final class Lookups implements Env {
+
+		final Env env;
+		final Map<Lookup, String> values = new LinkedHashMap<>();
+
+		Lookups(Env env) {
+			this.env = env;
+		}
+
+		@Override
+		public <T> T property(Name name, Type<T> property, Package scope)
+				throws InconsistentDeclaration {
+			Lookup lookup = new Lookup(name, property,
+					scope == null ? null : scope.getName());
+			try {
+				T value = env.property(name, property, scope);
+				values.putIfAbsent(lookup, lookup.describe(value, scope));
+				return value;
+			} catch (InconsistentDeclaration e) {
+				values.putIfAbsent(lookup, UNDEFINED);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * A property looked up in an {@link Env}.
+	 */
+	private static final class Lookup {
+
+		final Name name;
+		final Type<?> property;
+		final String scope;
+
+		Lookup(Name name, Type<?> property, String scope) {
+			this.name = name;
+			this.property = property;
+			this.scope = scope;
+		}
+
+		@SuppressWarnings("deprecation")
+		String describe(Env env) {
+			Package pkg = scope == null ? null : Package.getPackage(scope);
+			if (scope != null && pkg == null)
+				return UNKNOWN;
+			try {
+				return describe(env.property(name, property, pkg), pkg);
+			} catch (InconsistentDeclaration e) {
+				return UNDEFINED;
+			}
+		}
+
+		/**
+		 * @return a description of the value that is equal between starts for
+		 *         equal values or {@link #UNKNOWN}
+		 */
+		String describe(Object value, Package pkg) {
+			if (value == null)
+				return "null";
+			if (value instanceof String || value instanceof Boolean
+				|| value instanceof Character || value instanceof Integer
+				|| value instanceof Long || value instanceof Short
+				|| value instanceof Byte || value instanceof Double
+				|| value instanceof Float || value instanceof Name
+				|| value instanceof Type || value instanceof Packages
+				|| value instanceof Path)
+				return value.getClass().getName() + ":" + value;
+			if (value instanceof Enum)
+				return value.getClass().getName() + ":"
+					+ ((Enum<?>) value).name();
+			if (value instanceof Class)
+				return "class:" + ((Class<?>) value).getName();
+			try {
+				// strategies of the default are the same for each start
+				if (value == Environment.DEFAULT.property(name, property, pkg))
+					return "default";
+			} catch (InconsistentDeclaration e) {
+				// not a default
+			}
+			return UNKNOWN;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Lookup))
+				return false;
+			Lookup other = (Lookup) obj;
+			return name.equalTo(other.name) && property.equalTo(other.property)
+				&& (scope == null
+					? other.scope == null
+					: scope.equals(other.scope));
+		}
+
+		@Override
+		public int hashCode() {
+			return name.hashCode() ^ property.hashCode();
+		}
+	}
+
+	/**
+	 * A {@link Module} that declares the {@link Binding}s restored from a
+	 * {@link Snapshot}. As it has state it is multimodal.
+	 */
+	private static final class RestoredModule implements Module {
+
+		private final Binding<?>[] bindings;
+
+		RestoredModule(Binding<?>[] bindings) {
+			this.bindings = bindings;
+		}
+
+		@Override
+		public void declare(Bindings bindings, Env env) {
+			for (Binding<?> b : this.bindings)
+				bindings.add(env, b);
+		}
+	}
+}
@@ -68,8 +68,8 @@ public final class DefaultScopes extends BinderModule
 		bindScope(Scope.jvm).to(TypeDependentScope.JVM);
 		bindScope(Scope.worker).to(WorkerScope.class);
 		per(Scope.worker).bind(
-				Scope.Controller.forScope(Scope.worker)).toGenerator(
-						gen -> null); // dummy generator as the scope will supply
+				Scope.Controller.forScope(Scope.worker)).toSupplier(
+						(dep, context) -> null); // dummy supplier as the scope will supply
 
 		bindScope(Scope.dependency).to(() -> new TypeDependentScope(
 				TypeDependentScope::hierarchicalInstanceSignature));
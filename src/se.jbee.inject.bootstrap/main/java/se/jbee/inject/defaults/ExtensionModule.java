@@ -7,6 +7,7 @@ import java.lang.reflect.Constructor;
 
 import se.jbee.inject.*;
 import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.New;
 import se.jbee.inject.binder.Supply;
 import se.jbee.inject.config.ConstructsBy;
 import se.jbee.inject.config.Extension;
@@ -39,10 +40,9 @@ class ExtensionModule extends BinderModule {
 	@SuppressWarnings("unchecked")
 	private static <T> T extension(ConstructsBy constructsBy, Dependency<?> dep,
 			Injector context) {
-		Constructor<T> ext = (Constructor<T>) constructsBy.reflect(
-				dep.type().rawType);
-		context.resolve(Env.class).accessible(ext);
-		return Supply.byNew(newInstance(ext)) //
-				.supply((Dependency<? super T>) dep, context);
+		New<T> ext = newInstance((Constructor<T>) constructsBy.reflect(
+				dep.type().rawType));
+		context.resolve(Env.class).accessible(ext.target);
+		return Supply.byNew(ext).supply((Dependency<? super T>) dep, context);
 	}
 }
@@ -1,5 +1,7 @@
 package se.jbee.inject.scope;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
@@ -16,18 +18,28 @@ import se.jbee.inject.UnresolvableDependency;
  * Will lead to instances that can be seen as application-wide-singletons.
  * 
  * Contains an instance per {@link Generator}. Instances are never updated.
+ * Concurrent first requests for the same instance wait for the thread that
+ * {@link Claim}ed it so that the {@link Provider} is asked exactly once.
+ *
+ * Contexts bootstrapped later that share the scope with the context it was
+ * created for use serial IDs beyond the initial size. Their instances are kept
+ * in a map.
  */
 public final class ApplicationScope implements Scope {
 
 	private final AtomicReference<AtomicReferenceArray<Object>> instances = new AtomicReference<>();
+	private final ConcurrentMap<Integer, Object> laterInstances = new ConcurrentHashMap<>();
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public <T> T provide(int serialID, int resources, Dependency<? super T> dep,
 			Provider<T> provider) throws UnresolvableDependency {
-		return (T) instances.updateAndGet(objs -> objs != null
-			? objs
-			: new AtomicReferenceArray<>(resources)).updateAndGet(serialID,
-					obj -> obj != null ? obj : provider.provide());
+		AtomicReferenceArray<Object> objs = instances.get();
+		if (objs == null) {
+			instances.compareAndSet(null, new AtomicReferenceArray<>(resources));
+			objs = instances.get();
+		}
+		if (serialID < objs.length())
+			return Claim.provide(objs, serialID, dep, provider);
+		return Claim.provide(laterInstances, serialID, dep, provider);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.scope;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Locator;
+import se.jbee.inject.Provider;
+import se.jbee.inject.UnresolvableDependency;
+
+/**
+ * A marker put into a slot of a {@link AtomicReferenceArray} or a
+ * {@link ConcurrentMap} by the thread that is about to provide the instance
+ * for that slot.
+ *
+ * Other threads asking for the same slot wait for the claiming thread instead
+ * of calling their {@link Provider} too. This makes sure each slot is provided
+ * exactly once. Asking for slots that already contain an instance is a single
+ * read.
+ *
+ * A thread waiting for a {@link Claim} of a thread that directly or indirectly
+ * waits for a {@link Claim} of the waiting thread would wait forever. Such
+ * cycles across threads are detected before waiting and fail with a
+ * {@link UnresolvableDependency.DependencyCycle} just like a cycle within the
+ * same thread.
+ *
+ * @since 19.1
+ */
+final class Claim {
+
+	/**
+	 * The {@link Claim} each thread currently waits for.
+	 */
+	private static final Map<Thread, Claim> WAITING = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the instance in the slot at the given serialID, if the slot is
+	 *         empty the given {@link Provider} is used to fill it unless
+	 *         another thread has claimed the slot in which case this waits for
+	 *         the other thread's result
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T provide(AtomicReferenceArray<Object> slots, int serialID,
+			Dependency<? super T> dep, Provider<T> provider)
+			throws UnresolvableDependency {
+		Object res = slots.get(serialID);
+		while (true) {
+			if (res != null && res.getClass() != Claim.class)
+				return (T) res;
+			if (res == null) {
+				Claim claim = new Claim();
+				if (slots.compareAndSet(serialID, null, claim))
+					return claim.provide(slots, serialID, provider);
+			} else {
+				((Claim) res).await(dep);
+			}
+			res = slots.get(serialID);
+		}
+	}
+
+	/**
+	 * Same as {@link #provide(AtomicReferenceArray, int, Dependency, Provider)}
+	 * for slots identified by key.
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, T> T provide(ConcurrentMap<K, Object> slots, K key,
+			Dependency<? super T> dep, Provider<T> provider)
+			throws UnresolvableDependency {
+		Object res = slots.get(key);
+		while (true) {
+			if (res != null && res.getClass() != Claim.class)
+				return (T) res;
+			if (res == null) {
+				Claim claim = new Claim();
+				res = slots.putIfAbsent(key, claim);
+				if (res == null) {
+					T val = null;
+					try {
+						val = provider.provide();
+						return val;
+					} finally {
+						// in case provider failed the slot becomes empty again
+						if (val == null)
+							slots.remove(key, claim);
+						else
+							slots.replace(key, claim, val);
+						claim.done.countDown();
+					}
+				}
+			} else {
+				((Claim) res).await(dep);
+				res = slots.get(key);
+			}
+		}
+	}
+
+	private final Thread owner = Thread.currentThread();
+	private final CountDownLatch done = new CountDownLatch(1);
+
+	private <T> T provide(AtomicReferenceArray<Object> slots, int serialID,
+			Provider<T> provider) {
+		T res = null;
+		try {
+			res = provider.provide();
+			return res;
+		} finally {
+			// in case provider failed the slot becomes empty again
+			slots.set(serialID, res);
+			done.countDown();
+		}
+	}
+
+	private void await(Dependency<?> dep) {
+		Thread waiting = Thread.currentThread();
+		if (owner == waiting)
+			throw cycle(dep);
+		WAITING.put(waiting, this);
+		try {
+			if (isWaitingFor(waiting))
+				throw cycle(dep);
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UnresolvableDependency.SupplyFailed(
+					"Interrupted while waiting for other thread", e);
+		} finally {
+			WAITING.remove(waiting);
+		}
+	}
+
+	/**
+	 * @return true if the {@link #owner} of this {@link Claim} directly or
+	 *         indirectly waits for the given thread
+	 */
+	private boolean isWaitingFor(Thread waiting) {
+		Claim next = this;
+		// each thread waits for at most one claim so the chain cannot be longer
+		for (int i = WAITING.size(); i >= 0 && next != null; i--) {
+			// a thread still registered for a done claim is no longer blocked
+			if (next.done.getCount() == 0)
+				return false;
+			if (next.owner == waiting)
+				return true;
+			next = WAITING.get(next.owner);
+		}
+		return false;
+	}
+
+	private static UnresolvableDependency.DependencyCycle cycle(
+			Dependency<?> dep) {
+		return new UnresolvableDependency.DependencyCycle(dep,
+				new Locator<>(dep.instance));
+	}
+}
@@ -1,5 +1,7 @@
 package se.jbee.inject.scope;
 
+import java.util.Arrays;
+
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Provider;
 import se.jbee.inject.Resource;
@@ -19,8 +21,11 @@ public final class ThreadScope implements Scope {
 	public <T> T provide(int serialID, int resources, Dependency<? super T> dep,
 			Provider<T> provider) throws UnresolvableDependency {
 		Object[] objects = instances.get();
-		if (objects == null) {
-			objects = new Object[resources];
+		if (objects == null || serialID >= objects.length) {
+			// grows for contexts bootstrapped later that share the scope
+			objects = objects == null
+				? new Object[resources]
+				: Arrays.copyOf(objects, resources);
 			instances.set(objects);
 		}
 		Object res = objects[serialID];
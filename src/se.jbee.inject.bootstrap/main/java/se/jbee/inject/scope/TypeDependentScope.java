@@ -2,7 +2,6 @@ package se.jbee.inject.scope;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.function.Function;
 
 import se.jbee.inject.Dependency;
@@ -48,18 +47,18 @@ public final class TypeDependentScope implements Scope {
 
 	public static String targetInstanceSignature(Dependency<?> dep) {
 		StringBuilder b = new StringBuilder();
-		for (int i = dep.injectionDepth() - 1; i >= 0; i--)
-			b.append(dep.target(i));
+		int depth = dep.injectionDepth();
+		for (int i = 0; i < depth; i++)
+			b.append(dep.injection(i).target.instance);
 		return b.toString();
 	}
 
 	/**
-	 * Cannot use a {@link ConcurrentHashMap} for this since it has the property
-	 * of not allowing updates to any other key while an entry being updated
-	 * atomically but resolving dependencies during the update (in the update
-	 * function) could very well lead to initialising other entries.
+	 * Instances are provided outside of any atomic update of the map using a
+	 * {@link Claim} as resolving dependencies in the provider could very well
+	 * lead to initialising other entries.
 	 */
-	private final ConcurrentMap<String, Object> instances = new ConcurrentSkipListMap<>();
+	private final ConcurrentMap<String, Object> instances = new ConcurrentHashMap<>();
 	private final Function<Dependency<?>, String> injectionKey;
 
 	public TypeDependentScope(Function<Dependency<?>, String> injectionKey) {
@@ -67,11 +66,9 @@ public final class TypeDependentScope implements Scope {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> T provide(int serialID, int resources, Dependency<? super T> dep,
 			Provider<T> provider) throws UnresolvableDependency {
-		return (T) instances.computeIfAbsent(injectionKey.apply(dep),
-				k -> provider.provide());
+		return Claim.provide(instances, injectionKey.apply(dep), dep, provider);
 	}
 
 }
\ No newline at end of file
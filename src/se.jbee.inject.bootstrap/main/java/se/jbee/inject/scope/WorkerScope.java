@@ -19,6 +19,10 @@ public final class WorkerScope implements Scope {
 
 	private static final class WorkerState {
 		final AtomicReferenceArray<Object> instances;
+		/**
+		 * Instances of contexts bootstrapped later that share the scope
+		 */
+		final ConcurrentMap<Integer, Object> laterInstances = new ConcurrentHashMap<>();
 
 		WorkerState(AtomicReferenceArray<Object> instances) {
 			this.instances = instances;
@@ -40,8 +44,9 @@ public final class WorkerScope implements Scope {
 			throw new UnresolvableDependency.SupplyFailed("Scope error",
 					contextNotAllocated("Context"));
 		}
-		return (T) state.instances.updateAndGet(serialID,
-				value -> value != null ? value : provider.provide());
+		if (serialID < state.instances.length())
+			return Claim.provide(state.instances, serialID, dep, provider);
+		return Claim.provide(state.laterInstances, serialID, dep, provider);
 	}
 
 	static IllegalStateException contextNotAllocated(String context) {
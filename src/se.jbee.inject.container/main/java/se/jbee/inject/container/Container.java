@@ -16,11 +16,13 @@ import static se.jbee.inject.lang.Utils.arrayFindFirst;
 import static se.jbee.inject.lang.Utils.arrayOf;
 import static se.jbee.inject.lang.Utils.orElse;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Env;
@@ -32,6 +34,7 @@ import se.jbee.inject.Name;
 import se.jbee.inject.Resource;
 import se.jbee.inject.ResourceDescriptor;
 import se.jbee.inject.Scope;
+import se.jbee.inject.ScopePermanence;
 import se.jbee.inject.Supplier;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.UnresolvableDependency;
@@ -48,28 +51,86 @@ import se.jbee.inject.UnresolvableDependency.NoResourceForDependency;
  */
 public final class Container implements Injector, Env {
 
+	/**
+	 * @param descriptors sorted from most to least qualified for each raw
+	 *            type, as done by {@code Binding.disambiguate}
+	 */
 	public static Injector injector(ResourceDescriptor<?>... descriptors) {
-		return new Container(descriptors).getDecorated();
+		return new Container(null, descriptors).getDecorated();
+	}
+
+	/**
+	 * Creates an {@link Injector} that falls back to the given parent
+	 * {@link Injector} for all {@link Dependency}s it has no {@link Resource}
+	 * for itself.
+	 *
+	 * @param parent the context to ask when no {@link Resource} matches
+	 * @param descriptors sorted as for {@link #injector(ResourceDescriptor...)}
+	 * @since 19.1
+	 */
+	public static Injector injector(Injector parent,
+			ResourceDescriptor<?>... descriptors) {
+		return new Container(parent, descriptors).getDecorated();
 	}
 
+	private final Injector parent;
+	/**
+	 * Shared with all {@link Container}s that have this one as parent so that
+	 * the {@link Resource}s of all of them use different IDs with the
+	 * {@link Scope}s they share.
+	 */
+	private final AtomicInteger serialIDs;
 	private final Resources resources;
 	private final PostConstruct postConstruct;
 	private final PostConstructObserver postConstructObserver;
 	private final Injector decorated;
 
-	private Container(ResourceDescriptor<?>... descriptors) {
+	private Container(Injector parent, ResourceDescriptor<?>... descriptors) {
+		this.parent = parent;
+		Container root = parent == null ? null : containerOf(parent);
+		this.serialIDs = root == null ? new AtomicInteger() : root.serialIDs;
 		this.resources = new Resources(this::supplyInContext,
-				scope -> resolve(scope, Scope.class), descriptors);
+				scope -> resolve(scope, Scope.class), this::inheritedPermanence,
+				serialIDs.getAndAdd(descriptors.length), descriptors);
 		this.postConstruct = new PostConstruct(
 				orElse((t, arr) -> arr,
 						() -> resolve(Initialiser.Sorter.class)),
 				resolve(resourcesTypeFor(initialiserTypeOf(Type.WILDCARD))));
 		this.postConstructObserver = resolvePostConstructObserver();
+		// the Env is resolved once initialisers and observers are known
+		// a child does not know the ScopePermanences used by its parent
+		if (parent == null && !isUsingRuntimeChecks())
+			resources.verified(
+					new DependencyGraph(resources, descriptors).verified());
 		this.decorated = postConstruct.postConstruct(this);
 		resources.verifyIn(this);
 		resources.initEager();
 	}
 
+	private static Container containerOf(Injector context) {
+		Env env = context.asEnv();
+		return env instanceof Container ? (Container) env : null;
+	}
+
+	private ScopePermanence inheritedPermanence(Name scope) {
+		if (parent == null)
+			return null;
+		try {
+			return parent.resolve(scope, ScopePermanence.class);
+		} catch (UnresolvableDependency e) {
+			return null;
+		}
+	}
+
+	private boolean isUsingRuntimeChecks() {
+		try {
+			return resolve(Env.class).globalProperty(Env.GP_USE_RUNTIME_CHECKS,
+					false);
+		} catch (UnresolvableDependency e) {
+			return false;
+		}
+	}
+
 	private Injector getDecorated() {
 		return decorated == null ? this : decorated;
 	}
@@ -118,12 +179,26 @@ public final class Container implements Injector, Env {
 			if (match != null)
 				return match.generate(dep);
 		}
-		if (type.arrayDimensions() == 1)
-			return resolveArray(dep, type.baseType());
+		if (type.arrayDimensions() == 1) {
+			T elements = resolveArray(dep, type.baseType());
+			return parent != null && Array.getLength(elements) == 0
+				? parent.resolve(dep)
+				: elements;
+		}
+		if (isResourceResolution) {
+			Resource<?> res = resolveFromUpperBound(dep.onTypeParameter());
+			if (res != null)
+				return (T) res;
+		} else {
+			Resource<?> match = resolveFromUpperBound(dep);
+			if (match != null)
+				return (T) match.generate((Dependency<Object>) dep);
+		}
+		if (parent != null)
+			return parent.resolve(dep);
 		if (isResourceResolution)
-			return (T) resolveFromUpperBound(dep.onTypeParameter());
-		return (T) resolveFromUpperBound(dep).generate(
-				(Dependency<Object>) dep);
+			throw noResourceFor(dep.onTypeParameter());
+		throw noResourceFor(dep);
 	}
 
 	/**
@@ -133,11 +208,8 @@ public final class Container implements Injector, Env {
 	 */
 	private <T> Resource<?> resolveFromUpperBound(Dependency<T> dep) {
 		Type<T> type = dep.type();
-		Resource<?> match = arrayFindFirst(resources.forType(Type.WILDCARD),
+		return arrayFindFirst(resources.forType(Type.WILDCARD),
 				c -> type.isAssignableTo(c.type()));
-		if (match != null)
-			return match;
-		throw noResourceFor(dep);
 	}
 
 	private <T> Resource<T> mostQualifiedMatchFor(Dependency<T> dep) {
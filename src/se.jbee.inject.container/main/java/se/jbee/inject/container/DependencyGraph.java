@@ -0,0 +1,244 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.container;
+
+import static se.jbee.inject.Dependency.dependency;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Hint;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Resource;
+import se.jbee.inject.ResourceDescriptor;
+import se.jbee.inject.ScopePermanence;
+import se.jbee.inject.Supplier;
+
+/**
+ * A static analysis of the graph formed by the {@link Resource}s of an
+ * {@link Injector} context and the {@link Supplier#dependencies()} of their
+ * {@link Supplier}s.
+ *
+ * A {@link Resource} is verified when generating its instances cannot fail the
+ * cycle or scope nesting checks done by
+ * {@link Dependency#injectingInto(se.jbee.inject.Locator, ScopePermanence)}:
+ *
+ * <ul>
+ * <li>all {@link Resource}s reachable from it have known dependencies that
+ * resolve to the same {@link Resource} independent of the injection hierarchy
+ * above them,</li>
+ * <li>it is not part of a cycle and</li>
+ * <li>its {@link ScopePermanence} is consistent in any other
+ * {@link ScopePermanence} of the context.</li>
+ * </ul>
+ *
+ * Cycles are found as strongly connected components, the {@link Resource}s
+ * that can reach unknown dependencies by a search on the reversed graph. Both
+ * are linear in the number of {@link Resource}s and dependencies.
+ *
+ * @since 19.1
+ */
+final class DependencyGraph {
+
+	private static final int[] NO_EDGES = new int[0];
+
+	private final Resources resources;
+	private final int size;
+	private final int[][] edges;
+	private final boolean[] open;
+
+	DependencyGraph(Resources resources, ResourceDescriptor<?>[] descriptors) {
+		this.resources = resources;
+		this.size = descriptors.length;
+		this.edges = new int[size][];
+		this.open = new boolean[size];
+		for (int i = 0; i < size; i++)
+			edges[i] = edgesOf(i, descriptors[i].supplier);
+	}
+
+	/**
+	 * @return by {@link Resource#serialID} true if the {@link Resource} is
+	 *         verified, otherwise false
+	 */
+	boolean[] verified() {
+		boolean[] verified = new boolean[size];
+		boolean[] reachesOpen = reachesOpen();
+		boolean[] inCycle = inCycle();
+		List<ScopePermanence> permanences = permanences();
+		for (int i = 0; i < size; i++)
+			verified[i] = !reachesOpen[i] && !inCycle[i]
+				&& isConsistentInAll(resources.forSerialID(i).permanence,
+						permanences);
+		return verified;
+	}
+
+	private int[] edgesOf(int serialID, Supplier<?> supplier) {
+		Hint<?>[] hints = supplier.dependencies();
+		if (hints == null) {
+			open[serialID] = true;
+			return NO_EDGES;
+		}
+		Resource<?> site = resources.forSerialID(serialID);
+		int[] res = new int[hints.length];
+		int count = 0;
+		for (Hint<?> hint : hints) {
+			// absolute references start with an empty hierarchy
+			if (hint.isConstant() || hint.absoluteRef != null
+				|| hint.type().rawType == Injector.class)
+				continue;
+			Resource<?> target = hint.type().arrayDimensions() == 1
+				? null
+				: resolve(site, hint.relativeRef);
+			if (target == null) {
+				open[serialID] = true;
+				return NO_EDGES;
+			}
+			res[count++] = target.serialID;
+		}
+		return count == res.length ? res : Arrays.copyOf(res, count);
+	}
+
+	/**
+	 * @return the {@link Resource} the reference resolves to from the given
+	 *         site or null if that might depend on the hierarchy above the
+	 *         site or is done by something else than a {@link Resource} of the
+	 *         referenced type
+	 */
+	private <T> Resource<T> resolve(Resource<?> site, Instance<T> ref) {
+		Resource<T>[] candidates = resources.forType(ref.type);
+		if (candidates == null)
+			return null;
+		Dependency<T> dep = dependency(ref).injectingInto(site.signature,
+				site.permanence);
+		for (Resource<T> candidate : candidates) {
+			if (!candidate.signature.target.parents.isAny())
+				return null;
+			if (candidate.signature.isMatching(dep))
+				return candidate;
+		}
+		return null;
+	}
+
+	private boolean[] reachesOpen() {
+		int[][] reversed = reversed();
+		boolean[] reaches = open.clone();
+		int[] queue = new int[size];
+		int tail = 0;
+		for (int i = 0; i < size; i++)
+			if (open[i])
+				queue[tail++] = i;
+		for (int head = 0; head < tail; head++)
+			for (int from : reversed[queue[head]])
+				if (!reaches[from]) {
+					reaches[from] = true;
+					queue[tail++] = from;
+				}
+		return reaches;
+	}
+
+	private int[][] reversed() {
+		int[] degree = new int[size];
+		for (int[] to : edges)
+			for (int j : to)
+				degree[j]++;
+		int[][] reversed = new int[size][];
+		for (int i = 0; i < size; i++)
+			reversed[i] = new int[degree[i]];
+		for (int i = 0; i < size; i++)
+			for (int j : edges[i])
+				reversed[j][--degree[j]] = i;
+		return reversed;
+	}
+
+	/**
+	 * Tarjan's strongly connected components algorithm without recursion.
+	 */
+	private boolean[] inCycle() {
+		boolean[] inCycle = new boolean[size];
+		int[] index = new int[size];
+		int[] low = new int[size];
+		boolean[] onStack = new boolean[size];
+		int[] stack = new int[size];
+		int[] callStack = new int[size];
+		int[] nextEdge = new int[size];
+		Arrays.fill(index, -1);
+		int counter = 0;
+		int top = 0;
+		for (int root = 0; root < size; root++) {
+			if (index[root] >= 0)
+				continue;
+			int depth = 0;
+			callStack[depth++] = root;
+			index[root] = low[root] = counter++;
+			stack[top++] = root;
+			onStack[root] = true;
+			while (depth > 0) {
+				int v = callStack[depth - 1];
+				if (nextEdge[v] < edges[v].length) {
+					int w = edges[v][nextEdge[v]++];
+					if (w == v) {
+						inCycle[v] = true;
+					} else if (index[w] < 0) {
+						index[w] = low[w] = counter++;
+						stack[top++] = w;
+						onStack[w] = true;
+						callStack[depth++] = w;
+					} else if (onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+				} else {
+					depth--;
+					if (depth > 0) {
+						int parent = callStack[depth - 1];
+						low[parent] = Math.min(low[parent], low[v]);
+					}
+					if (low[v] == index[v]) {
+						int w = stack[--top];
+						onStack[w] = false;
+						if (w != v) {
+							inCycle[w] = true;
+							while (w != v) {
+								w = stack[--top];
+								onStack[w] = false;
+								inCycle[w] = true;
+							}
+						}
+					}
+				}
+			}
+		}
+		return inCycle;
+	}
+
+	private List<ScopePermanence> permanences() {
+		List<ScopePermanence> res = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			ScopePermanence p = resources.forSerialID(i).permanence;
+			if (!isContained(p, res))
+				res.add(p);
+		}
+		return res;
+	}
+
+	private static boolean isContained(ScopePermanence p,
+			List<ScopePermanence> permanences) {
+		for (ScopePermanence e : permanences)
+			if (e.equalTo(p))
+				return true;
+		return false;
+	}
+
+	private static boolean isConsistentInAll(ScopePermanence p,
+			List<ScopePermanence> permanences) {
+		for (ScopePermanence e : permanences)
+			if (!p.isConsistentIn(e))
+				return false;
+		return true;
+	}
+}
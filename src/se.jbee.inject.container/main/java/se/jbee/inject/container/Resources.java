@@ -1,9 +1,6 @@
 package se.jbee.inject.container;
 
-import static java.util.Arrays.copyOfRange;
-
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -46,9 +43,11 @@ import se.jbee.inject.UnresolvableDependency.NoResourceForDependency;
 final class Resources {
 
 	private final int resourceCount;
+	private final int serialBase;
 	private final Map<Class<?>, Resource<?>[]> resourcesByType;
 	private final Resource<?>[] resources;
 	private final Resource<?>[] genericResources;
+	private final boolean[] verified;
 
 	/**
 	 * Creates a set of grouped {@link Resource} from
@@ -59,6 +58,12 @@ final class Resources {
 	 *            {@link Injector} implementation
 	 * @param scopes function to lookup (yield) {@link Scope} by {@link Name}
 	 *            (also provided by the created {@link Injector} context)
+	 * @param inherited function to lookup the {@link ScopePermanence} of
+	 *            {@link Scope}s not defined by the descriptors, returns null
+	 *            if the {@link Scope} is not defined at all
+	 * @param serialBase the {@link Resource#serialID} offset used with
+	 *            {@link Scope}s so that {@link Resource}s of contexts sharing
+	 *            {@link Scope}s do not use the same IDs
 	 * @param descriptors the list of {@link ResourceDescriptor}s that
 	 *            {@link Resource}s are created for. Note that this list must be
 	 *            sorted already from the most qualified to the least qualified
@@ -66,9 +71,12 @@ final class Resources {
 	 *            irrelevant.
 	 */
 	Resources(ResourceLink link, Function<Name, Scope> scopes,
+			Function<Name, ScopePermanence> inherited, int serialBase,
 			ResourceDescriptor<?>... descriptors) {
 		this.resourceCount = descriptors.length;
-		this.resources = createResources(link, scopes, descriptors);
+		this.serialBase = serialBase;
+		this.verified = new boolean[descriptors.length];
+		this.resources = createResources(link, scopes, inherited, descriptors);
 		this.resourcesByType = createResourcesByRawType(resources);
 		this.genericResources = selectGenericResources(resourcesByType);
 	}
@@ -84,6 +92,23 @@ final class Resources {
 		return resourcesByType.entrySet();
 	}
 
+	/**
+	 * @return the {@link Resource} with the given {@link Resource#serialID}
+	 */
+	public Resource<?> forSerialID(int serialID) {
+		return resources[serialID];
+	}
+
+	/**
+	 * Skips the cycle and scope nesting checks when generating instances for
+	 * the {@link Resource}s marked as verified.
+	 *
+	 * @param verified by {@link Resource#serialID}
+	 */
+	public void verified(boolean[] verified) {
+		System.arraycopy(verified, 0, this.verified, 0, resourceCount);
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder b = new StringBuilder();
@@ -108,9 +133,19 @@ final class Resources {
 		}
 	}
 
+	/**
+	 * Initialises the eager {@link Resource}s in {@link Resource#compareTo}
+	 * order, most specific raw types first, independent of the order of the
+	 * raw type groups in {@link #resources}.
+	 */
 	public void initEager() {
-		for (Resource<?> eager : resources)
-			eager.init();
+		List<Resource<?>> eager = new ArrayList<>();
+		for (Resource<?> r : resources)
+			if (r.permanence.isEager())
+				eager.add(r);
+		Collections.sort(eager);
+		for (Resource<?> r : eager)
+			r.init();
 	}
 
 	private static Resource<?>[] selectGenericResources(
@@ -127,7 +162,9 @@ final class Resources {
 	}
 
 	private Resource<?>[] createResources(ResourceLink link,
-			Function<Name, Scope> scopes, ResourceDescriptor<?>[] descriptors) {
+			Function<Name, Scope> scopes,
+			Function<Name, ScopePermanence> inherited,
+			ResourceDescriptor<?>[] descriptors) {
 		Resource<?>[] res = new Resource<?>[descriptors.length];
 
 		Map<Name, Resource<ScopePermanence>> permanenceResourceByScope = new HashMap<>();
@@ -158,7 +195,7 @@ final class Resources {
 		for (int i = 0; i < descriptors.length; i++)
 			if (res[i] == null)
 				res[i] = createResource(link, scopes, i, descriptors[i],
-						permanenceByScope);
+						permanenceByScope, inherited);
 		return res;
 	}
 
@@ -194,37 +231,39 @@ final class Resources {
 		};
 	}
 
+	/**
+	 * Groups the {@link Resource}s by raw type keeping their order. The
+	 * {@link Resource}s are not sorted again as the descriptors are given
+	 * sorted from most to least qualified for each raw type already. For
+	 * {@link Resource}s of the same raw type {@link Resource#compareTo} uses
+	 * the same criteria as the order established by
+	 * {@code Binding.disambiguate} which only adds further tie-breakers.
+	 */
 	private static Map<Class<?>, Resource<?>[]> createResourcesByRawType(
 			Resource<?>[] resources) {
-		Arrays.sort(resources);
+		Map<Class<?>, List<Resource<?>>> groups = new IdentityHashMap<>();
+		for (Resource<?> r : resources)
+			groups.computeIfAbsent(r.type().rawType,
+					key -> new ArrayList<>()).add(r);
 		Map<Class<?>, Resource<?>[]> byRawType = new IdentityHashMap<>(
-				resources.length);
-		if (resources.length == 0)
-			return byRawType;
-		Class<?> lastRawType = resources[0].type().rawType;
-		int start = 0;
-		for (int i = 0; i < resources.length; i++) {
-			Class<?> rawType = resources[i].type().rawType;
-			if (rawType != lastRawType) {
-				byRawType.put(lastRawType, copyOfRange(resources, start, i));
-				start = i;
-			}
-			lastRawType = rawType;
-		}
-		byRawType.put(lastRawType,
-				copyOfRange(resources, start, resources.length));
+				groups.size());
+		for (Entry<Class<?>, List<Resource<?>>> group : groups.entrySet())
+			byRawType.put(group.getKey(),
+					group.getValue().toArray(new Resource<?>[0]));
 		return byRawType;
 	}
 
 	private <T> Resource<T> createResource(ResourceLink link,
 			Function<Name, Scope> scopes, int serialID,
 			ResourceDescriptor<T> descriptor,
-			Map<Name, ScopePermanence> permanenceByScope) {
+			Map<Name, ScopePermanence> permanenceByScope,
+			Function<Name, ScopePermanence> inherited) {
 		// NB. using the function is a way to allow both Resource and Generator implementation to be initialised with a final reference of each other
 		Function<Resource<T>, Generator<T>> generatorFactory = //
 				resource -> createGenerator(link, scopes, resource,
 						descriptor.supplier);
-		ScopePermanence scoping = permanenceByScope.get(descriptor.scope);
+		ScopePermanence scoping = permanenceByScope.computeIfAbsent(
+				descriptor.scope, inherited);
 		if (scoping == null)
 			throw new InconsistentDeclaration("Scope `" + descriptor.scope
 				+ "` is used but not defined for: " + descriptor);
@@ -253,12 +292,21 @@ final class Resources {
 				resource);
 		if (Scope.class.isAssignableFrom(resource.type().rawType)
 			|| Scope.container.equalTo(scope))
-			return new LazySingletonGenerator<>(inContext, resource);
+			return new LazySingletonGenerator<>(inContext, resource, verified);
 		if (Scope.reference.equalTo(scope))
-			return new ReferenceGenerator<>(inContext, resource);
+			return new ReferenceGenerator<>(inContext, resource, verified);
 		// default is a scoped generator...
-		return new LazyScopedGenerator<>(inContext, resource, resourceCount,
-				() -> scopes.apply(resource.permanence.scope));
+		return new LazyScopedGenerator<>(inContext, resource,
+				serialBase + resource.serialID, serialBase + resourceCount,
+				() -> scopes.apply(resource.permanence.scope), verified);
+	}
+
+	static <T> Dependency<? super T> injecting(Dependency<? super T> dep,
+			Resource<T> resource, ScopePermanence permanence,
+			boolean[] verified) {
+		return verified[resource.serialID]
+			? dep.injectingIntoVerified(resource.signature, permanence)
+			: dep.injectingInto(resource.signature, permanence);
 	}
 
 	public void verifyIn(Injector context) {
@@ -291,10 +339,13 @@ final class Resources {
 		private final Generator<T> inContext;
 		private final Resource<T> resource;
 		private final Lazy<T> value = new Lazy<>();
+		private final boolean[] verified;
 
-		LazySingletonGenerator(Generator<T> inContext, Resource<T> resource) {
+		LazySingletonGenerator(Generator<T> inContext, Resource<T> resource,
+				boolean[] verified) {
 			this.inContext = inContext;
 			this.resource = resource;
+			this.verified = verified;
 		}
 
 		@Override
@@ -306,7 +357,7 @@ final class Resources {
 
 		private T provide(Dependency<? super T> dep) {
 			return inContext.generate(
-					dep.injectingInto(resource.signature, resource.permanence));
+					injecting(dep, resource, resource.permanence, verified));
 		}
 	}
 
@@ -320,18 +371,21 @@ final class Resources {
 
 		private final Generator<T> inContext;
 		private final Resource<T> resource;
+		private final boolean[] verified;
 
-		ReferenceGenerator(Generator<T> inContext, Resource<T> resource) {
+		ReferenceGenerator(Generator<T> inContext, Resource<T> resource,
+				boolean[] verified) {
 			this.inContext = inContext;
 			this.resource = resource;
+			this.verified = verified;
 		}
 
 		@Override
 		public T generate(Dependency<? super T> dep)
 				throws UnresolvableDependency {
 			dep.ensureNoIllegalDirectAccessOf(resource.signature);
-			return inContext.generate(dep.injectingInto(resource.signature,
-					ScopePermanence.ignore));
+			return inContext.generate(injecting(dep, resource,
+					ScopePermanence.ignore, verified));
 		}
 	}
 
@@ -346,22 +400,27 @@ final class Resources {
 		private final Generator<T> inContext;
 		private final Lazy<Scope> scope = new Lazy<>();
 		private final Resource<T> resource;
+		private final int serialID;
 		private final int resources;
 		private final Provider<Scope> scopeProvider;
+		private final boolean[] verified;
 
 		LazyScopedGenerator(Generator<T> inContext, Resource<T> resource,
-				int resources, Provider<Scope> scope) {
+				int serialID, int resources, Provider<Scope> scope,
+				boolean[] verified) {
 			this.resource = resource;
 			this.inContext = inContext;
+			this.serialID = serialID;
 			this.resources = resources;
 			this.scopeProvider = scope;
+			this.verified = verified;
 		}
 
 		@Override
 		public T generate(Dependency<? super T> dep) {
 			dep.ensureNoIllegalDirectAccessOf(resource.signature);
-			final Dependency<? super T> injected = dep.injectingInto(
-					resource.signature, resource.permanence);
+			final Dependency<? super T> injected = injecting(dep, resource,
+					resource.permanence, verified);
 			/*
 			 * This cache makes sure that within one thread even if the provider
 			 * (lambda below) is called multiple times (which can occur because
@@ -371,8 +430,8 @@ final class Resources {
 			 * supplier.
 			 */
 			AtomicReference<T> instanceCache = new AtomicReference<>();
-			T res = scope.get(scopeProvider).provide(resource.serialID,
-					resources, injected,
+			T res = scope.get(scopeProvider).provide(serialID, resources,
+					injected,
 					() -> instanceCache.updateAndGet(
 							instance -> instance != null
 								? instance
@@ -0,0 +1,143 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.lang;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Access to the {@link Utils#commonConstructor(Class)}s precomputed at compile
+ * time and written to {@link #RESOURCE} files.
+ *
+ * Each line of an index file has the form
+ *
+ * <pre>
+ * binary-class-name=param-type-1,param-type-2,...
+ * </pre>
+ *
+ * where the parameter types use the names as returned by
+ * {@link Class#getName()}. This allows to look up the constructor directly
+ * by its parameter types instead of scanning and comparing all declared
+ * constructors.
+ *
+ * The lookup does not avoid reflection. {@link Class#getDeclaredConstructor(Class...)}
+ * needs the same reflection data of the class as the scan and the parameter
+ * types have to be loaded by name. Measured on HotSpot for 2000 classes with
+ * 4 constructors each the cold lookup took 39-68ms while the scan took
+ * 21-42ms. Therefore the index is only used when running as a GraalVM native
+ * image (see {@link #isUsed()}). There it allows to register only the
+ * indexed constructors for reflection instead of all declared constructors.
+ *
+ * When an index is stale and no longer matches the class the reflective scan
+ * is used as if there was no index.
+ *
+ * @since 19.1
+ */
+public final class ConstructorIndex {
+
+	/**
+	 * Name of the index resource files. Each artifact can contain one file.
+	 */
+	public static final String RESOURCE = "META-INF/se.jbee.inject/constructors.index";
+
+	private static final Map<ClassLoader, Map<String, String>> INDEXES = new WeakHashMap<>();
+
+	private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+	static {
+		for (Class<?> p : new Class<?>[] { boolean.class, byte.class,
+				char.class, short.class, int.class, long.class, float.class,
+				double.class })
+			PRIMITIVES.put(p.getName(), p);
+	}
+
+	private static final boolean USED = System.getProperty(
+			"org.graalvm.nativeimage.imagecode") != null;
+
+	private ConstructorIndex() {
+		throw new UnsupportedOperationException("util");
+	}
+
+	/**
+	 * @return true if {@link Utils#commonConstructor(Class)} consults the
+	 *         index before scanning the declared constructors, this is the
+	 *         case when running as native image
+	 */
+	public static boolean isUsed() {
+		return USED;
+	}
+
+	/**
+	 * @return the indexed constructor or null if the type is not indexed (or
+	 *         the index is stale)
+	 */
+	public static <T> Constructor<T> commonConstructor(Class<T> type) {
+		ClassLoader loader = type.getClassLoader();
+		if (loader == null)
+			return null;
+		String params = indexOf(loader).get(type.getName());
+		if (params == null)
+			return null;
+		try {
+			String[] names = params.isEmpty() ? new String[0] : params.split(",");
+			Class<?>[] paramTypes = new Class<?>[names.length];
+			for (int i = 0; i < names.length; i++) {
+				Class<?> p = PRIMITIVES.get(names[i]);
+				paramTypes[i] = p != null
+					? p
+					: Class.forName(names[i], false, loader);
+			}
+			return type.getDeclaredConstructor(paramTypes);
+		} catch (ClassNotFoundException | NoSuchMethodException
+				| LinkageError e) {
+			return null; // stale index
+		}
+	}
+
+	private static Map<String, String> indexOf(ClassLoader loader) {
+		synchronized (INDEXES) {
+			return INDEXES.computeIfAbsent(loader, ConstructorIndex::read);
+		}
+	}
+
+	private static Map<String, String> read(ClassLoader loader) {
+		Map<String, String> index = new HashMap<>();
+		try {
+			Enumeration<URL> files = loader.getResources(RESOURCE);
+			while (files.hasMoreElements())
+				read(files.nextElement(), index);
+		} catch (IOException e) {
+			// use what has been read so far
+		}
+		return index.isEmpty() ? Collections.emptyMap() : index;
+	}
+
+	private static void read(URL file, Map<String, String> index)
+			throws IOException {
+		try (InputStream in = file.openStream();
+				BufferedReader lines = new BufferedReader(
+						new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			String line = lines.readLine();
+			while (line != null) {
+				int eq = line.indexOf('=');
+				if (eq > 0)
+					index.putIfAbsent(line.substring(0, eq),
+							line.substring(eq + 1));
+				line = lines.readLine();
+			}
+		}
+	}
+}
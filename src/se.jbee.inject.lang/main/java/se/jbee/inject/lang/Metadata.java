@@ -0,0 +1,206 @@
+/*
+ *  Copyright (c) 2012-2020, Jan Bernitt
+ *
+ *  Licensed under the Apache License, Version 2.0, http://www.apache.org/licenses/LICENSE-2.0
+ */
+package se.jbee.inject.lang;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A process wide cache of the reflection metadata of a {@link Class} that is
+ * shared by all {@link java.lang.reflect.Member} lookups of all injectors.
+ *
+ * The {@link Metadata} is attached to its {@link Class} using a
+ * {@link ClassValue} so it does not prevent the {@link Class} or its
+ * {@link ClassLoader} from being unloaded.
+ *
+ * The declared {@link Method}s, {@link Field}s and {@link Constructor}s are
+ * cached and returned as copies of the cached arrays. The members themselves
+ * are shared. Therefore they must not be made accessible. Use
+ * {@link #detached(AccessibleObject)} to get a copy that can be made
+ * accessible for one injector without making it accessible for others.
+ *
+ * @since 19.1
+ */
+public final class Metadata {
+
+	private static final ClassValue<Metadata> METADATA = new ClassValue<Metadata>() {
+
+		@Override
+		protected Metadata computeValue(Class<?> type) {
+			return new Metadata(type);
+		}
+	};
+
+	/**
+	 * The number of active {@link #countScans(boolean)} calls. Scans are only
+	 * counted while it is positive.
+	 */
+	private static final AtomicInteger COUNTING = new AtomicInteger();
+	private static final ThreadLocal<long[]> SCANS = ThreadLocal.withInitial(
+			() -> new long[1]);
+
+	public static Metadata of(Class<?> type) {
+		return METADATA.get(type);
+	}
+
+	/**
+	 * Starts or stops counting the {@link #scans()}. Calls to start and stop
+	 * should be balanced.
+	 *
+	 * @param enabled true to start, false to stop counting
+	 */
+	public static void countScans(boolean enabled) {
+		if (enabled) {
+			COUNTING.incrementAndGet();
+		} else {
+			COUNTING.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return the number of reflective scans done by the current thread while
+	 *         scans were counted because the requested {@link Metadata} was
+	 *         not yet cached. The difference between two calls is the number
+	 *         of scans done in between.
+	 * @see #countScans(boolean)
+	 */
+	public static long scans() {
+		return SCANS.get()[0];
+	}
+
+	private static void scanned() {
+		if (COUNTING.get() > 0)
+			SCANS.get()[0]++;
+	}
+
+	/**
+	 * @return a copy of the given member that is not shared with other users
+	 *         of the {@link Metadata} so it can be made accessible
+	 * @throws NoSuchElementException in case the member does not exist in
+	 *             the loaded version of its declaring class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends AccessibleObject & Member> T detached(T member) {
+		Class<?> type = member.getDeclaringClass();
+		try {
+			if (member instanceof Method)
+				return (T) detached((Method) member);
+			if (member instanceof Constructor)
+				return (T) type.getDeclaredConstructor(
+						((Constructor<?>) member).getParameterTypes());
+			return (T) type.getDeclaredField(member.getName());
+		} catch (NoSuchMethodException | NoSuchFieldException e) {
+			throw new NoSuchElementException(e.getMessage());
+		}
+	}
+
+	private static Method detached(Method member)
+			throws NoSuchMethodException {
+		Class<?> type = member.getDeclaringClass();
+		Method res = type.getDeclaredMethod(member.getName(),
+				member.getParameterTypes());
+		if (res.equals(member))
+			return res;
+		// a bridge method with the same parameters
+		for (Method m : type.getDeclaredMethods())
+			if (m.equals(member))
+				return m;
+		throw new NoSuchMethodException(member.toString());
+	}
+
+	private final Class<?> type;
+	private final Map<Executable, Type<?>[]> parameterTypes = new ConcurrentHashMap<>();
+
+	// all lazily initialised, a race just computes the same twice
+	private volatile Method[] methods;
+	private volatile Field[] fields;
+	private volatile Constructor<?>[] constructors;
+	private volatile Class<?>[] commonConstructorParameterTypes;
+	private volatile Boolean monomodal;
+
+	private Metadata(Class<?> type) {
+		this.type = type;
+	}
+
+	public Method[] declaredMethods() {
+		Method[] res = methods;
+		if (res == null) {
+			scanned();
+			res = type.getDeclaredMethods();
+			methods = res;
+		}
+		return res.clone();
+	}
+
+	public Field[] declaredFields() {
+		Field[] res = fields;
+		if (res == null) {
+			scanned();
+			res = type.getDeclaredFields();
+			fields = res;
+		}
+		return res.clone();
+	}
+
+	public Constructor<?>[] declaredConstructors() {
+		Constructor<?>[] res = constructors;
+		if (res == null) {
+			scanned();
+			res = type.getDeclaredConstructors();
+			constructors = res;
+		}
+		return res.clone();
+	}
+
+	/**
+	 * @see Utils#commonConstructor(Class)
+	 * @throws NoSuchElementException in case the type is not constructable
+	 */
+	public Constructor<?> commonConstructor() {
+		Class<?>[] params = commonConstructorParameterTypes;
+		if (params == null) {
+			params = Utils.scanCommonConstructor(type).getParameterTypes();
+			commonConstructorParameterTypes = params;
+		}
+		try {
+			return type.getDeclaredConstructor(params);
+		} catch (NoSuchMethodException e) {
+			throw new NoSuchElementException(e.getMessage());
+		}
+	}
+
+	/**
+	 * @see Utils#isClassMonomodal(Class)
+	 */
+	public boolean isMonomodal() {
+		Boolean res = monomodal;
+		if (res == null) {
+			res = Utils.scanMonomodal(type);
+			monomodal = res;
+		}
+		return res;
+	}
+
+	/**
+	 * @param member a {@link Method} or {@link Constructor} declared by the
+	 *            {@link Class} of this {@link Metadata}
+	 * @see Type#parameterTypes(Executable)
+	 */
+	public Type<?>[] parameterTypes(Executable member) {
+		return parameterTypes.computeIfAbsent(member, m -> {
+			scanned();
+			return Type.parameterTypes(m.getGenericParameterTypes());
+		}).clone();
+	}
+}
@@ -36,10 +36,16 @@ public interface Qualifying<T extends Qualifying<T>> {
 			|| !a2.moreQualifiedThan(a1) && b1.moreQualifiedThan(b2);
 	}
 
+	/**
+	 * Objects that both claim to be more qualified than the other, like two
+	 * unrelated {@link Type}s, are compared as equal as otherwise sorting them
+	 * is not consistent.
+	 */
 	static <A extends Qualifying<? super A>> int compare(A one, A other) {
-		return one.moreQualifiedThan(other)
-			? -1
-			: other.moreQualifiedThan(one) ? 1 : 0;
+		boolean oneIsMore = one.moreQualifiedThan(other);
+		if (oneIsMore == other.moreQualifiedThan(one))
+			return 0;
+		return oneIsMore ? -1 : 1;
 	}
 
 }
@@ -5,7 +5,11 @@
  */
 package se.jbee.inject.lang;
 
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
@@ -21,6 +25,8 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A generic version of {@link Class} like {@link java.lang.reflect.Type} but
@@ -31,12 +37,80 @@ import java.util.Set;
  * Lower bound types ({@code ? super X}) are not supported as they usually are
  * not needed in context of injection.
  *
+ * Instances are canonical: raw types are attached to their {@link Class}
+ * using a {@link ClassValue}, all other types are interned weakly. Equal
+ * types therefore usually are the same instance.
+ *
  * @author Jan Bernitt (jan@jbee.se)
  */
 @SuppressWarnings({ "squid:S1448", "squid:S1200" })
 public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 		Serializable, Comparable<Type<?>> {
 
+	private static final Type<?>[] NO_PARAMETERS = new Type<?>[0];
+
+	private static final ClassValue<Type<?>> RAW = new ClassValue<Type<?>>() {
+
+		@Override
+		protected Type<?> computeValue(Class<?> type) {
+			return type.isPrimitive()
+				? RAW.get(primitiveAsWrapper(type))
+				: new Type<>(false, type, NO_PARAMETERS);
+		}
+	};
+
+	/**
+	 * The canonical instances of all but raw types by what they describe.
+	 * Entries of collected instances are removed when their {@link Interned}
+	 * reference is enqueued.
+	 */
+	private static final ConcurrentMap<Key, Interned> INTERNED = new ConcurrentHashMap<>();
+	private static final ReferenceQueue<Type<?>> COLLECTED = new ReferenceQueue<>();
+
+	/**
+	 * Describes a type without being one so that the canonical instance can be
+	 * looked up before a {@link Type} is created.
+	 */
+	private static final class Key {
+
+		final Class<?> rawType;
+		final Type<?>[] params;
+		final boolean upperBound;
+		final int hash;
+
+		Key(boolean upperBound, Class<?> rawType, Type<?>[] params) {
+			this.rawType = rawType;
+			this.params = params;
+			this.upperBound = upperBound;
+			this.hash = hash(upperBound, rawType, params);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hash == other.hash && rawType == other.rawType
+				&& upperBound == other.upperBound
+				&& Utils.arrayEquals(params, other.params, Type::equalTo);
+		}
+	}
+
+	private static final class Interned extends WeakReference<Type<?>> {
+
+		final Key key;
+
+		Interned(Type<?> type, Key key) {
+			super(type, COLLECTED);
+			this.key = key;
+		}
+	}
+
 	public static final Type<Object> OBJECT = Type.raw(Object.class);
 	public static final Type<Void> VOID = raw(Void.class);
 	public static final Type<?> WILDCARD = OBJECT.asUpperBound();
@@ -50,7 +124,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 		}
 		if (base != type) {
 			Type<?> genericBase = withWildcardTypeParameters(base);
-			return new Type<>(type, genericBase.params);
+			return canonical(false, type, genericBase.params);
 		}
 		return withWildcardTypeParameters(type);
 	}
@@ -77,10 +151,11 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	}
 
 	public static Type<?>[] parameterTypes(Executable methodOrConstructor) {
-		return parameterTypes(methodOrConstructor.getGenericParameterTypes());
+		return Metadata.of(methodOrConstructor.getDeclaringClass()).parameterTypes(
+				methodOrConstructor);
 	}
 
-	private static Type<?>[] parameterTypes(
+	static Type<?>[] parameterTypes(
 			java.lang.reflect.Type[] genericParameterTypes) {
 		return Utils.arrayMap(genericParameterTypes, Type.class, Type::type);
 	}
@@ -100,8 +175,51 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 			: WILDCARD;
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T> Type<T> raw(Class<T> type) {
-		return new Type<>(type);
+		return (Type<T>) RAW.get(type);
+	}
+
+	/**
+	 * @return the canonical instance of the described type
+	 */
+	private static <T> Type<T> canonical(boolean upperBound, Class<T> rawType,
+			Type<?>[] parameters) {
+		if (!upperBound && parameters.length == 0)
+			return raw(rawType);
+		return intern(new Key(upperBound, primitiveAsWrapper(rawType),
+				parameters));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Type<T> intern(Key key) {
+		Interned ref = INTERNED.get(key);
+		Type<?> interned = ref == null ? null : ref.get();
+		if (interned != null)
+			return (Type<T>) interned;
+		removeCollected();
+		Type<T> type = new Type<>(key.upperBound, (Class<T>) key.rawType,
+				key.params);
+		Interned created = new Interned(type, key);
+		while (true) {
+			ref = INTERNED.putIfAbsent(key, created);
+			if (ref == null)
+				return type;
+			interned = ref.get();
+			if (interned != null)
+				return (Type<T>) interned;
+			if (INTERNED.replace(key, ref, created))
+				return type;
+		}
+	}
+
+	private static void removeCollected() {
+		Reference<?> ref = COLLECTED.poll();
+		while (ref != null) {
+			Interned collected = (Interned) ref;
+			INTERNED.remove(collected.key, collected);
+			ref = COLLECTED.poll();
+		}
 	}
 
 	private static Type<?>[] types(java.lang.reflect.Type[] parameters,
@@ -146,7 +264,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 			Map<String, Type<?>> actualTypeArguments) {
 		@SuppressWarnings("unchecked")
 		Class<T> rawType = (Class<T>) type.getRawType();
-		return new Type<>(rawType,
+		return canonical(false, rawType,
 				types(type.getActualTypeArguments(), actualTypeArguments));
 	}
 
@@ -158,19 +276,58 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	 */
 	private final boolean upperBound;
 
+	/**
+	 * The {@link Class#hashCode()} is not stable between JVMs so the hash is
+	 * recomputed when the canonical instance is resolved after deserialisation.
+	 */
+	private final transient int hash;
+
+	/**
+	 * The {@link #supertypes()} computed once per canonical instance.
+	 */
+	private transient volatile Type<?>[] supertypes;
+
+	/**
+	 * Results of comparisons with other types, only created for parameterized
+	 * types when first compared.
+	 */
+	private transient volatile Memo memo;
+
+	/**
+	 * Remembers the results of comparisons with other parameterized types.
+	 * The comparisons are bounded to {@link #LIMIT} other types per relation
+	 * so that types used with many others do not grow without limit.
+	 */
+	private static final class Memo {
+
+		static final int LIMIT = 64;
+
+		final Map<Type<?>, Boolean> assignableTo = new ConcurrentHashMap<>();
+		final Map<Type<?>, Boolean> moreQualifiedThan = new ConcurrentHashMap<>();
+
+		static void remember(Map<Type<?>, Boolean> relation, Type<?> other,
+				boolean result) {
+			if (relation.size() < LIMIT)
+				relation.putIfAbsent(other, result);
+		}
+	}
+
 	private Type(boolean upperBound, Class<T> rawType, Type<?>[] parameters) {
 		assert (rawType != null);
 		this.rawType = primitiveAsWrapper(rawType);
 		this.params = parameters;
 		this.upperBound = upperBound;
+		this.hash = hash(upperBound, this.rawType, parameters);
 	}
 
-	private Type(Class<T> rawType, Type<?>[] parameters) {
-		this(false, rawType, parameters);
+	private static int hash(boolean upperBound, Class<?> rawType,
+			Type<?>[] parameters) {
+		return 31 * (31 * rawType.hashCode() + Arrays.hashCode(parameters))
+			+ (upperBound ? 1231 : 1237);
 	}
 
-	private Type(Class<T> rawType) {
-		this(false, rawType, new Type<?>[0]);
+	private Object readResolve() throws ObjectStreamException {
+		return canonical(upperBound, rawType, params);
 	}
 
 	@Override
@@ -203,7 +360,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	public Type<? extends T> upperBound(boolean upperBound) {
 		return this.upperBound == upperBound
 			? this
-			: new Type<>(upperBound, rawType, params);
+			: canonical(upperBound, rawType, params);
 	}
 
 	public Type<? extends T> asExactType() {
@@ -213,18 +370,18 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	@SuppressWarnings("unchecked")
 	public Type<T[]> addArrayDimension() {
 		Object proto = Utils.newArray(rawType, 0);
-		return new Type<>(upperBound, (Class<T[]>) proto.getClass(), params);
+		return canonical(upperBound, (Class<T[]>) proto.getClass(), params);
 	}
 
 	public boolean equalTo(Type<?> other) {
-		return this == other
-			|| rawType == other.rawType && upperBound == other.upperBound
-				&& Utils.arrayEquals(params, other.params, Type::equalTo);
+		return this == other || hash == other.hash && rawType == other.rawType
+			&& upperBound == other.upperBound
+			&& Utils.arrayEquals(params, other.params, Type::equalTo);
 	}
 
 	@Override
 	public int hashCode() {
-		return rawType.hashCode();
+		return hash;
 	}
 
 	@Override
@@ -244,7 +401,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 		Class<?> baseType = rawType;
 		while (baseType.isArray())
 			baseType = baseType.getComponentType();
-		return new Type<>(upperBound, (Class<B>) baseType, params);
+		return canonical(upperBound, (Class<B>) baseType, params);
 	}
 
 	/**
@@ -266,6 +423,16 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 			return false;
 		if (!isParameterized() || other.isRawType())
 			return true; //raw type is ok - no parameters to check
+		Memo memo = memo();
+		Boolean res = memo.assignableTo.get(other);
+		if (res != null)
+			return res;
+		boolean assignable = isParameterizedAssignableTo(other);
+		Memo.remember(memo.assignableTo, other, assignable);
+		return assignable;
+	}
+
+	private boolean isParameterizedAssignableTo(Type<?> other) {
 		if (other.rawType == rawType) // both have the same rawType
 			return allParametersAreAssignableTo(other);
 		@SuppressWarnings("unchecked")
@@ -342,6 +509,18 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	public boolean moreQualifiedThan(Type<?> other) {
 		if (!rawType.isAssignableFrom(other.rawType))
 			return true;
+		if (!isParameterized() || !other.isParameterized())
+			return isMoreQualifiedThan(other);
+		Memo memo = memo();
+		Boolean res = memo.moreQualifiedThan.get(other);
+		if (res != null)
+			return res;
+		boolean moreQualified = isMoreQualifiedThan(other);
+		Memo.remember(memo.moreQualifiedThan, other, moreQualified);
+		return moreQualified;
+	}
+
+	private boolean isMoreQualifiedThan(Type<?> other) {
 		if ((hasTypeParameter() && !isParameterized())
 			|| (isUpperBound() && !other.isUpperBound()))
 			return false; // equal or other is a subtype of this
@@ -394,7 +573,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 				: this;
 		if (allTypeParametersAreUpperBounds())
 			return this;
-		return new Type<>(upperBound, rawType,
+		return canonical(upperBound, rawType,
 				Utils.arrayMap(params, Type::asUpperBound));
 	}
 
@@ -419,7 +598,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 
 	public Type<T> parametized(Type<?>... params) {
 		checkTypeParameters(params);
-		return new Type<>(upperBound, rawType, params);
+		return canonical(upperBound, rawType, params.clone());
 	}
 
 	@Override
@@ -496,7 +675,7 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 			return raw(supertype); // just for better performance
 		@SuppressWarnings("unchecked")
 		Type<? extends S> res = (Type<? extends S>) Utils.arrayFindFirst(
-				type.supertypes(), s -> s.rawType == supertype);
+				type.cachedSupertypes(), s -> s.rawType == supertype);
 		if (res == null)
 			throw new ClassCastException("`" + supertype
 				+ "` is not a supertype of: `" + type + "`");
@@ -513,6 +692,30 @@ public final class Type<T> implements Qualifying<Type<?>>, Typed<T>,
 	 *         super-interfaces continuing by going up the type hierarchy.
 	 */
 	public Type<? super T>[] supertypes() {
+		return cachedSupertypes().clone();
+	}
+
+	@SuppressWarnings("unchecked")
+	private Type<? super T>[] cachedSupertypes() {
+		Type<? super T>[] res = (Type<? super T>[]) supertypes;
+		if (res == null) {
+			res = resolveSupertypes();
+			supertypes = res;
+		}
+		return res;
+	}
+
+	private Memo memo() {
+		Memo res = memo;
+		if (res == null) {
+			// racing threads might each create one, only the last is kept
+			res = new Memo();
+			memo = res;
+		}
+		return res;
+	}
+
+	private Type<? super T>[] resolveSupertypes() {
 		Set<Type<?>> res = new LinkedHashSet<>();
 		Class<?> supertype = rawType;
 		java.lang.reflect.Type genericSupertype = null;
@@ -17,13 +17,19 @@ import static se.jbee.inject.lang.Type.raw;
 import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.function.*;
@@ -290,14 +296,17 @@ public final class Utils {
 	 *         The opposite of monomodal is multimodal.
 	 */
 	public static boolean isClassMonomodal(Class<?> cls) {
-		if (cls.isInterface())
-			return false;
+		return !cls.isInterface() && Metadata.of(cls).isMonomodal();
+	}
+
+	static boolean scanMonomodal(Class<?> cls) {
 		if (cls == Object.class)
 			return true;
-		for (Field f : cls.getDeclaredFields())
+		Metadata metadata = Metadata.of(cls);
+		for (Field f : metadata.declaredFields())
 			if (!Modifier.isStatic(f.getModifiers()))
 				return false;
-		for (Constructor<?> c : cls.getDeclaredConstructors())
+		for (Constructor<?> c : metadata.declaredConstructors())
 			// maybe arguments are passed to super-type so we check it too
 			if (c.getParameterCount() > 0)
 				return isClassMonomodal(cls.getSuperclass());
@@ -312,9 +321,13 @@ public final class Utils {
 	public static boolean isClassBanal(Class<?> cls) {
 		return !cls.isInterface() && !isAbstract(cls.getModifiers())
 			&& !cls.isEnum() && !cls.isAnnotation() && !cls.isArray()
-			&& cls.getDeclaredConstructors().length == 1
-			&& cls.getDeclaredConstructors()[0].getParameterCount() == 0
-			&& isClassMonomodal(cls);
+			&& hasOnlyDefaultConstructor(cls) && isClassMonomodal(cls);
+	}
+
+	private static boolean hasOnlyDefaultConstructor(Class<?> cls) {
+		Constructor<?>[] constructors = Metadata.of(cls).declaredConstructors();
+		return constructors.length == 1
+			&& constructors[0].getParameterCount() == 0;
 	}
 
 	/* Members */
@@ -341,6 +354,10 @@ public final class Utils {
 	 * Returns the constructor with most visible visibility and longest argument
 	 * list. Self-referencing constructors are ignored.
 	 *
+	 * When the {@link ConstructorIndex#isUsed()} and the type is contained in
+	 * it the indexed constructor is looked up directly instead of comparing
+	 * all declared constructors.
+	 *
 	 * @param <T> type that should be constructed/instantiated
 	 * @param type constructed type
 	 * @return The highest visibility constructor with the most parameters that
@@ -349,9 +366,20 @@ public final class Utils {
 	 * @throws NoSuchElementException in case the type is not constructable (has
 	 *             no constructors at all)
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T> Constructor<T> commonConstructor(Class<T> type) {
+		return (Constructor<T>) Metadata.of(type).commonConstructor();
+	}
+
+	static <T> Constructor<T> scanCommonConstructor(Class<T> type) {
+		if (ConstructorIndex.isUsed()) {
+			Constructor<T> indexed = ConstructorIndex.commonConstructor(type);
+			if (indexed != null)
+				return indexed;
+		}
 		@SuppressWarnings("unchecked")
-		Constructor<T>[] cs = (Constructor<T>[]) type.getDeclaredConstructors();
+		Constructor<T>[] cs = (Constructor<T>[]) Metadata.of(
+				type).declaredConstructors();
 		if (cs.length == 0)
 			throw new NoSuchElementException("Type does not declare any constructors: " + type);
 		if (cs.length == 1)
@@ -454,6 +482,88 @@ public final class Utils {
 		}
 	}
 
+	/**
+	 * Creates a {@link MethodHandle} for the given {@link Constructor},
+	 * {@link Method} or {@link Field} (getter) that is adapted to the uniform
+	 * type {@code (Object owner, Object[] args)Object}. The owner is ignored
+	 * for constructors and static members.
+	 *
+	 * @return the adapted {@link MethodHandle} or null if access to the member
+	 *         is restricted for a {@link MethodHandle} in which case the
+	 *         reflective {@link #construct(Constructor, Object[], Function)},
+	 *         {@link #produce(Method, Object, Object[], Function)} or
+	 *         {@link #share(Field, Object, Function)} has to be used
+	 */
+	public static MethodHandle invoker(Member target) {
+		Lookup lookup = MethodHandles.publicLookup();
+		try {
+			MethodHandle h;
+			int params = 0;
+			if (target instanceof Constructor) {
+				h = lookup.unreflectConstructor((Constructor<?>) target);
+				params = ((Constructor<?>) target).getParameterCount();
+			} else if (target instanceof Method) {
+				h = lookup.unreflect((Method) target);
+				params = ((Method) target).getParameterCount();
+			} else {
+				h = lookup.unreflectGetter((Field) target);
+			}
+			// only what the member itself throws is wrapped, not the failures of adapting the arguments
+			h = MethodHandles.catchException(h, Throwable.class,
+					MethodHandles.dropArguments(
+							TARGET_FAILED.asType(MethodType.methodType(
+									h.type().returnType(), Throwable.class)),
+							1, h.type().parameterList()));
+			h = h.asType(h.type().generic()).asSpreader(Object[].class, params);
+			return Modifier.isStatic(target.getModifiers())
+				|| target instanceof Constructor
+					? MethodHandles.dropArguments(h, 0, Object.class)
+					: h;
+		} catch (IllegalAccessException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static final MethodHandle TARGET_FAILED;
+
+	static {
+		try {
+			TARGET_FAILED = MethodHandles.lookup().findStatic(Utils.class,
+					"targetFailed",
+					MethodType.methodType(Object.class, Throwable.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	@SuppressWarnings("unused") // used via TARGET_FAILED
+	private static Object targetFailed(Throwable e)
+			throws InvocationTargetException {
+		throw new InvocationTargetException(e);
+	}
+
+	/**
+	 * Calls an {@link #invoker(Member)}. Exceptions thrown by the invoked
+	 * member are wrapped in an {@link InvocationTargetException} as they would
+	 * be when using reflection. Arguments that do not match the parameters
+	 * cause an {@link IllegalArgumentException} as with reflection.
+	 */
+	public static Object invoke(MethodHandle invoker, Object owner,
+			Object[] args,
+			Function<Exception, ? extends RuntimeException> exceptionTransformer) {
+		try {
+			return invoker.invokeExact(owner, args);
+		} catch (InvocationTargetException e) {
+			throw exceptionTransformer.apply(e);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw exceptionTransformer.apply(new IllegalArgumentException(
+					"Arguments do not match parameters: "
+						+ Arrays.toString(args), e));
+		}
+	}
+
 	private static Function<Exception, ? extends RuntimeException> wrap(Function<Exception, ? extends RuntimeException> exceptionTransformer) {
 		return e -> {
 			if (e instanceof IllegalAccessException) {
@@ -1,6 +1,7 @@
 open module test.integration {
 
 	requires java.logging;
+	requires java.compiler;
 	requires junit;
 
 	/* core */
@@ -9,6 +10,7 @@ open module test.integration {
 	requires se.jbee.inject.convert;
 	requires se.jbee.inject.action;
 	requires se.jbee.inject.event;
+	requires se.jbee.inject.aot;
 
 	requires com.example.app; // <- module under test
 }
@@ -0,0 +1,69 @@
+package test.integration.aot;
+
+/**
+ * Generated by {@link se.jbee.inject.aot.InjectorGenerator}, do not edit.
+ */
+public final class GeneratedInjector extends se.jbee.inject.aot.StaticInjector {
+
+	public GeneratedInjector(se.jbee.inject.bind.Binding<?>... fallback) {
+		super(fallback);
+	}
+
+	// test.integration.aot.TestInjectorGenerator.Repository  in * into * => *
+	private volatile test.integration.aot.TestInjectorGenerator.Repository s0;
+
+	private test.integration.aot.TestInjectorGenerator.Repository s0() {
+		test.integration.aot.TestInjectorGenerator.Repository res = s0;
+		if (res == null) {
+			synchronized (this) {
+				res = s0;
+				if (res == null) {
+					res = new test.integration.aot.TestInjectorGenerator.Repository();
+					s0 = res;
+				}
+			}
+		}
+		return res;
+	}
+
+	// test.integration.aot.TestInjectorGenerator.Service  in * into * => *
+	private volatile test.integration.aot.TestInjectorGenerator.Service s1;
+
+	private test.integration.aot.TestInjectorGenerator.Service s1() {
+		test.integration.aot.TestInjectorGenerator.Service res = s1;
+		if (res == null) {
+			synchronized (this) {
+				res = s1;
+				if (res == null) {
+					res = new test.integration.aot.TestInjectorGenerator.Service(s0(), this);
+					s1 = res;
+				}
+			}
+		}
+		return res;
+	}
+
+	@Override
+	protected boolean isStatic(Class<?> type) {
+		switch (type.getName()) {
+		case "test.integration.aot.TestInjectorGenerator$Repository":
+			return true;
+		case "test.integration.aot.TestInjectorGenerator$Service":
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	@Override
+	protected Object resolveStatic(Class<?> type) {
+		switch (type.getName()) {
+		case "test.integration.aot.TestInjectorGenerator$Repository":
+			return s0();
+		case "test.integration.aot.TestInjectorGenerator$Service":
+			return s1();
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package test.integration.aot;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.aot.BundleIndexProcessor;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.binder.BundleIndex;
+import se.jbee.inject.binder.ServiceLoaderBundles;
+import se.jbee.inject.binder.ServiceLoaderEnvBundles;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.lang.Type;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Compiles a few {@link Bundle}s with the {@link BundleIndexProcessor} and
+ * checks that the {@link BundleIndex} is used to install the
+ * {@link java.util.ServiceLoader} {@link Bundle}s without loading those that
+ * are not installed.
+ */
+public class TestBundleIndexProcessor {
+
+	private static final Path dir = Paths.get("target/bundle-index");
+
+	private static final String SOURCE = "package bdl;\n" //
+		+ "import se.jbee.inject.bind.*;\n" //
+		+ "public class Bundles {\n" //
+		+ "  public static class Core implements Bundle {\n" //
+		+ "    public void bootstrap(Bootstrapper b) {}\n" //
+		+ "  }\n" //
+		+ "  @se.jbee.inject.Extends(se.jbee.inject.Injector.class)\n" //
+		+ "  public static class Context implements Bundle {\n" //
+		+ "    public void bootstrap(Bootstrapper b) {}\n" //
+		+ "  }\n" //
+		+ "  @se.jbee.inject.Extends(se.jbee.inject.Env.class)\n" //
+		+ "  public static class Setup implements Bundle {\n" //
+		+ "    public void bootstrap(Bootstrapper b) {}\n" //
+		+ "  }\n" //
+		+ "  public static abstract class Base implements Bundle {}\n" //
+		+ "}\n";
+
+	private static final String SERVICES = "# indexed\n" //
+		+ "bdl.Bundles$Core\n" //
+		+ "bdl.Bundles$Context\n" //
+		+ "bdl.Bundles$Setup # for the Env\n";
+
+	/**
+	 * Records the names of the classes it loads itself.
+	 */
+	static final class RecordingClassLoader extends URLClassLoader {
+
+		final Set<String> loaded = new ConcurrentSkipListSet<>();
+
+		RecordingClassLoader(URL[] urls, ClassLoader parent) {
+			super(urls, parent);
+		}
+
+		@Override
+		protected Class<?> findClass(String name)
+				throws ClassNotFoundException {
+			loaded.add(name);
+			return super.findClass(name);
+		}
+	}
+
+	private static Path out;
+
+	@BeforeClass
+	public static void compile() throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(javac);
+		Path src = dir.resolve("src/bdl/Bundles.java");
+		out = dir.resolve("out");
+		Files.createDirectories(src.getParent());
+		Files.createDirectories(out);
+		Files.write(src, SOURCE.getBytes(StandardCharsets.UTF_8));
+		String classPath = location(Bundle.class) + File.pathSeparator
+			+ location(Env.class);
+		String processorPath = location(BundleIndexProcessor.class)
+			+ File.pathSeparator + location(BundleIndex.class)
+			+ File.pathSeparator + location(Env.class)
+			+ File.pathSeparator + location(Type.class);
+		int status = javac.run(null, null, null, "-d", out.toString(), "-cp",
+				classPath, "-processor", BundleIndexProcessor.class.getName(),
+				"-processorpath", processorPath, src.toString());
+		assertEquals(0, status);
+		Path services = out.resolve(BundleIndex.SERVICES);
+		Files.createDirectories(services.getParent());
+		Files.write(services, SERVICES.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String location(Class<?> type) {
+		try {
+			return Paths.get(type.getProtectionDomain().getCodeSource()
+					.getLocation().toURI()).toString();
+		} catch (URISyntaxException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void indexContainsExtendsTargetsOfConcreteBundles()
+			throws IOException {
+		List<String> lines = Files.readAllLines(
+				out.resolve(BundleIndex.RESOURCE));
+		assertEquals(asList( //
+				"bdl.Bundles$Context=" + Injector.class.getName(), //
+				"bdl.Bundles$Core=", //
+				"bdl.Bundles$Setup=" + Env.class.getName()), lines);
+	}
+
+	@Test
+	public void servicesAreReadInOrderWithoutComments() throws IOException {
+		try (RecordingClassLoader loader = newLoader()) {
+			List<String> services = asList(
+					BundleIndex.services(loader).toArray(new String[0]));
+			assertEquals(asList("bdl.Bundles$Core", "bdl.Bundles$Context",
+					"bdl.Bundles$Setup"),
+					services.subList(services.size() - 3, services.size()));
+		}
+	}
+
+	@Test
+	public void bundlesNotTargetingTheInjectorAreNotLoaded()
+			throws IOException {
+		try (RecordingClassLoader loader = newLoader()) {
+			List<String> installed = installed(loader,
+					ServiceLoaderBundles.class);
+			assertTrue(installed.contains("bdl.Bundles$Core"));
+			assertTrue(installed.contains("bdl.Bundles$Context"));
+			assertFalse(installed.contains("bdl.Bundles$Setup"));
+			assertFalse(loader.loaded.contains("bdl.Bundles$Setup"));
+		}
+	}
+
+	@Test
+	public void bundlesNotTargetingTheEnvAreNotLoaded() throws IOException {
+		try (RecordingClassLoader loader = newLoader()) {
+			List<String> installed = installed(loader,
+					ServiceLoaderEnvBundles.class);
+			assertTrue(installed.contains("bdl.Bundles$Setup"));
+			assertFalse(installed.contains("bdl.Bundles$Core"));
+			assertFalse(loader.loaded.contains("bdl.Bundles$Core"));
+			assertFalse(loader.loaded.contains("bdl.Bundles$Context"));
+		}
+	}
+
+	private static RecordingClassLoader newLoader() throws IOException {
+		return new RecordingClassLoader(new URL[] { out.toUri().toURL() },
+				TestBundleIndexProcessor.class.getClassLoader());
+	}
+
+	private static List<String> installed(ClassLoader loader,
+			Class<? extends Bundle> root) {
+		Thread current = Thread.currentThread();
+		ClassLoader before = current.getContextClassLoader();
+		current.setContextClassLoader(loader);
+		try {
+			Class<? extends Bundle>[] bundles = Bootstrap.bundler(
+					Environment.DEFAULT).bundle(root);
+			String[] names = new String[bundles.length];
+			for (int i = 0; i < bundles.length; i++)
+				names[i] = bundles[i].getName();
+			return asList(names);
+		} finally {
+			current.setContextClassLoader(before);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package test.integration.aot;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import se.jbee.inject.aot.ConstructorIndexProcessor;
+import se.jbee.inject.lang.ConstructorIndex;
+import se.jbee.inject.lang.Utils;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Compiles a few classes with the {@link ConstructorIndexProcessor} and checks
+ * that the {@link ConstructorIndex} yields the same constructors as a scan of
+ * the declared constructors using the rules of
+ * {@link Utils#commonConstructor(Class)}.
+ */
+public class TestConstructorIndexProcessor {
+
+	private static final Path dir = Paths.get("target/index");
+
+	private static final String SOURCE = "package idx;\n" //
+		+ "public class Service {\n" //
+		+ "  public Service() {}\n" //
+		+ "  public Service(String name, int[] ids) {}\n" //
+		+ "  Service(String name, int[] ids, long x) {}\n" //
+		+ "  public static class Nested<T> {\n" //
+		+ "    public Nested(java.util.List<T> ts, Nested<T> self) {}\n" //
+		+ "    protected Nested(T[] ts) {}\n" //
+		+ "  }\n" //
+		+ "  public class Inner {}\n" //
+		+ "}\n";
+
+	private static ClassLoader loader;
+
+	@BeforeClass
+	public static void compile() throws IOException {
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		assumeNotNull(javac);
+		Path src = dir.resolve("src/idx/Service.java");
+		Path out = dir.resolve("out");
+		Files.createDirectories(src.getParent());
+		Files.createDirectories(out);
+		Files.write(src, SOURCE.getBytes(StandardCharsets.UTF_8));
+		String processorPath = location(ConstructorIndexProcessor.class)
+			+ File.pathSeparator + location(ConstructorIndex.class);
+		int status = javac.run(null, null, null, "-d", out.toString(),
+				"-processor", ConstructorIndexProcessor.class.getName(),
+				"-processorpath", processorPath, src.toString());
+		assertEquals(0, status);
+		loader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+				TestConstructorIndexProcessor.class.getClassLoader());
+	}
+
+	private static String location(Class<?> type) {
+		try {
+			return Paths.get(type.getProtectionDomain().getCodeSource()
+					.getLocation().toURI()).toString();
+		} catch (URISyntaxException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void indexContainsCommonConstructorParameterTypes()
+			throws IOException {
+		List<String> lines = Files.readAllLines(
+				dir.resolve("out").resolve(ConstructorIndex.RESOURCE));
+		assertEquals(asList( //
+				"idx.Service=java.lang.String,[I", //
+				"idx.Service$Nested=[Ljava.lang.Object;"), lines);
+	}
+
+	@Test
+	public void indexYieldsSameConstructorAsScan() throws Exception {
+		Class<?> service = loader.loadClass("idx.Service");
+		Constructor<?> indexed = ConstructorIndex.commonConstructor(service);
+		assertNotNull(indexed);
+		assertEquals(scan(service), indexed);
+		assertArrayEquals(new Class<?>[] { String.class, int[].class },
+				indexed.getParameterTypes());
+		Class<?> nested = loader.loadClass("idx.Service$Nested");
+		assertEquals(scan(nested), ConstructorIndex.commonConstructor(nested));
+	}
+
+	@Test
+	public void indexIsOnlyUsedInNativeImages() {
+		assertFalse(ConstructorIndex.isUsed());
+	}
+
+	/**
+	 * The rules of {@link Utils#commonConstructor(Class)} applied to the
+	 * declared constructors without consulting any index: the most visible
+	 * constructor, of those the one with most parameters, ignoring those
+	 * that have a parameter of the declaring class.
+	 */
+	private static Constructor<?> scan(Class<?> type) {
+		Constructor<?> res = null;
+		for (Constructor<?> c : type.getDeclaredConstructors()) {
+			if (asList(c.getParameterTypes()).contains(type))
+				continue;
+			if (res == null || visibility(c) > visibility(res)
+				|| visibility(c) == visibility(res)
+					&& c.getParameterCount() > res.getParameterCount())
+				res = c;
+		}
+		return res;
+	}
+
+	private static int visibility(Constructor<?> c) {
+		int m = c.getModifiers();
+		return Modifier.isPublic(m) ? 3 : Modifier.isProtected(m) ? 2
+			: Modifier.isPrivate(m) ? 0 : 1;
+	}
+
+	@Test
+	public void nonStaticInnerClassesAreNotIndexed() throws Exception {
+		assertNull(ConstructorIndex.commonConstructor(
+				loader.loadClass("idx.Service$Inner")));
+	}
+}
@@ -0,0 +1,150 @@
+package test.integration.aot;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.aot.InjectorGenerator;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static se.jbee.inject.Name.named;
+
+/**
+ * Tests the {@link InjectorGenerator} and the {@link GeneratedInjector} it
+ * generated for the {@link GeneratorModule}.
+ *
+ * Should the generator change the {@link GeneratedInjector} has to be
+ * generated again using {@link InjectorGenerator#generate(Path, String,
+ * Binding[])}.
+ */
+public class TestInjectorGenerator {
+
+	public static class Repository {
+
+		public Repository() {
+			// just to have a public constructor
+		}
+	}
+
+	public static class Service {
+
+		final Repository repository;
+		final Injector context;
+
+		public Service(Repository repository, Injector context) {
+			this.repository = repository;
+			this.context = context;
+		}
+	}
+
+	public static class Controller {
+
+		final Service service;
+		final String path;
+
+		public Controller(Service service, String path) {
+			this.service = service;
+			this.path = path;
+		}
+	}
+
+	static class Hidden {
+
+		final Service service;
+
+		Hidden(Service service) {
+			this.service = service;
+		}
+	}
+
+	static class GeneratorModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			construct(Repository.class);
+			construct(Service.class);
+			construct(Controller.class);
+			construct(Hidden.class);
+			bind(String.class).toSupplier((dep, context) -> "/");
+			bind(named("special"), Controller.class).toConstructor();
+		}
+	}
+
+	private static final Path GENERATED = Paths.get(
+			"src/test.integration/test/java/test/integration/aot/GeneratedInjector.java");
+
+	private final Binding<?>[] bindings = Bootstrap.bindings(
+			Environment.DEFAULT.with(Env.GP_USE_DEEP_REFLECTION, boolean.class,
+					true), GeneratorModule.class, Bindings.newBindings());
+
+	private final Injector injector = new GeneratedInjector(bindings);
+
+	@Test
+	public void onlyProvableTypesAreStatic() {
+		assertEquals(new HashSet<>(asList(Repository.class, Service.class)),
+				InjectorGenerator.staticTypes(bindings));
+	}
+
+	@Test
+	public void staticTypesAreConstructedDirectly() {
+		String src = InjectorGenerator.generate("test.Injector", bindings);
+		assertTrue(src.contains("new test.integration.aot"
+			+ ".TestInjectorGenerator.Repository()"));
+		assertTrue(src.contains("new test.integration.aot"
+			+ ".TestInjectorGenerator.Service(s0(), this)"));
+		assertTrue(src.contains("case \"test.integration.aot"
+			+ ".TestInjectorGenerator$Repository\":"));
+	}
+
+	@Test
+	public void staticInstancesAreSingletons() {
+		Service service = injector.resolve(Service.class);
+		assertNotNull(service);
+		assertSame(service, injector.resolve(Service.class));
+		assertSame(injector.resolve(Repository.class), service.repository);
+		assertSame(injector, service.context);
+	}
+
+	@Test
+	public void fallbackSharesStaticInstances() {
+		Service service = injector.resolve(Service.class);
+		assertSame(service, injector.resolve(Controller.class).service);
+		assertSame(service, injector.resolve(Hidden.class).service);
+		assertEquals("/", injector.resolve(Controller.class).path);
+	}
+
+	@Test
+	public void namedInstancesAreResolvedByFallback() {
+		Controller special = injector.resolve(named("special"),
+				Controller.class);
+		assertNotNull(special);
+		assertSame(injector.resolve(Service.class), special.service);
+	}
+
+	@Test
+	public void generatedInjectorIsUpToDate() throws IOException {
+		assumeTrue(Files.isRegularFile(GENERATED));
+		String expected = InjectorGenerator.generate(
+				GeneratedInjector.class.getName(), bindings);
+		String actual = new String(Files.readAllBytes(GENERATED),
+				StandardCharsets.UTF_8);
+		assertEquals("GeneratedInjector needs to be generated again", expected,
+				actual);
+	}
+}
@@ -0,0 +1,131 @@
+package test.integration.aot;
+
+import org.junit.Test;
+import se.jbee.inject.Annotated;
+import se.jbee.inject.aot.NativeImageConfig;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.config.ProducesBy;
+import se.jbee.inject.config.SharesBy;
+
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the configuration generated by {@link NativeImageConfig}
+ * contains all members invoked by the {@link Binding}s and all bundles.
+ */
+public class TestNativeImageConfig {
+
+	public static class Service {
+
+		public Service(String name, int[] ids) {
+			// just to have parameters
+		}
+	}
+
+	public static class Factory {
+
+		public static final Long ANSWER = 42L;
+
+		public static StringBuilder builder(Service service) {
+			return new StringBuilder();
+		}
+	}
+
+	static class NativeImageConfigBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(NativeImageConfigModule.class);
+		}
+	}
+
+	static class NativeImageConfigModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(String.class).to("name");
+			bind(int[].class).to(new int[0]);
+			construct(Service.class);
+			autobind().produceBy(ProducesBy.declaredMethods).in(Factory.class);
+			autobind().shareBy(SharesBy.declaredFields).in(Factory.class);
+		}
+	}
+
+	private final String config = NativeImageConfig.reflectConfig(
+			Environment.DEFAULT, NativeImageConfigBundle.class);
+
+	@Test
+	public void allBundlesAreIncluded() {
+		for (Class<?> bundle : Bootstrap.bundler(Environment.DEFAULT).bundle(
+				NativeImageConfigBundle.class))
+			assertTrue(bundle.getName(),
+					config.contains("\"name\": \"" + bundle.getName() + "\""));
+	}
+
+	@Test
+	public void allDeclaredFieldsOfBundlesAreIncluded() {
+		String module = "\"name\": \"" + NativeImageConfigModule.class.getName()
+			+ "\"";
+		int start = config.indexOf(module);
+		assertTrue(start >= 0);
+		String entry = config.substring(start, config.indexOf('}', start));
+		assertTrue(entry.contains("\"allDeclaredFields\": true"));
+		String factory = "\"name\": \"" + Factory.class.getName() + "\"";
+		start = config.indexOf(factory);
+		assertFalse(config.substring(start, config.indexOf('}', start)).contains(
+				"allDeclaredFields"));
+	}
+
+	@Test
+	public void allInvokedMembersAreIncluded() {
+		Binding<?>[] bindings = Bootstrap.bindings(Environment.DEFAULT,
+				NativeImageConfigBundle.class, Bindings.newBindings());
+		int members = 0;
+		for (Binding<?> b : bindings) {
+			if (b.supplier instanceof Annotated) {
+				AnnotatedElement e = ((Annotated) b.supplier).element();
+				if (e instanceof Member) {
+					members++;
+					Member m = (Member) e;
+					assertTrue(m.toString(), config.contains(
+							"\"name\": \"" + m.getDeclaringClass().getName() + "\""));
+				}
+			}
+		}
+		assertTrue(members >= 3);
+	}
+
+	@Test
+	public void membersAreReferencedBySignature() {
+		assertTrue(config.contains("{ \"name\": \"<init>\", "
+			+ "\"parameterTypes\": [\"java.lang.String\", \"int[]\"] }"));
+		assertTrue(config.contains("{ \"name\": \"builder\", "
+			+ "\"parameterTypes\": [\"" + Service.class.getName() + "\"] }"));
+		assertTrue(config.contains("{ \"name\": \"ANSWER\" }"));
+	}
+
+	@Test
+	public void filesAreWritten() throws IOException {
+		Path dir = Paths.get("target/native-image");
+		NativeImageConfig.generate(Environment.DEFAULT,
+				NativeImageConfigBundle.class, dir);
+		assertTrue(Files.isRegularFile(
+				dir.resolve(NativeImageConfig.REFLECT_CONFIG)));
+		assertTrue(new String(Files.readAllBytes(
+				dir.resolve(NativeImageConfig.RESOURCE_CONFIG))).contains(
+						"constructors.index"));
+	}
+}
@@ -0,0 +1,105 @@
+package test.integration.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Instance.instance;
+import static se.jbee.inject.Name.named;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import se.jbee.inject.Dependency;
+import se.jbee.inject.Injection;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Locator;
+import se.jbee.inject.ScopePermanence;
+import se.jbee.inject.UnresolvableDependency.DependencyCycle;
+import se.jbee.inject.UnresolvableDependency.UnstableDependency;
+
+/**
+ * Checks the {@link Injection} hierarchy of {@link Dependency}s for deep
+ * object graphs.
+ */
+public class TestDependency {
+
+	private static final int DEPTH = 25;
+
+	private static Instance<String> level(int i) {
+		return instance(named("level" + i), raw(String.class));
+	}
+
+	private static Dependency<Integer> deep(int depth) {
+		Dependency<Integer> dep = dependency(Integer.class);
+		for (int i = 0; i < depth; i++)
+			dep = dep.injectingInto(new Locator<>(level(i)),
+					ScopePermanence.singleton);
+		return dep;
+	}
+
+	@Test
+	public void targetLevelsCountFromTheInnermost() {
+		Dependency<Integer> dep = deep(DEPTH);
+		assertEquals(DEPTH, dep.injectionDepth());
+		for (int level = 0; level < DEPTH; level++)
+			assertEquals(level(DEPTH - 1 - level), dep.target(level));
+		assertSame(Instance.ANY, dep.target(DEPTH));
+	}
+
+	@Test
+	public void iterationIsFromTheOutermost() {
+		List<Instance<?>> targets = new ArrayList<>();
+		for (Injection injection : deep(DEPTH))
+			targets.add(injection.target.instance);
+		assertEquals(DEPTH, targets.size());
+		for (int i = 0; i < DEPTH; i++)
+			assertEquals(level(i), targets.get(i));
+	}
+
+	@Test
+	public void equalHierarchiesAreEqualAndHaveSameHashCode() {
+		Dependency<Integer> a = deep(DEPTH);
+		Dependency<Integer> b = deep(DEPTH);
+		assertEquals(a, b);
+		assertEquals(a.hashCode(), b.hashCode());
+		assertNotEquals(a, deep(DEPTH - 1));
+		assertNotEquals(a, b.uninject());
+		assertEquals(deep(DEPTH - 1), a.uninject());
+		assertEquals(dependency(Integer.class), deep(1).uninject());
+		assertTrue(deep(1).uninject().isUntargeted());
+	}
+
+	@Test
+	public void cyclesAreDetectedAtAnyDepth() {
+		Dependency<Integer> dep = deep(DEPTH);
+		for (int i = 0; i < DEPTH; i++) {
+			try {
+				dep.injectingInto(new Locator<>(level(i)),
+						ScopePermanence.singleton);
+				fail("Cycle not detected for level " + i);
+			} catch (DependencyCycle e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void unstableNestingIsDetectedAtAnyDepth() {
+		Dependency<Integer> dep = deep(DEPTH);
+		try {
+			dep.injectingInto(new Locator<>(level(DEPTH)),
+					ScopePermanence.unstable);
+			fail("Unstable scope nesting not detected");
+		} catch (UnstableDependency e) {
+			// expected
+		}
+		assertEquals(DEPTH + 1, dep.ignoredScoping().injectingInto(
+				new Locator<>(level(DEPTH)),
+				ScopePermanence.unstable).injectionDepth());
+	}
+}
@@ -1,6 +1,7 @@
 package test.integration.api;
 
 import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isTransient;
 import static java.lang.reflect.Modifier.isPublic;
 import static org.junit.Assert.*;
 import static se.jbee.inject.lang.Utils.newArray;
@@ -84,7 +85,8 @@ public class TestEqualsHashCode {
 		assertEquals(a.hashCode(), a.hashCode());
 		assertEquals(a.hashCode(), a2.hashCode());
 		assertNotSame(a, b);
-		assertNotSame(a, a2);
+		if (cls != Type.class && cls != Name.class) // both are canonical
+			assertNotSame(a, a2);
 		assertNotEquals(a, b);
 		assertNotEquals(b, a);
 		assertNotEquals(a, null);
@@ -92,7 +94,8 @@ public class TestEqualsHashCode {
 
 		assertTrue("Value type is not final.", isFinal(cls.getModifiers()));
 		for (Field f : cls.getDeclaredFields()) {
-			if (!f.isSynthetic()) {
+			// transient fields are caches, not part of the value
+			if (!f.isSynthetic() && !isTransient(f.getModifiers())) {
 				assertTrue("Field " + f.getName() + " is not final.",
 						isFinal(f.getModifiers()));
 			}
@@ -0,0 +1,171 @@
+package test.integration.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.lang.Type.raw;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.junit.Test;
+import se.jbee.inject.binder.New;
+import se.jbee.inject.lang.Metadata;
+import se.jbee.inject.lang.Type;
+import se.jbee.inject.lang.Utils;
+
+/**
+ * Tests the process wide {@link Metadata} cache.
+ */
+public class TestMetadata {
+
+	static class Stateless {
+
+		Stateless() {
+			// no state
+		}
+
+		void run(List<String> names) {
+			// just a method
+		}
+	}
+
+	static class Stateful {
+
+		final String name;
+
+		Stateful(String name) {
+			this.name = name;
+		}
+
+		Stateful() {
+			this("default");
+		}
+	}
+
+	static class Scanned {
+
+		int field;
+	}
+
+	static class Uncounted {
+
+		int field;
+	}
+
+	@Test
+	public void scansAreCountedOnlyWhenNotCached() {
+		Metadata.countScans(true);
+		try {
+			long before = Metadata.scans();
+			assertFalse(Metadata.of(Scanned.class).isMonomodal());
+			long after = Metadata.scans();
+			assertTrue(after > before);
+			assertFalse(Metadata.of(Scanned.class).isMonomodal());
+			Metadata.of(Scanned.class).declaredFields();
+			assertEquals(after, Metadata.scans());
+		} finally {
+			Metadata.countScans(false);
+		}
+	}
+
+	@Test
+	public void scansAreOnlyCountedWhenEnabled() {
+		long before = Metadata.scans();
+		assertFalse(Metadata.of(Uncounted.class).isMonomodal());
+		assertEquals(before, Metadata.scans());
+	}
+
+	@Test
+	public void metadataIsSharedPerClass() {
+		assertSame(Metadata.of(Stateless.class), Metadata.of(Stateless.class));
+		assertNotSame(Metadata.of(Stateless.class),
+				Metadata.of(Stateful.class));
+	}
+
+	@Test
+	public void membersAreReturnedAsCopies() {
+		Metadata metadata = Metadata.of(Stateless.class);
+		Method[] methods = metadata.declaredMethods();
+		methods[0] = null;
+		assertNotSame(methods, metadata.declaredMethods());
+		assertEquals("run", metadata.declaredMethods()[0].getName());
+		Constructor<?>[] constructors = metadata.declaredConstructors();
+		constructors[0] = null;
+		assertEquals(1, metadata.declaredConstructors().length);
+		assertNull(constructors[0]);
+	}
+
+	@Test
+	public void commonConstructorIsCached() throws Exception {
+		assertEquals(Stateful.class.getDeclaredConstructor(String.class),
+				Utils.commonConstructor(Stateful.class));
+		Metadata.countScans(true);
+		try {
+			long before = Metadata.scans();
+			assertEquals(Stateful.class.getDeclaredConstructor(String.class),
+					Utils.commonConstructor(Stateful.class));
+			assertEquals(before, Metadata.scans());
+		} finally {
+			Metadata.countScans(false);
+		}
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void accessibilityIsNotShared() {
+		Constructor<?> common = Utils.commonConstructor(Stateful.class);
+		assertNotSame(common, Utils.commonConstructor(Stateful.class));
+		common.setAccessible(true);
+		assertFalse(Utils.commonConstructor(Stateful.class).isAccessible());
+		Method run = Metadata.detached(
+				Metadata.of(Stateless.class).declaredMethods()[0]);
+		run.setAccessible(true);
+		assertFalse(Metadata.of(Stateless.class).declaredMethods()[0].isAccessible());
+	}
+
+	@Test
+	@SuppressWarnings("deprecation")
+	public void boundMembersAreDetached() {
+		Constructor<?> cached = Metadata.of(
+				Stateless.class).declaredConstructors()[0];
+		New<?> bound = New.newInstance(cached);
+		assertNotSame(cached, bound.target);
+		bound.target.setAccessible(true);
+		assertFalse(cached.isAccessible());
+	}
+
+	@Test
+	public void detachedMembersAreEqualCopies() throws Exception {
+		Method run = Stateless.class.getDeclaredMethod("run", List.class);
+		assertEquals(run, Metadata.detached(run));
+		assertNotSame(run, Metadata.detached(run));
+		Constructor<?> c = Stateful.class.getDeclaredConstructor();
+		assertEquals(c, Metadata.detached(c));
+		assertNotSame(c, Metadata.detached(c));
+	}
+
+	@Test
+	public void modalityIsCached() {
+		assertTrue(Utils.isClassMonomodal(Stateless.class));
+		assertTrue(Metadata.of(Stateless.class).isMonomodal());
+		assertFalse(Utils.isClassMonomodal(Stateful.class));
+		assertFalse(Utils.isClassMonomodal(Runnable.class));
+	}
+
+	@Test
+	public void parameterTypesAreCached() throws Exception {
+		Method run = Stateless.class.getDeclaredMethod("run", List.class);
+		Type<?>[] types = Type.parameterTypes(run);
+		assertArrayEquals(new Type<?>[] { raw(List.class).parametized(String.class) },
+				types);
+		types[0] = null;
+		assertArrayEquals(new Type<?>[] { raw(List.class).parametized(String.class) },
+				Type.parameterTypes(run));
+	}
+}
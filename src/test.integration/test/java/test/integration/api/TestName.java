@@ -1,9 +1,16 @@
 package test.integration.api;
 
+import static java.util.Collections.nCopies;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static se.jbee.inject.Name.named;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.junit.Test;
 import se.jbee.inject.Name;
 
@@ -75,4 +82,47 @@ public class TestName {
 		assertFalse(foobar.isCompatibleWith(named("foobbar")));
 		assertFalse(foobar.isCompatibleWith(named("foo")));
 	}
+
+	@Test
+	public void prefixShouldNotBeCompatibleWithShorterNameOrOtherPrefix() {
+		Name foo = named("foo*");
+		assertFalse(foo.isCompatibleWith(named("fo")));
+		assertFalse(foo.isCompatibleWith(named("bar")));
+		assertFalse(foo.isCompatibleWith(Name.DEFAULT));
+		assertTrue(foo.isCompatibleWith(named("foo*bar")));
+	}
+
+	@Test
+	public void exactNamesShouldOnlyBeCompatibleWithThemselves() {
+		assertFalse(named("foo").isCompatibleWith(named("bar")));
+		assertFalse(named("foo").isCompatibleWith(named("foobar")));
+		assertFalse(named("foo").isCompatibleWith(Name.DEFAULT));
+		assertTrue(Name.DEFAULT.isCompatibleWith(Name.DEFAULT));
+	}
+
+	@Test
+	public void equalNamesShouldBeSameInstance() {
+		assertSame(named("foo"), named("foo"));
+		assertSame(named("foo*"), named("foo").asPrefix());
+		assertSame(Name.ANY, named("*"));
+		assertSame(Name.DEFAULT, named(" "));
+		assertSame(named(String.class), named(String.class.getName() + ":"));
+	}
+
+	@Test
+	public void concurrentlyInternedNamesAreCanonical() throws Exception {
+		// a name no other test uses so all threads race to intern it
+		Callable<Name> intern = () -> named("concurrently-interned");
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			Name first = null;
+			for (Future<Name> f : pool.invokeAll(nCopies(64, intern))) {
+				if (first == null)
+					first = f.get();
+				assertSame(first, f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
 }
@@ -2,6 +2,7 @@ package test.integration.api;
 
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static se.jbee.inject.lang.Type.raw;
 
 import java.io.Serializable;
@@ -28,11 +29,46 @@ public class TestResource {
 				resources.stream().map(e -> e.serialID).collect(toList()));
 	}
 
+	/**
+	 * Comparing targets before names was not transitive so that sorting many
+	 * targeted named {@link Resource}s of the same raw type failed with
+	 * "Comparison method violates its general contract".
+	 */
+	@Test
+	public void naturalOrderIsTransitiveForNamedTargetedResources() {
+		Name[] names = { Name.DEFAULT, Name.ANY, Name.named("a"),
+				Name.named("ab"), Name.named("b") };
+		Target[] targets = { Target.ANY, Target.targeting(Integer.class),
+				Target.targeting(Number.class),
+				Target.ANY.injectingInto(Integer.class),
+				Target.ANY.within(Instance.anyOf(raw(Number.class))),
+				Target.ANY.inPackageOf(String.class) };
+		List<Resource<?>> resources = new ArrayList<>();
+		for (Name name : names)
+			for (Target target : targets)
+				resources.add(createResourceOf(resources.size(),
+						new Locator<>(Instance.instance(name, raw(String.class)),
+								target)));
+		for (Resource<?> a : resources)
+			for (Resource<?> b : resources) {
+				int ab = Integer.signum(a.compareTo(b));
+				assertEquals(-ab, Integer.signum(b.compareTo(a)));
+				if (ab <= 0)
+					for (Resource<?> c : resources)
+						if (b.compareTo(c) <= 0)
+							assertTrue(a + " <= " + b + " <= " + c,
+									a.compareTo(c) <= 0);
+			}
+	}
+
 	private Resource<?> createResourceOf(int serialID, Type<?> type) {
+		return createResourceOf(serialID, new Locator<>(Instance.anyOf(type)));
+	}
+
+	private Resource<?> createResourceOf(int serialID, Locator<?> signature) {
 		Source source = Source.source(getClass());
 		return new Resource<>(serialID, source, ScopePermanence.ignore,
-				new Locator<>(Instance.anyOf(type)),
-				Annotated.WITH_NO_ANNOTATIONS, Verifier.AOK,
+				signature, Annotated.WITH_NO_ANNOTATIONS, Verifier.AOK,
 				resource -> (dep -> null));
 	}
 }
@@ -1,15 +1,20 @@
 package test.integration.api;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static se.jbee.inject.Dependency.dependency;
+import static se.jbee.inject.Instance.anyOf;
 import static se.jbee.inject.Target.targeting;
+import static se.jbee.inject.lang.Type.raw;
 
+import java.io.Serializable;
 import java.util.List;
 
 import org.junit.Test;
 import se.jbee.inject.Dependency;
 import se.jbee.inject.Target;
+import se.jbee.inject.lang.Qualifying;
 
 public class TestTarget {
 
@@ -21,4 +26,34 @@ public class TestTarget {
 		assertTrue(
 				target.isAccessibleFor(dependency.injectingInto(List.class)));
 	}
+
+	/**
+	 * Ordering by target type name before parent depth and type specificity
+	 * was not transitive so that sorting many targeted bindings failed with
+	 * "Comparison method violates its general contract".
+	 */
+	@Test
+	public void orderIsTransitiveAndAgreesWithQualification() {
+		Target[] targets = { Target.ANY, targeting(Integer.class),
+				targeting(Number.class), targeting(Serializable.class),
+				targeting(String.class), targeting(CharSequence.class),
+				targeting(Integer.class).within(anyOf(raw(Number.class))),
+				targeting(String.class).within(anyOf(raw(Serializable.class))),
+				Target.ANY.within(anyOf(raw(CharSequence.class))) };
+		for (Target a : targets)
+			for (Target b : targets) {
+				int ab = Integer.signum(order(a, b));
+				assertEquals(-ab, Integer.signum(order(b, a)));
+				if (ab <= 0)
+					for (Target c : targets)
+						if (order(b, c) <= 0)
+							assertTrue(a + " <= " + b + " <= " + c,
+									order(a, c) <= 0);
+			}
+	}
+
+	private static int order(Target a, Target b) {
+		int res = Qualifying.compare(a, b);
+		return res != 0 ? res : a.compareTo(b);
+	}
 }
@@ -1,8 +1,11 @@
 package test.integration.api;
 
+import static java.util.Collections.nCopies;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static se.jbee.inject.lang.Type.classType;
@@ -17,8 +20,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
+import se.jbee.inject.lang.Qualifying;
 import se.jbee.inject.lang.Type;
 
 @SuppressWarnings({ "rawtypes" })
@@ -187,6 +196,15 @@ public class TestType {
 		assertTrue(string.moreQualifiedThan(integer));
 	}
 
+	@Test
+	public void independentTypesCompareAsEquallyQualified() {
+		Type<Integer> integer = Type.raw(Integer.class);
+		Type<String> string = Type.raw(String.class);
+		assertEquals(0, Qualifying.compare(integer, string));
+		assertEquals(0, Qualifying.compare(string, integer));
+		assertEquals(-1, Qualifying.compare(integer, Type.raw(Number.class)));
+	}
+
 	private static void assertMorePrecise(Type<?> morePrecise,
 			Type<?> lessPrecise) {
 		assertTrue(morePrecise.moreQualifiedThan(lessPrecise));
@@ -358,6 +376,62 @@ public class TestType {
 						"typeVariableWithActualTypeArgument2")).actualTypeArguments().toString());
 	}
 
+	@Test
+	public void rawTypesAreCanonical() {
+		assertSame(raw(String.class), raw(String.class));
+		assertSame(raw(Integer.class), raw(int.class));
+		assertSame(raw(String.class), raw(String.class).asUpperBound().asExactType());
+	}
+
+	@Test
+	public void parameterizedTypesAreCanonical() {
+		assertSame(raw(List.class).parametized(String.class),
+				raw(List.class).parametized(String.class));
+		assertSame(classType(List.class), classType(List.class));
+		assertSame(raw(List.class).parametized(String.class).addArrayDimension(),
+				raw(List.class).parametized(String.class).addArrayDimension());
+	}
+
+	@Test
+	public void concurrentlyInternedTypesAreCanonical() throws Exception {
+		// a type no other test creates so all threads race to intern it
+		Callable<Type<?>> intern = () -> raw(Map.class).parametized(
+				Thread.class, ThreadGroup.class);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			Type<?> first = null;
+			for (Future<Type<?>> f : pool.invokeAll(nCopies(64, intern))) {
+				if (first == null)
+					first = f.get();
+				assertSame(first, f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void hashCodeIncludesParametersAndUpperBound() {
+		Type<List> listOfString = raw(List.class).parametized(String.class);
+		assertNotEquals(listOfString.hashCode(),
+				raw(List.class).parametized(Integer.class).hashCode());
+		assertNotEquals(listOfString.hashCode(),
+				listOfString.asUpperBound().hashCode());
+		assertNotEquals(raw(List.class).hashCode(), listOfString.hashCode());
+	}
+
+	@Test
+	public void supertypesAreComputedOnceButReturnedAsCopy() {
+		Type<? super List>[] supertypes = raw(List.class).parametized(
+				String.class).supertypes();
+		Type<?> first = supertypes[0];
+		supertypes[0] = null;
+		Type<? super List>[] again = raw(List.class).parametized(
+				String.class).supertypes();
+		assertSame(first, again[0]);
+		assertEquals(supertypes.length, again.length);
+	}
+
 	private static void assertContains(Type<?>[] actual, Type<?> expected) {
 		for (Type<?> type : actual) {
 			if (type.equalTo(expected)) {
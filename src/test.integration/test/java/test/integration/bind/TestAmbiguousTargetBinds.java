@@ -0,0 +1,75 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Target;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A test that demonstrates which of two targeted bindings is used when both
+ * match the target and neither {@link Target} is more qualified than the
+ * other because their target types are unrelated.
+ *
+ * The {@link Target} of the more specific type, the one with more supertypes,
+ * is used independent of the order the bindings are declared in. Before the
+ * binding declared first was used, so {@link AlphaFirstModule} injected
+ * {@code "alpha"} and {@link BetaFirstModule} injected {@code "beta"}.
+ */
+public class TestAmbiguousTargetBinds {
+
+	interface Alpha {
+		// a target type without supertypes
+	}
+
+	interface Gamma {
+		// the supertype of Beta
+	}
+
+	interface Beta extends Gamma {
+		// a target type with one supertype
+	}
+
+	public static class Widget implements Alpha, Beta {
+
+		final String label;
+
+		public Widget(String label) {
+			this.label = label;
+		}
+	}
+
+	private static class AlphaFirstModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			injectingInto(Alpha.class).bind(String.class).to("alpha");
+			injectingInto(Beta.class).bind(String.class).to("beta");
+			construct(Widget.class);
+		}
+	}
+
+	private static class BetaFirstModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			injectingInto(Beta.class).bind(String.class).to("beta");
+			injectingInto(Alpha.class).bind(String.class).to("alpha");
+			construct(Widget.class);
+		}
+	}
+
+	@Test
+	public void targetOfMoreSpecificTypeIsUsedWhenDeclaredLast() {
+		Injector context = Bootstrap.injector(AlphaFirstModule.class);
+		assertEquals("beta", context.resolve(Widget.class).label);
+	}
+
+	@Test
+	public void targetOfMoreSpecificTypeIsUsedWhenDeclaredFirst() {
+		Injector context = Bootstrap.injector(BetaFirstModule.class);
+		assertEquals("beta", context.resolve(Widget.class).label);
+	}
+}
@@ -15,7 +15,10 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 import static se.jbee.inject.Cast.resourcesTypeFor;
 import static se.jbee.inject.Hint.relativeReferenceTo;
@@ -173,6 +176,26 @@ public class TestBootstrapper {
 
 	}
 
+	private static class EagerOrderBindsModule extends BinderModule {
+
+		static final List<String> created = new ArrayList<>();
+
+		@Override
+		protected void declare() {
+			bindScopePermanence(ScopePermanence.singleton.derive(
+					Scope.application).eager());
+			bind(named("supertype"), CharSequence.class).toSupplier(
+					(dep, context) -> created("supertype"));
+			bind(named("subtype"), String.class).toSupplier(
+					(dep, context) -> created("subtype"));
+		}
+
+		private static String created(String name) {
+			created.add(name);
+			return name;
+		}
+	}
+
 	private static class CustomMirrorBundle extends BootstrapperBundle {
 
 		@Override
@@ -279,6 +302,14 @@ public class TestBootstrapper {
 		assertEquals(1, EagerSingletonsBindsModule.eagers);
 	}
 
+	@Test
+	public void eagerSingletonsAreCreatedMostSpecificRawTypeFirst() {
+		EagerOrderBindsModule.created.clear();
+		Bootstrap.injector(EagerOrderBindsModule.class);
+		assertEquals(asList("subtype", "supertype"),
+				EagerOrderBindsModule.created);
+	}
+
 	@Test
 	public void thatCustomMirrorIsUsedToPickConstructor() {
 		Injector injector = Bootstrap.injector(CustomMirrorBundle.class);
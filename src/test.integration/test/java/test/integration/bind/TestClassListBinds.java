@@ -0,0 +1,119 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.config.ProducesBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the classes loaded during the bootstrapping of an
+ * {@link Injector} are written to the file given by {@link Env#GP_CLASS_LIST}
+ * in the format of a {@code -XX:SharedClassListFile}.
+ */
+public class TestClassListBinds {
+
+	static final Path file = Paths.get("target/classlist/test.classlist");
+
+	public static class Service {
+
+		final String name;
+
+		public Service(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Factory {
+
+		public static StringBuilder builder(Service service) {
+			return new StringBuilder(service.name);
+		}
+	}
+
+	/**
+	 * Not referenced anywhere else so it is loaded during bootstrapping.
+	 */
+	public static class EagerlyLoaded {
+
+		public EagerlyLoaded(Service service) {
+			// just a dependency
+		}
+	}
+
+	static class ClassListBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(ClassListBindsModule.class);
+		}
+	}
+
+	static class ClassListBindsModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(String.class).to("listed");
+			construct(Service.class);
+			construct(EagerlyLoaded.class);
+			autobind().produceBy(ProducesBy.declaredMethods).in(Factory.class);
+			bind(Runnable.class).to(() -> {});
+		}
+	}
+
+	private List<String> record() throws IOException {
+		Files.deleteIfExists(file);
+		Injector context = Bootstrap.injector(
+				Environment.DEFAULT.with(Env.GP_CLASS_LIST, Path.class, file),
+				ClassListBindsBundle.class);
+		assertEquals("listed", context.resolve(Service.class).name);
+		return Files.readAllLines(file);
+	}
+
+	@Test
+	public void bundlesAndModulesAreListed() throws IOException {
+		List<String> classes = record();
+		assertTrue(classes.contains(internalName(ClassListBindsBundle.class)));
+		assertTrue(classes.contains(internalName(ClassListBindsModule.class)));
+	}
+
+	@Test
+	public void boundClassesAreListed() throws IOException {
+		List<String> classes = record();
+		assertTrue(classes.contains(internalName(Service.class)));
+		assertTrue(classes.contains(internalName(Factory.class)));
+		assertTrue(classes.contains(internalName(EagerlyLoaded.class)));
+	}
+
+	@Test
+	public void lambdasAreNotListed() throws IOException {
+		for (String name : record()) {
+			assertFalse(name, name.contains("$$Lambda"));
+			assertFalse(name, name.contains("."));
+		}
+	}
+
+	@Test
+	public void noClassListIsWrittenByDefault() throws IOException {
+		Files.deleteIfExists(file);
+		Bootstrap.injector(ClassListBindsBundle.class);
+		assertFalse(Files.exists(file));
+	}
+
+	private static String internalName(Class<?> type) {
+		return type.getName().replace('.', '/');
+	}
+}
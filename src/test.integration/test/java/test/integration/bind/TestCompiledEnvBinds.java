@@ -0,0 +1,119 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.InconsistentDeclaration;
+import se.jbee.inject.Name;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.lang.Type;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.lang.Type.raw;
+
+/**
+ * Tests the lookup of properties in {@link Environment#compile()}d
+ * {@link Env}s that memorise the outcome of each lookup.
+ */
+public class TestCompiledEnvBinds {
+
+	/**
+	 * Counts the lookups that fall through to the decorated {@link Env}.
+	 */
+	static final class CountingEnv implements Env {
+
+		final AtomicInteger lookups = new AtomicInteger();
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T property(Name name, Type<T> property, Package scope) {
+			lookups.incrementAndGet();
+			if (property.rawType == String.class)
+				return (T) "counted";
+			throw new InconsistentDeclaration("undefined");
+		}
+	}
+
+	static class CompiledEnvBindsModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(String.class).to("compiled");
+		}
+	}
+
+	@Test
+	public void compiledEnvironmentIsReturnedAsIs() {
+		Env compiled = Environment.compile(new CountingEnv());
+		assertSame(compiled, Environment.compile(compiled));
+		assertSame(Environment.DEFAULT, Environment.compile(Environment.DEFAULT));
+	}
+
+	@Test
+	public void definedPropertiesAreLookedUpOnce() {
+		CountingEnv counting = new CountingEnv();
+		Env env = Environment.compile(counting);
+		assertEquals("counted", env.property(String.class, null));
+		assertEquals("counted", env.property(String.class, null));
+		assertEquals(1, counting.lookups.get());
+	}
+
+	@Test
+	public void undefinedPropertiesAreLookedUpOnce() {
+		CountingEnv counting = new CountingEnv();
+		Env env = Environment.compile(counting);
+		for (int i = 0; i < 3; i++) {
+			try {
+				env.property(Integer.class, null);
+				fail("Expected exception");
+			} catch (InconsistentDeclaration e) {
+				// expected
+			}
+		}
+		assertEquals(1, counting.lookups.get());
+		assertEquals(42, env.globalProperty("answer", raw(int.class), 42).intValue());
+	}
+
+	@Test
+	public void lookupsAreMemorisedPerPackage() {
+		CountingEnv counting = new CountingEnv();
+		Env env = Environment.compile(counting);
+		env.property(String.class, String.class.getPackage());
+		env.property(String.class, Test.class.getPackage());
+		env.property(String.class, Test.class.getPackage());
+		assertEquals(2, counting.lookups.get());
+	}
+
+	@Test
+	public void valuesOfCompiledEnvironmentAreUnaffectedByChanges() {
+		Environment env = new Environment().with(String.class, "before");
+		Environment compiled = env.compile();
+		env.with(String.class, "after");
+		assertEquals("before", compiled.property(String.class, null));
+		assertEquals("after", env.property(String.class, null));
+	}
+
+	@Test
+	public void nullValuesAreMemorised() {
+		Env env = Environment.override(
+				new Environment().with(String.class, null)).compile();
+		assertNull(env.property(String.class, null));
+		assertNull(env.property(String.class, null));
+	}
+
+	@Test
+	public void completedEnvironmentFallsBackToDefaults() {
+		Env env = Environment.compile(Environment.DEFAULT.complete(
+				Bootstrap.injector(CompiledEnvBindsModule.class).asEnv()));
+		assertEquals(false,
+				env.globalProperty(Env.GP_USE_DEEP_REFLECTION, true));
+		assertEquals(false,
+				env.globalProperty(Env.GP_USE_DEEP_REFLECTION, true));
+	}
+}
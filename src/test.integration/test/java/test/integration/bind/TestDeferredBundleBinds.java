@@ -0,0 +1,260 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Scope;
+import se.jbee.inject.UnresolvableDependency.UnstableDependency;
+import se.jbee.inject.bind.Bootstrapper;
+import se.jbee.inject.bind.Bundle;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * A test that demonstrates how a {@link Bundle} is installed with
+ * {@link Bootstrapper#installDeferred(Class, Class...)} so that its modules
+ * are only declared when one of its exported types is resolved the first
+ * time.
+ */
+public class TestDeferredBundleBinds {
+
+	static final AtomicInteger declared = new AtomicInteger();
+
+	public static final class Database {
+
+	}
+
+	public static final class Report {
+
+		final Database db;
+
+		public Report(Database db) {
+			this.db = db;
+		}
+	}
+
+	public static final class Export {
+
+		final Report report;
+
+		public Export(Report report) {
+			this.report = report;
+		}
+	}
+
+	public static final class Audit {
+
+		final String origin;
+
+		Audit(String origin) {
+			this.origin = origin;
+		}
+	}
+
+	public static final class Page {
+
+		final Audit audit;
+
+		public Page(Audit audit) {
+			this.audit = audit;
+		}
+	}
+
+	public static final class Core {
+
+		final Env env;
+		final Injector context;
+
+		public Core(Env env, Injector context) {
+			this.env = env;
+			this.context = context;
+		}
+	}
+
+	public static final class Ticket {
+
+	}
+
+	public static final class Desk {
+
+		final Ticket ticket;
+
+		public Desk(Ticket ticket) {
+			this.ticket = ticket;
+		}
+	}
+
+	static final class CoreModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(Database.class).toConstructor();
+		}
+	}
+
+	static final class ReportingModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			declared.incrementAndGet();
+			per(Scope.application).bind(Report.class).toConstructor();
+			per(Scope.application).bind(Export.class).toConstructor();
+		}
+	}
+
+	static final class TestDeferredBundleBindsBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(CoreModule.class);
+			installDeferred(ReportingModule.class, Report.class,
+					Export.class);
+		}
+	}
+
+	static final class PageModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(Page.class).toConstructor();
+		}
+	}
+
+	static final class AuditModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(Audit.class).to(new Audit("default"));
+			injectingInto(Page.class).bind(Audit.class).to(new Audit("page"));
+			bind(Core.class).toConstructor();
+		}
+	}
+
+	static final class TestDeferredBundleBindsAuditBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(PageModule.class);
+			installDeferred(AuditModule.class, Audit.class, Core.class);
+		}
+	}
+
+	static final class DeskModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per(Scope.application).bind(Desk.class).toConstructor();
+		}
+	}
+
+	static final class TicketModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per(Scope.injection).bind(Ticket.class).toConstructor();
+		}
+	}
+
+	static final class TestDeferredBundleBindsTicketBundle
+			extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(DeskModule.class);
+			installDeferred(TicketModule.class, Ticket.class);
+		}
+	}
+
+	@Test
+	public void deferredBundleIsNotDeclaredOnBootstrap() {
+		int before = declared.get();
+		Bootstrap.injector(TestDeferredBundleBindsBundle.class);
+		assertEquals(before, declared.get());
+	}
+
+	@Test
+	public void deferredBundleIsDeclaredOnceOnFirstResolve() {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsBundle.class);
+		int before = declared.get();
+		Report report = injector.resolve(Report.class);
+		assertEquals(before + 1, declared.get());
+		assertSame(report, injector.resolve(Report.class));
+		assertSame(report, injector.resolve(Export.class).report);
+		assertEquals(before + 1, declared.get());
+	}
+
+	@Test
+	public void deferredBundleCanInjectTypesOfTheCore() {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsBundle.class);
+		assertSame(injector.resolve(Database.class),
+				injector.resolve(Report.class).db);
+	}
+
+	@Test
+	public void concurrentFirstResolvesYieldSameInstance() throws Exception {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsBundle.class);
+		int before = declared.get();
+		Callable<Report> resolve = () -> injector.resolve(Report.class);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			Report first = null;
+			for (Future<Report> f : pool.invokeAll(nCopies(8, resolve))) {
+				if (first == null)
+					first = f.get();
+				assertSame(first, f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(before + 1, declared.get());
+	}
+
+	@Test
+	public void deferredExportsAreIncludedInArrays() {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsBundle.class);
+		assertEquals(asList(injector.resolve(Report.class)),
+				asList(injector.resolve(Report[].class)));
+	}
+
+	@Test
+	public void deferredBundleUsesTheEnvAndScopesOfTheCore() {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsAuditBundle.class);
+		Core core = injector.resolve(Core.class);
+		assertSame(injector.resolve(Env.class), core.env);
+		assertSame(injector.resolve(Scope.application, Scope.class),
+				core.context.resolve(Scope.application, Scope.class));
+	}
+
+	@Test(expected = UnstableDependency.class)
+	public void deferredExportsAreCheckedForScopeConsistency() {
+		Bootstrap.injector(TestDeferredBundleBindsTicketBundle.class).resolve(
+				Desk.class);
+	}
+
+	@Test
+	public void deferredBundleCanBindExportsTargeted() {
+		Injector injector = Bootstrap.injector(
+				TestDeferredBundleBindsAuditBundle.class);
+		assertEquals("page", injector.resolve(Page.class).audit.origin);
+		assertEquals("default", injector.resolve(Audit.class).origin);
+	}
+}
@@ -0,0 +1,143 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Scope;
+import se.jbee.inject.UnresolvableDependency.DependencyCycle;
+import se.jbee.inject.UnresolvableDependency.UnstableDependency;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Verifies that skipping the cycle and scope nesting checks for the resources
+ * verified by the dependency graph analysis at bootstrap does not change the
+ * outcome of resolutions compared to doing the checks at runtime (see
+ * {@link Env#GP_USE_RUNTIME_CHECKS}).
+ */
+public class TestDependencyGraphBinds {
+
+	public interface Service {
+
+	}
+
+	public static class ServiceImpl implements Service {
+
+		final C c;
+
+		public ServiceImpl(C c) {
+			this.c = c;
+		}
+	}
+
+	public static class A {
+
+		final B b;
+
+		public A(B b) {
+			this.b = b;
+		}
+	}
+
+	public static class B {
+
+		final C c;
+
+		public B(C c) {
+			this.c = c;
+		}
+	}
+
+	public static class C {
+
+	}
+
+	public static class X {
+
+		public X(Cyclic y) {
+			// just to demo
+		}
+	}
+
+	public static class Y implements Cyclic {
+
+		public Y(X x) {
+			// just to demo
+		}
+	}
+
+	public interface Cyclic {
+
+	}
+
+	public static class Unstable {
+
+		public Unstable(PerInjection dep) {
+			// just to demo
+		}
+	}
+
+	public static class PerInjection {
+
+	}
+
+	static final class TestDependencyGraphBindsModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per(Scope.application).construct(A.class);
+			per(Scope.application).construct(B.class);
+			per(Scope.application).construct(C.class);
+			per(Scope.application).bind(Service.class).to(ServiceImpl.class);
+			per(Scope.application).construct(X.class);
+			per(Scope.application).bind(Cyclic.class).to(Y.class);
+			per(Scope.application).construct(Unstable.class);
+			per(Scope.injection).construct(PerInjection.class);
+		}
+	}
+
+	private final Injector verified = Bootstrap.injector(
+			TestDependencyGraphBindsModule.class);
+	private final Injector checked = Bootstrap.injector(
+			Environment.DEFAULT.with(Env.GP_USE_RUNTIME_CHECKS, boolean.class,
+					true),
+			TestDependencyGraphBindsModule.class);
+
+	@Test
+	public void acyclicStableDependenciesAreResolved() {
+		assertAcyclicStableDependenciesAreResolved(verified);
+		assertAcyclicStableDependenciesAreResolved(checked);
+	}
+
+	@Test(expected = DependencyCycle.class)
+	public void cyclesAreDetectedWhenVerified() {
+		verified.resolve(X.class);
+	}
+
+	@Test(expected = DependencyCycle.class)
+	public void cyclesAreDetectedWhenChecked() {
+		checked.resolve(X.class);
+	}
+
+	@Test(expected = UnstableDependency.class)
+	public void unstableNestingIsDetectedWhenVerified() {
+		verified.resolve(Unstable.class);
+	}
+
+	@Test(expected = UnstableDependency.class)
+	public void unstableNestingIsDetectedWhenChecked() {
+		checked.resolve(Unstable.class);
+	}
+
+	private static void assertAcyclicStableDependenciesAreResolved(
+			Injector context) {
+		A a = context.resolve(A.class);
+		assertNotNull(a);
+		assertSame(context.resolve(C.class), a.b.c);
+		assertSame(a.b.c, ((ServiceImpl) context.resolve(Service.class)).c);
+	}
+}
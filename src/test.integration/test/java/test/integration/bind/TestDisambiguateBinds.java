@@ -0,0 +1,139 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.DeclarationType;
+import se.jbee.inject.Injector;
+import se.jbee.inject.Instance;
+import se.jbee.inject.Locator;
+import se.jbee.inject.Name;
+import se.jbee.inject.Resource;
+import se.jbee.inject.Scope;
+import se.jbee.inject.Source;
+import se.jbee.inject.UnresolvableDependency;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.BindingType;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.bind.InconsistentBinding;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Cast.resourcesTypeFor;
+import static se.jbee.inject.lang.Type.raw;
+
+/**
+ * Tests that {@link Binding#disambiguate(Binding[])} orders the
+ * {@link Binding}s as {@link Binding#compareTo(Binding)} does and still
+ * detects clashes when grouping by raw type.
+ */
+public class TestDisambiguateBinds {
+
+	private static final Class<?>[] TYPES = { String.class, Integer.class,
+			Long.class, Runnable.class, CharSequence.class, Number.class };
+
+	private static final Name[] NAMES = { Name.DEFAULT, Name.ANY,
+			Name.named("a"), Name.named("ab"), Name.named("abc"),
+			Name.named("b") };
+
+	@Test
+	public void orderIsSameAsComparableOrder() {
+		Binding<?>[] bindings = new Binding<?>[TYPES.length * NAMES.length];
+		int i = 0;
+		for (Class<?> type : TYPES)
+			for (Name name : NAMES)
+				bindings[i] = binding(name, type, i++, DeclarationType.EXPLICIT);
+		Binding<?>[] expected = bindings.clone();
+		Arrays.sort(expected);
+		Collections.shuffle(Arrays.asList(bindings), new Random(42));
+		assertArrayEquals(expected, Binding.disambiguate(bindings));
+	}
+
+	private static class ShuffledBindsModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			List<Name> names = new ArrayList<>(Arrays.asList(NAMES));
+			Collections.shuffle(names, new Random(42));
+			for (Name name : names) {
+				bind(name, String.class).to(name.toString());
+				injectingInto(Number.class).bind(name, String.class).to(
+						"number");
+				injectingInto(Integer.class).bind(name, String.class).to(
+						"integer");
+			}
+		}
+	}
+
+	/**
+	 * The container does not sort the {@link Resource}s of a raw type again
+	 * but relies on the order of the disambiguated {@link Binding}s.
+	 */
+	@Test
+	public void resourcesOfDisambiguatedBindingsAreInComparableOrder() {
+		Injector injector = Bootstrap.injector(ShuffledBindsModule.class);
+		Resource<String>[] actual = injector.resolve(
+				resourcesTypeFor(String.class));
+		assertEquals(3 * NAMES.length, actual.length);
+		Resource<?>[] expected = actual.clone();
+		Arrays.sort(expected);
+		assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	public void explicitBindingsOfSameResourceClash() {
+		Binding<?>[] bindings = {
+				binding(Name.named("x"), String.class, 1, DeclarationType.EXPLICIT),
+				binding(Name.named("y"), Integer.class, 2, DeclarationType.EXPLICIT),
+				binding(Name.named("x"), String.class, 3, DeclarationType.EXPLICIT) };
+		try {
+			Binding.disambiguate(bindings);
+			fail("Expected clash");
+		} catch (InconsistentBinding e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void defaultBindingsAreReplacedByExplicitOnes() {
+		Binding<?>[] bindings = {
+				binding(Name.named("x"), String.class, 1, DeclarationType.DEFAULT),
+				binding(Name.named("y"), Integer.class, 2, DeclarationType.EXPLICIT),
+				binding(Name.named("x"), String.class, 3, DeclarationType.EXPLICIT) };
+		Binding<?>[] res = Binding.disambiguate(bindings);
+		assertEquals(2, res.length);
+		for (Binding<?> b : res)
+			assertEquals(DeclarationType.EXPLICIT, b.source.declarationType);
+	}
+
+	@Test
+	public void requiredTypesMustBeProvided() {
+		Binding<?>[] bindings = {
+				binding(Name.DEFAULT, String.class, 1, DeclarationType.REQUIRED),
+				binding(Name.DEFAULT, Integer.class, 2, DeclarationType.PROVIDED) };
+		try {
+			Binding.disambiguate(bindings);
+			fail("Expected missing required type");
+		} catch (UnresolvableDependency.NoResourceForDependency e) {
+			// expected
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Binding<?> binding(Name name, Class<?> type, int value,
+			DeclarationType declarationType) {
+		Instance<Object> instance = Instance.instance(name,
+				raw((Class<Object>) type));
+		return Binding.binding(new Locator<>(instance), BindingType.PREDEFINED,
+				Bindings.supplyConstant(value), Scope.application,
+				Source.source(TestDisambiguateBinds.class).typed(
+						declarationType));
+	}
+}
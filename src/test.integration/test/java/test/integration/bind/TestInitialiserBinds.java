@@ -10,6 +10,9 @@ import se.jbee.inject.binder.BinderModuleWith;
 import se.jbee.inject.bootstrap.Bootstrap;
 import se.jbee.inject.bootstrap.Environment;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 import static se.jbee.inject.Cast.initialiserTypeOf;
 import static se.jbee.inject.lang.Type.raw;
@@ -114,7 +117,22 @@ public class TestInitialiserBinds {
 
 	}
 
+	static final class TestInitialiserBindsEnvModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			// constants are not initialised so it is supplied
+			Env bootstrapping = env();
+			bind(Env.class).toSupplier((dep, context) -> bootstrapping);
+			initbind(Env.class).to((env, context) -> {
+				initialisedEnvs.add(env);
+				return env;
+			});
+		}
+	}
+
 	static Runnable shutdownHookMock;
+	static final List<Env> initialisedEnvs = new ArrayList<>();
 	static boolean moduleInitRan = false;
 
 	@Test
@@ -147,4 +165,14 @@ public class TestInitialiserBinds {
 		assertNotNull(module.setup);
 		assertEquals(42, module.setup.intValue());
 	}
+
+	@Test
+	public void initialisersAreAppliedToTheEnvUsedDuringBootstrapping() {
+		initialisedEnvs.clear();
+		Injector injector = Bootstrap.injector(
+				TestInitialiserBindsEnvModule.class);
+		Env env = injector.resolve(Env.class);
+		assertEquals(1, initialisedEnvs.size());
+		assertSame(env, initialisedEnvs.get(0));
+	}
 }
@@ -0,0 +1,171 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.UnresolvableDependency.SupplyFailed;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.config.ProducesBy;
+import se.jbee.inject.config.SharesBy;
+import se.jbee.inject.lang.Utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static se.jbee.inject.Name.named;
+
+/**
+ * Tests that constructors, methods and fields are invoked via
+ * {@link Utils#invoker(java.lang.reflect.Member)} method handles and that the
+ * reflective invocation is used when access to the member is restricted.
+ */
+public class TestInvokerBinds {
+
+	public static class Service {
+
+		final String name;
+
+		public Service(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Failing {
+
+		public Failing() {
+			throw new IllegalStateException("failing");
+		}
+	}
+
+	public static class Casting {
+
+		public Casting(Object value) {
+			String.class.cast(value); // fails for non strings
+		}
+	}
+
+	public static class Factory {
+
+		public static final Long ANSWER = 42L;
+
+		public static StringBuilder builder(Service service) {
+			return new StringBuilder(service.name);
+		}
+
+		public Integer length(String name) {
+			return name.length();
+		}
+	}
+
+	static final class Hidden {
+
+		private final String name;
+
+		private Hidden(String name) {
+			this.name = name;
+		}
+	}
+
+	static class InvokerBindsModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(String.class).to("invoked");
+			construct(Service.class);
+			construct(Failing.class);
+			construct(Hidden.class);
+			autobind().produceBy(ProducesBy.declaredMethods).in(Factory.class);
+			autobind().shareBy(SharesBy.declaredFields).in(Factory.class);
+			bind(named("factory"), Factory.class).toConstructor();
+		}
+	}
+
+	private final Injector context = Bootstrap.injector(
+			Environment.DEFAULT.with(Env.GP_USE_DEEP_REFLECTION, boolean.class,
+					true),
+			InvokerBindsModule.class);
+
+	@Test
+	public void constructorsAreInvoked() {
+		assertEquals("invoked", context.resolve(Service.class).name);
+	}
+
+	@Test
+	public void staticMethodsAreInvoked() {
+		assertEquals("invoked",
+				context.resolve(StringBuilder.class).toString());
+	}
+
+	@Test
+	public void instanceMethodsAreInvoked() {
+		assertEquals(7, context.resolve(Integer.class).intValue());
+	}
+
+	@Test
+	public void fieldsAreShared() {
+		assertSame(Factory.ANSWER, context.resolve(Long.class));
+	}
+
+	@Test
+	public void privateMembersAreInvokedWithDeepReflection() {
+		assertEquals("invoked", context.resolve(Hidden.class).name);
+	}
+
+	@Test
+	public void exceptionsOfInvokedMembersAreCauseOfSupplyFailed() {
+		try {
+			context.resolve(Failing.class);
+			fail("Expected exception");
+		} catch (SupplyFailed e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+			assertEquals("failing", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void exceptionsOfInvokedMembersAreWrappedAsTargetExceptions()
+			throws Exception {
+		Exception e = invokeFailing(Casting.class, 42);
+		assertTrue(e instanceof InvocationTargetException);
+		assertTrue(((InvocationTargetException) e).getTargetException() instanceof ClassCastException);
+	}
+
+	@Test
+	public void argumentMismatchesAreNotWrappedAsTargetExceptions()
+			throws Exception {
+		Exception e = invokeFailing(Service.class, 42);
+		assertTrue(e instanceof IllegalArgumentException);
+		assertTrue(e.getCause() instanceof ClassCastException);
+		e = invokeFailing(Service.class, "a", "b");
+		assertTrue(e instanceof IllegalArgumentException);
+	}
+
+	private static Exception invokeFailing(Class<?> type, Object... args)
+			throws Exception {
+		Constructor<?> target = type.getConstructors()[0];
+		try {
+			Utils.invoke(Utils.invoker(target), null, args,
+					e -> new SupplyFailed("failed", e));
+			fail("Expected exception");
+			return null;
+		} catch (SupplyFailed e) {
+			return (Exception) e.getCause();
+		}
+	}
+
+	@Test
+	public void restrictedMembersHaveNoInvoker() throws Exception {
+		Constructor<Hidden> hidden = Hidden.class.getDeclaredConstructor(
+				String.class);
+		assertNull(Utils.invoker(hidden));
+		assertNotNull(Utils.invoker(Service.class.getConstructor(String.class)));
+	}
+}
@@ -0,0 +1,99 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bind.Binding;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static se.jbee.inject.Name.named;
+
+/**
+ * Verifies that {@link Env#GP_USE_PARALLEL_DECLARATION} yields the very same
+ * {@link Binding}s as the sequential declaration of the same modules
+ * including the rules for monomodal and multimodal modules.
+ */
+public class TestParallelDeclarationBinds {
+
+	static class ParallelDeclarationBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(new NamedConstantModule("a", 1));
+			install(new NamedConstantModule("b", 2));
+			install(new MonomodalModule());
+			install(new MonomodalModule());
+			install(new NamedConstantModule("c", 3));
+			for (int i = 0; i < 20; i++)
+				install(new NamedConstantModule("x" + i, i));
+			install(MonomodalModule2.class);
+		}
+	}
+
+	/**
+	 * Multimodal as it has state so each instance is declared.
+	 */
+	static class NamedConstantModule extends BinderModule {
+
+		private final String name;
+		private final int value;
+
+		NamedConstantModule(String name, int value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		protected void declare() {
+			bind(named(name), Integer.class).to(value);
+			bind(named(name), String.class).to(name);
+		}
+	}
+
+	/**
+	 * Monomodal as it has no state so it is only declared once.
+	 */
+	static class MonomodalModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(Long.class).to(42L);
+		}
+	}
+
+	static class MonomodalModule2 extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(Float.class).to(42f);
+		}
+	}
+
+	private static final Env PARALLEL = Environment.DEFAULT.with(
+			Env.GP_USE_PARALLEL_DECLARATION, boolean.class, true);
+
+	@Test
+	public void parallelDeclarationYieldsSameBindingsAsSequential() {
+		Binding<?>[] sequential = Bootstrap.bindings(Environment.DEFAULT,
+				ParallelDeclarationBindsBundle.class, Bindings.newBindings());
+		Binding<?>[] parallel = Bootstrap.bindings(PARALLEL,
+				ParallelDeclarationBindsBundle.class, Bindings.newBindings());
+		assertArrayEquals(sequential, parallel);
+	}
+
+	@Test
+	public void parallelDeclarationKeepsModalityRules() {
+		Injector injector = Bootstrap.injector(PARALLEL,
+				ParallelDeclarationBindsBundle.class);
+		assertEquals(42L, injector.resolve(Long.class).longValue());
+		assertEquals(42f, injector.resolve(Float.class), 0.01f);
+		assertEquals(2, injector.resolve(named("b"), Integer.class).intValue());
+		assertEquals("x7", injector.resolve(named("x7"), String.class));
+	}
+}
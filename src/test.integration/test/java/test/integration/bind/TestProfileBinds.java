@@ -0,0 +1,141 @@
+package test.integration.bind;
+
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.bootstrap.Profile;
+import se.jbee.inject.bootstrap.Profile.Entry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link Bootstrap#profile(Env, Class)} that reports the time, bindings
+ * and reflective lookups for each bundle and module in the tree of bundles.
+ */
+public class TestProfileBinds {
+
+	static class ProfileBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(SlowBundle.class);
+			install(FastModule.class);
+		}
+	}
+
+	static class SlowBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			sleep(20);
+			install(SlowModule.class);
+		}
+	}
+
+	static class FastModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			bind(String.class).to("fast");
+		}
+	}
+
+	static class SlowModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			sleep(30);
+			bind(Integer.class).to(42);
+			bind(Long.class).to(42L);
+		}
+	}
+
+	static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private final Profile profile = Bootstrap.profile(Environment.DEFAULT,
+			ProfileBindsBundle.class);
+
+	@Test
+	public void bundlesAreReportedAsTree() {
+		Entry[] roots = profile.roots();
+		assertEquals(1, roots.length);
+		Entry root = roots[0];
+		assertSame(ProfileBindsBundle.class, root.type);
+		assertTrue(root.isBundle());
+		Entry slow = child(root, SlowBundle.class);
+		assertSame(root, slow.parent);
+		Entry slowModuleBundle = child(slow, SlowModule.class, true);
+		Entry slowModule = child(slowModuleBundle, SlowModule.class, false);
+		assertSame(slowModuleBundle, slowModule.parent);
+		assertFalse(slowModule.isBundle());
+		child(child(root, FastModule.class, true), FastModule.class, false);
+	}
+
+	@Test
+	public void bindingsAreCountedPerModule() {
+		Entry root = profile.roots()[0];
+		Entry slow = child(root, SlowBundle.class);
+		assertEquals(2, module(slow, SlowModule.class).bindings());
+		assertEquals(0, slow.bindings());
+		// the first BinderModule also installs the defaults
+		assertTrue(slow.totalBindings() > 2);
+		assertEquals(1, module(root, FastModule.class).bindings());
+		assertEquals(profile.totalBindings(), root.totalBindings());
+	}
+
+	@Test
+	public void nestedBundlesAreNotIncludedInOwnTime() {
+		Entry root = profile.roots()[0];
+		Entry slow = child(root, SlowBundle.class);
+		assertTrue(slow.nanos() >= 20_000_000L);
+		assertTrue(root.nanos() < 20_000_000L);
+		assertTrue(root.totalNanos() >= 50_000_000L);
+	}
+
+	@Test
+	public void entriesAreSortedByOwnTime() {
+		Entry[] entries = profile.entries();
+		assertSame(SlowModule.class, entries[0].type);
+		assertSame(SlowBundle.class, entries[1].type);
+		for (int i = 1; i < entries.length; i++)
+			assertTrue(entries[i - 1].nanos() >= entries[i].nanos());
+	}
+
+	@Test
+	public void reportListsAllEntries() {
+		String report = profile.toString();
+		for (Entry e : profile.entries())
+			assertTrue(report.contains(e.type.getName()));
+	}
+
+	private static Entry child(Entry parent, Class<?> type) {
+		return child(parent, type, true);
+	}
+
+	/**
+	 * A {@link BinderModule} is installed as {@link se.jbee.inject.bind.Bundle}
+	 * that installs itself as {@link se.jbee.inject.bind.Module}.
+	 */
+	private static Entry module(Entry parent, Class<?> type) {
+		return child(child(parent, type, true), type, false);
+	}
+
+	private static Entry child(Entry parent, Class<?> type, boolean bundle) {
+		for (Entry e : parent.children())
+			if (e.type == type && e.isBundle() == bundle)
+				return e;
+		throw new AssertionError("No child " + type + " in " + parent);
+	}
+}
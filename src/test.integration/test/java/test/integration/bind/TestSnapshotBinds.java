@@ -0,0 +1,312 @@
+package test.integration.bind;
+
+import org.junit.Before;
+import org.junit.Test;
+import se.jbee.inject.Env;
+import se.jbee.inject.Injector;
+import se.jbee.inject.bind.Bindings;
+import se.jbee.inject.binder.BinderModule;
+import se.jbee.inject.binder.BootstrapperBundle;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.bootstrap.Environment;
+import se.jbee.inject.config.ProducesBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static se.jbee.inject.Name.named;
+import static se.jbee.inject.lang.Type.raw;
+
+/**
+ * Tests {@link Bootstrap#injector(Env, Class, Path)} that restores the
+ * bindings of modules that only bind serialisable sources from a snapshot
+ * file instead of declaring them again.
+ */
+public class TestSnapshotBinds {
+
+	static final Path file = Paths.get("target/snapshot/test.snapshot");
+
+	static int frozenDeclarations = 0;
+	static int volatileDeclarations = 0;
+	static int envDeclarations = 0;
+	static int statefulDeclarations = 0;
+	static int constantDeclarations = 0;
+	static String state = "a";
+	static boolean gadgetRestored = false;
+
+	public static class Service {
+
+		final String name;
+
+		public Service(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Factory {
+
+		public static StringBuilder builder(Service service) {
+			return new StringBuilder(service.name);
+		}
+	}
+
+	static class SnapshotBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(FrozenModule.class);
+			install(VolatileModule.class);
+		}
+	}
+
+	/**
+	 * Only binds constructors, methods and serialisable constants.
+	 */
+	static class FrozenModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			frozenDeclarations++;
+			bind(String.class).to("snapshot");
+			bind(named("answer"), int.class).to(42);
+			construct(Service.class);
+			bind(Number.class).to(named("answer"), Integer.class);
+			arraybind(Integer[].class).toElements(1, 2, 3);
+			autobind().produceBy(ProducesBy.declaredMethods).in(Factory.class);
+		}
+	}
+
+	/**
+	 * Binds a lambda so it cannot be restored from the snapshot.
+	 */
+	static class VolatileModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			volatileDeclarations++;
+			bind(Long.class).toSupplier((dep, context) -> 13L);
+		}
+	}
+
+	static class EnvBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(EnvModule.class);
+			install(new StatefulModule(state));
+		}
+	}
+
+	/**
+	 * Binds a value that depends on an {@link Env} property.
+	 */
+	static class EnvModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			envDeclarations++;
+			bind(String.class).to(env().globalProperty("greeting",
+					raw(String.class), "hello"));
+		}
+	}
+
+	/**
+	 * Binds a value that depends on the state of the module.
+	 */
+	static class StatefulModule extends BinderModule {
+
+		private final String value;
+
+		StatefulModule(String value) {
+			this.value = value;
+		}
+
+		@Override
+		protected void declare() {
+			statefulDeclarations++;
+			bind(named("state"), String.class).to(value);
+		}
+	}
+
+	static class ConstantBindsBundle extends BootstrapperBundle {
+
+		@Override
+		protected void bootstrap() {
+			install(ConstantModule.class);
+		}
+	}
+
+	/**
+	 * Binds a serialisable constant of a class that is not restored.
+	 */
+	static class ConstantModule extends BinderModule {
+
+		@Override
+		protected void declare() {
+			constantDeclarations++;
+			bind(BigInteger.class).to(BigInteger.TEN);
+		}
+	}
+
+	/**
+	 * A class that has side effects when it is deserialised.
+	 */
+	static final class Gadget implements Serializable {
+
+		private void readObject(ObjectInputStream in) {
+			gadgetRestored = true;
+		}
+	}
+
+	@Before
+	public void deleteSnapshot() throws IOException {
+		Files.deleteIfExists(file);
+		frozenDeclarations = 0;
+		volatileDeclarations = 0;
+		envDeclarations = 0;
+		statefulDeclarations = 0;
+		constantDeclarations = 0;
+		state = "a";
+		gadgetRestored = false;
+	}
+
+	@Test
+	public void modulesAreDeclaredAgainWhenEnvPropertiesTheyUseChanged() {
+		Env hi = Environment.DEFAULT.with("greeting", String.class, "hi");
+		Env hey = Environment.DEFAULT.with("greeting", String.class, "hey");
+		assertEquals("hi", Bootstrap.injector(hi, EnvBindsBundle.class,
+				file).resolve(String.class));
+		assertEquals("hi", Bootstrap.injector(hi, EnvBindsBundle.class,
+				file).resolve(String.class));
+		assertEquals(1, envDeclarations);
+		assertEquals("hey", Bootstrap.injector(hey, EnvBindsBundle.class,
+				file).resolve(String.class));
+		assertEquals(2, envDeclarations);
+		assertEquals("hello", Bootstrap.injector(Environment.DEFAULT,
+				EnvBindsBundle.class, file).resolve(String.class));
+		assertEquals(3, envDeclarations);
+	}
+
+	@Test
+	public void modulesWithStateAreNotRestored() {
+		assertEquals("a", Bootstrap.injector(Environment.DEFAULT,
+				EnvBindsBundle.class, file).resolve(named("state"),
+						String.class));
+		state = "b";
+		assertEquals("b", Bootstrap.injector(Environment.DEFAULT,
+				EnvBindsBundle.class, file).resolve(named("state"),
+						String.class));
+		assertEquals(2, statefulDeclarations);
+	}
+
+	@Test
+	public void snapshotIsWrittenOnFirstBootstrap() {
+		Bootstrap.injector(Environment.DEFAULT, SnapshotBindsBundle.class,
+				file);
+		assertTrue(Files.isRegularFile(file));
+		assertEquals(1, frozenDeclarations);
+		assertEquals(1, volatileDeclarations);
+	}
+
+	@Test
+	public void serialisableModulesAreRestoredFromSnapshot() {
+		Bootstrap.injector(Environment.DEFAULT, SnapshotBindsBundle.class,
+				file);
+		Injector injector = Bootstrap.injector(Environment.DEFAULT,
+				SnapshotBindsBundle.class, file);
+		assertEquals(1, frozenDeclarations);
+		assertEquals(2, volatileDeclarations);
+		assertRestored(injector);
+	}
+
+	@Test
+	public void snapshotRestoresSameBindings() {
+		Injector fresh = Bootstrap.injector(Environment.DEFAULT,
+				SnapshotBindsBundle.class, file);
+		Injector restored = Bootstrap.injector(Environment.DEFAULT,
+				SnapshotBindsBundle.class, file);
+		assertRestored(fresh);
+		assertRestored(restored);
+		assertEquals(
+				Bootstrap.bindings(Environment.DEFAULT,
+						SnapshotBindsBundle.class, file).length,
+				Bootstrap.bindings(Environment.DEFAULT,
+						SnapshotBindsBundle.class,
+						Bindings.newBindings()).length);
+	}
+
+	@Test
+	public void modulesBindingConstantsOfOtherSerialisableClassesAreNotRestored() {
+		for (int i = 1; i <= 2; i++) {
+			assertEquals(BigInteger.TEN, Bootstrap.injector(Environment.DEFAULT,
+					ConstantBindsBundle.class, file).resolve(BigInteger.class));
+			assertEquals(i, constantDeclarations);
+		}
+	}
+
+	@Test
+	public void snapshotDoesNotRestoreInstancesOfOtherClasses()
+			throws IOException, ClassNotFoundException {
+		Bootstrap.injector(Environment.DEFAULT, SnapshotBindsBundle.class,
+				file);
+		String format;
+		String fingerprint;
+		byte[][] modules;
+		try (InputStream is = Files.newInputStream(file);
+				ObjectInputStream in = new ObjectInputStream(is)) {
+			format = in.readUTF();
+			fingerprint = in.readUTF();
+			modules = new byte[in.readInt()][];
+			for (int i = 0; i < modules.length; i++)
+				modules[i] = (byte[]) in.readObject();
+		}
+		ByteArrayOutputStream gadget = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(gadget)) {
+			out.writeInt(0);
+			out.writeInt(1);
+			out.writeObject(new Gadget());
+		}
+		modules[0] = gadget.toByteArray();
+		try (OutputStream os = Files.newOutputStream(file);
+				ObjectOutputStream out = new ObjectOutputStream(os)) {
+			out.writeUTF(format);
+			out.writeUTF(fingerprint);
+			out.writeInt(modules.length);
+			for (byte[] module : modules)
+				out.writeObject(module);
+		}
+		assertRestored(Bootstrap.injector(Environment.DEFAULT,
+				SnapshotBindsBundle.class, file));
+		assertFalse(gadgetRestored);
+		assertEquals(2, frozenDeclarations);
+	}
+
+	private static void assertRestored(Injector injector) {
+		assertEquals("snapshot", injector.resolve(String.class));
+		assertEquals(42, injector.resolve(Number.class));
+		Service service = injector.resolve(Service.class);
+		assertNotNull(service);
+		assertSame(service, injector.resolve(Service.class));
+		assertEquals("snapshot", service.name);
+		assertEquals("snapshot",
+				injector.resolve(StringBuilder.class).toString());
+		assertArrayEquals(new Integer[] { 1, 2, 3 },
+				injector.resolve(Integer[].class));
+		assertEquals(13L, injector.resolve(Long.class).longValue());
+	}
+}
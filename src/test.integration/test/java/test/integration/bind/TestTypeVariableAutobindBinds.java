@@ -3,6 +3,7 @@ package test.integration.bind;
 import org.junit.Test;
 import se.jbee.inject.Injector;
 import se.jbee.inject.Resource;
+import se.jbee.inject.Scope;
 import se.jbee.inject.lang.Type;
 import se.jbee.inject.binder.BinderModule;
 import se.jbee.inject.bootstrap.Bootstrap;
@@ -36,9 +37,32 @@ public class TestTypeVariableAutobindBinds {
 		}
 	}
 
+	/**
+	 * Same as {@link TestTypeVariableAutobindBindsModule} but each actual type
+	 * gets its own instance so the instances show which actual type was
+	 * injected when resolving alternating types.
+	 */
+	public static class TestTypeVariableAutobindBindsPerTypeModule
+			extends BinderModule {
+
+		@Override
+		protected void declare() {
+			per(Scope.dependencyType).autobind() //
+					.produceBy(ProducesBy.declaredMethods).in(this);
+		}
+
+		public <T> Function<T, String> injectsActualReturnType(
+				Type<Function<T, String>> actualReturnType) {
+			return val -> actualReturnType.toString() + ":" + val.toString();
+		}
+	}
+
 	private final Injector context = Bootstrap.injector(
 			TestTypeVariableAutobindBindsModule.class);
 
+	private final Injector perTypeContext = Bootstrap.injector(
+			TestTypeVariableAutobindBindsPerTypeModule.class);
+
 	@Test
 	public void actualReturnTypeIsInjectedAsFirstArgumentIfParameterTypeMatchesTypeOfReturnType() {
 		@SuppressWarnings("unchecked")
@@ -49,4 +73,21 @@ public class TestTypeVariableAutobindBinds {
 				f.apply(42));
 	}
 
+	@Test
+	public void actualReturnTypeIsInjectedForAlternatingActualTypes() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(
+					"java.util.function.Function<java.lang.Integer,java.lang.String>:1",
+					resolveFunction(Integer.class).apply(1));
+			assertEquals(
+					"java.util.function.Function<java.lang.Long,java.lang.String>:2",
+					resolveFunction(Long.class).apply(2L));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> Function<T, String> resolveFunction(Class<T> type) {
+		return perTypeContext.resolve(
+				raw(Function.class).parametized(type, String.class));
+	}
 }
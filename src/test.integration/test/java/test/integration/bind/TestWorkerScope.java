@@ -12,11 +12,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Test;
 
+import se.jbee.inject.Injector;
 import se.jbee.inject.Provider;
 import se.jbee.inject.Scope;
 import se.jbee.inject.Scope.Controller;
 import se.jbee.inject.UnresolvableDependency;
 import se.jbee.inject.UnresolvableDependency.SupplyFailed;
+import se.jbee.inject.bootstrap.Bootstrap;
+import se.jbee.inject.defaults.DefaultScopes;
 import se.jbee.inject.scope.WorkerScope;
 
 /**
@@ -32,6 +35,20 @@ public class TestWorkerScope {
 		assertNotNull(getController());
 	}
 
+	/**
+	 * The {@link Controller} was bound to a generator which bypasses the
+	 * {@link WorkerScope} so that it resolved to null.
+	 */
+	@Test
+	public void controllerIsResolvedFromTheScope() {
+		Injector context = Bootstrap.injector(DefaultScopes.class);
+		Controller controller = context.resolve(
+				Controller.forScope(Scope.worker));
+		assertNotNull(controller);
+		controller.allocate();
+		controller.deallocate();
+	}
+
 	@Test
 	public void scopeCannotBeUsedBeforeItIsAllocated() {
 		assertDeallocated(1, "test");
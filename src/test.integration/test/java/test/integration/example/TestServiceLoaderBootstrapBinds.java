@@ -3,7 +3,20 @@ package test.integration.example;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.Configuration;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.lang.module.ModuleReader;
+import java.lang.module.ModuleReference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -13,6 +26,10 @@ import se.jbee.inject.binder.ServiceLoaderBundles;
 import se.jbee.inject.binder.ServiceLoaderEnvBundles;
 import se.jbee.inject.bootstrap.Bootstrap;
 import se.jbee.inject.bind.Bundle;
+import test.integration.example.moduleonly.ModuleOnlyBundle;
+
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 
 /**
  * This test demonstrates how the {@link java.util.ServiceLoader} concept is
@@ -41,4 +58,93 @@ public class TestServiceLoaderBootstrapBinds {
 		assertEquals("com.example.app.MyFirstModule",
 				context.resolve(String.class));
 	}
+
+	@Test
+	public void serviceLoaderAlsoInstallsBundlesProvidedByModules()
+			throws IOException {
+		ModuleLayer layer = moduleOnlyLayer();
+		Thread current = Thread.currentThread();
+		ClassLoader loader = current.getContextClassLoader();
+		current.setContextClassLoader(layer.findLoader(MODULE_ONLY));
+		try {
+			Env env = Bootstrap.env(ServiceLoaderEnvBundles.class);
+			Injector context = Bootstrap.injector(env,
+					ServiceLoaderBundles.class);
+			// from the services file
+			assertEquals(13, context.resolve(int.class).intValue());
+			// from the module
+			assertEquals("module", context.resolve("module-only", String.class));
+		} finally {
+			current.setContextClassLoader(loader);
+		}
+	}
+
+	private static final String MODULE_ONLY = "test.moduleonly";
+
+	/**
+	 * @return a layer with a module that contains a copy of the
+	 *         {@link ModuleOnlyBundle} it provides as {@link Bundle} service
+	 */
+	private static ModuleLayer moduleOnlyLayer() throws IOException {
+		Path dir = Files.createTempDirectory(MODULE_ONLY);
+		Class<?> bundle = ModuleOnlyBundle.class;
+		Path file = dir.resolve(bundle.getName().replace('.', '/') + ".class");
+		Files.createDirectories(file.getParent());
+		try (InputStream in = bundle.getResourceAsStream(
+				bundle.getSimpleName() + ".class")) {
+			Files.copy(in, file);
+		}
+		// automatic so it reads the modules of the tested code, named or not
+		ModuleDescriptor descriptor = ModuleDescriptor.newAutomaticModule(
+				MODULE_ONLY) //
+				.packages(singleton(bundle.getPackage().getName())) //
+				.provides(Bundle.class.getName(),
+						singletonList(bundle.getName())) //
+				.build();
+		ModuleReference module = new ModuleReference(descriptor, dir.toUri()) {
+
+			@Override
+			public ModuleReader open() {
+				return new ModuleReader() {
+
+					@Override
+					public Optional<URI> find(String name) {
+						Path res = dir.resolve(name);
+						return Files.exists(res)
+							? Optional.of(res.toUri())
+							: Optional.empty();
+					}
+
+					@Override
+					public Stream<String> list() throws IOException {
+						return Files.walk(dir).map(
+								f -> dir.relativize(f).toString());
+					}
+
+					@Override
+					public void close() {
+						// nothing to close
+					}
+				};
+			}
+		};
+		ModuleFinder finder = new ModuleFinder() {
+
+			@Override
+			public Optional<ModuleReference> find(String name) {
+				return MODULE_ONLY.equals(name)
+					? Optional.of(module)
+					: Optional.empty();
+			}
+
+			@Override
+			public Set<ModuleReference> findAll() {
+				return singleton(module);
+			}
+		};
+		Configuration config = ModuleLayer.boot().configuration().resolve(
+				finder, ModuleFinder.of(), singleton(MODULE_ONLY));
+		return ModuleLayer.boot().defineModulesWithOneLoader(config,
+				TestServiceLoaderBootstrapBinds.class.getClassLoader());
+	}
 }
@@ -0,0 +1,17 @@
+package test.integration.example.moduleonly;
+
+import se.jbee.inject.binder.BinderModule;
+
+import static se.jbee.inject.Name.named;
+
+/**
+ * A {@link se.jbee.inject.bind.Bundle} that is only provided by a module
+ * descriptor, not by a {@code META-INF/services} file.
+ */
+public final class ModuleOnlyBundle extends BinderModule {
+
+	@Override
+	protected void declare() {
+		bind(named("module-only"), String.class).to("module");
+	}
+}